@@ -0,0 +1,56 @@
+package ar.edu.challenge01.productapi.bench;
+
+import ar.edu.challenge01.productapi.money.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de llevar un precio a 2 decimales HALF_UP y de volver a escribirlo:
+ * el camino con BigDecimal (setScale en cada asignación) contra centavos en
+ * un long (Money), que es lo que usan la entidad y el JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceScaleBenchmark {
+
+    @Param({"1234.50", "190.43097853056348075", "1500"})
+    private String text;
+
+    private long cents;
+    private char[] buf;
+
+    @Setup
+    public void setUp() {
+        cents = Money.parse(text);
+        buf = new char[Money.MAX_LENGTH];
+    }
+
+    @Benchmark
+    public BigDecimal parseBigDecimal() {
+        return new BigDecimal(text).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long parseCents() {
+        return Money.parse(text);
+    }
+
+    @Benchmark
+    public String formatBigDecimal() {
+        return BigDecimal.valueOf(cents, 2).toString();
+    }
+
+    @Benchmark
+    public void formatCents(Blackhole bh) {
+        bh.consume(Money.format(cents, buf));
+        bh.consume(buf);
+    }
+}
@@ -0,0 +1,43 @@
+package ar.edu.challenge01.productapi.bench;
+
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    private CreateProductRequest request;
+    private Product entity;
+
+    @Setup
+    public void setUp() {
+        request = new CreateProductRequest("Teclado mecánico", "Switches marrones, layout latam", new BigDecimal("1234.50"));
+
+        entity = ProductMapper.toEntity(request);
+        entity.setId(42L);
+        entity.setCreatedAt(Instant.parse("2025-11-18T18:30:00Z"));
+        entity.setUpdatedAt(Instant.parse("2025-11-18T18:45:12Z"));
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return ProductMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return ProductMapper.toResponse(entity);
+    }
+}
@@ -0,0 +1,60 @@
+package ar.edu.challenge01.productapi.bench;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de List&lt;ProductResponse&gt; (cuerpo de GET /products)
+ * con la misma configuración de fechas que usa Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<ProductResponse> products;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(List.class);
+
+        Instant base = Instant.parse("2025-11-18T18:30:00Z");
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(new ProductResponse(
+                    (long) i,
+                    "Producto " + i,
+                    "Descripción del producto " + i + " con algo de texto repetitivo para el listado",
+                    100_000L + i,
+                    base.plusSeconds(i),
+                    base.plusSeconds(i + 60)));
+        }
+    }
+
+    // Se escribe a un stream nulo: medimos Jackson, no el crecimiento de un buffer
+    @Benchmark
+    public void serializeList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), products);
+    }
+}
@@ -0,0 +1,58 @@
+package ar.edu.challenge01.productapi.bench;
+
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation de CreateProductRequest, tal como corre en cada POST:
+ * incluye los dos @Pattern sobre name y description.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    // Descripción larga: el costo del @Pattern ".*[letra].*" crece con la longitud
+    @Param({"short", "long"})
+    public String description;
+
+    private ValidatorFactory factory;
+    private Validator validator;
+    private CreateProductRequest valid;
+    private CreateProductRequest invalid;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        String text = description.equals("short") ? "Mecánico" : "1234567890 ".repeat(90) + "x";
+        valid = new CreateProductRequest("Teclado", text, new BigDecimal("1234.50"));
+        invalid = new CreateProductRequest("123", "456", new BigDecimal("-1.999"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateProductRequest>> validRequest() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateProductRequest>> invalidRequest() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,7 @@
+package ar.edu.challenge01.productapi.cache;
+
+/**
+ * Respuesta ya serializada: el JSON y, si vale la pena, su versión gzip.
+ * gzip es null para cuerpos chicos (comprimirlos no ahorra nada).
+ */
+public record EncodedPayload(String etag, byte[] json, byte[] gzip) {}
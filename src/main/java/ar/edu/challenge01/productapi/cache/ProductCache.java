@@ -0,0 +1,230 @@
+package ar.edu.challenge01.productapi.cache;
+
+import ar.edu.challenge01.productapi.datasource.ReadReplicas;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.event.ProductsCreatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache read-through en memoria de ProductResponse por id (Caffeine, W-TinyLFU).
+ *
+ * Consistencia: la carga de una clave corre dentro del compute atómico de
+ * Caffeine y la invalidación se ejecuta recién después del commit de la
+ * escritura. Una invalidación sobre una clave que se está cargando espera a
+ * que la carga termine y luego la descarta, así que una lectura que vio el
+ * valor viejo nunca puede dejarlo en la cache después de la escritura.
+ *
+ * Cache negativa: los ids que la carga no encontró se recuerdan durante
+ * negative-ttl, así un barrido de ids inexistentes no llega a la base en cada
+ * request. Un alta confirmada invalida su id; para cubrir el alta que confirma
+ * mientras se está cargando el mismo id, el miss solo queda registrado si no
+ * hubo ninguna alta entre el comienzo de la carga y el registro.
+ *
+ * La lectura por lote (getAll) carga fuera del compute de Caffeine, así que no
+ * tiene la garantía anterior: usa el mismo criterio que la cache negativa, con
+ * un contador de invalidaciones en lugar del de altas.
+ *
+ * Con réplicas de lectura, la carga puede venir de una réplica que todavía no
+ * aplicó la escritura que acaba de invalidar la clave. Por eso, durante
+ * ReadReplicas.maxStaleness después de cada invalidación, ese id se sirve
+ * leyendo sin guardar nada (ni el valor ni el miss): lo viejo no queda en la
+ * cache por todo el ttl.
+ */
+@Component
+public class ProductCache {
+
+    private static final Boolean MISSING = Boolean.TRUE;
+
+    private final Cache<Long, ProductResponse> cache;   // null si está deshabilitada
+    private final Cache<Long, Boolean> missing;          // null si está deshabilitada
+    private final Cache<Long, Boolean> unsettled;        // ids escritos hace menos de maxStaleness; null sin réplicas
+
+    // Se incrementan con cada alta confirmada / con cada invalidación
+    private final AtomicLong creations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductCache(boolean enabled, long maxSize, Duration ttl) {
+        this(enabled, maxSize, ttl, 0, Duration.ZERO);
+    }
+
+    public ProductCache(boolean enabled, long maxSize, Duration ttl, long negativeMaxSize, Duration negativeTtl) {
+        this(enabled, maxSize, ttl, negativeMaxSize, negativeTtl, Duration.ZERO);
+    }
+
+    @Autowired
+    public ProductCache(
+            @Value("${app.product-cache.enabled:true}") boolean enabled,
+            @Value("${app.product-cache.max-size:100000}") long maxSize,
+            @Value("${app.product-cache.ttl:10m}") Duration ttl,
+            @Value("${app.product-cache.negative-max-size:100000}") long negativeMaxSize,
+            @Value("${app.product-cache.negative-ttl:30s}") Duration negativeTtl,
+            ObjectProvider<ReadReplicas> replicas
+    ) {
+        this(enabled, maxSize, ttl, negativeMaxSize, negativeTtl,
+                replicas.getIfAvailable() == null ? Duration.ZERO : replicas.getIfAvailable().maxStaleness());
+    }
+
+    public ProductCache(boolean enabled, long maxSize, Duration ttl, long negativeMaxSize, Duration negativeTtl,
+                        Duration replicaStaleness) {
+        this.cache = !enabled ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.missing = !enabled || negativeMaxSize <= 0 || negativeTtl.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
+        this.unsettled = !enabled || replicaStaleness.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(replicaStaleness)
+                .build();
+    }
+
+    /** Cache pasante, útil en tests unitarios. */
+    public static ProductCache disabled() {
+        return new ProductCache(false, 0, Duration.ZERO);
+    }
+
+    /**
+     * Devuelve el producto o null si no existe. El loader también debe
+     * devolver null para un id inexistente (no lanzar), así el miss se cachea.
+     */
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        if (missing != null && missing.getIfPresent(id) != null) {
+            return null;
+        }
+        if (unsettled != null && unsettled.getIfPresent(id) != null) {
+            ProductResponse cached = cache.getIfPresent(id);
+            return cached != null ? cached : loader.apply(id);
+        }
+        long seen = creations.get();
+        ProductResponse found = cache.get(id, loader);
+        if (found == null && missing != null) {
+            missing.put(id, MISSING);
+            // Un alta confirmó durante la carga: el miss puede ser de antes del alta
+            if (creations.get() != seen) {
+                missing.invalidate(id);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Lectura por lote: devuelve los productos encontrados por id (los
+     * inexistentes no aparecen en el mapa). El loader recibe solo los ids que
+     * no están en la cache y debe resolverlos de una vez.
+     */
+    public Map<Long, ProductResponse> getAll(Collection<Long> ids,
+                                             Function<Set<Long>, Map<Long, ProductResponse>> loader) {
+        if (cache == null) {
+            return loader.apply(new LinkedHashSet<>(ids));
+        }
+        Map<Long, ProductResponse> found = new HashMap<>(cache.getAllPresent(ids));
+        Set<Long> pending = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (!found.containsKey(id) && (missing == null || missing.getIfPresent(id) == null)) {
+                pending.add(id);
+            }
+        }
+        if (pending.isEmpty()) {
+            return found;
+        }
+
+        long seenInvalidations = invalidations.get();
+        long seenCreations = creations.get();
+        Map<Long, ProductResponse> loaded = loader.apply(pending);
+        found.putAll(loaded);
+
+        if (unsettled != null) {
+            // Lo escrito hace poco pudo leerse de una réplica atrasada: se devuelve pero no se guarda
+            Set<Long> recent = unsettled.getAllPresent(pending).keySet();
+            pending.removeAll(recent);
+            loaded = new HashMap<>(loaded);
+            loaded.keySet().removeAll(recent);
+        }
+        cache.putAll(loaded);
+        // Una escritura confirmó durante la carga: alguno de los valores puede ser viejo
+        if (invalidations.get() != seenInvalidations) {
+            cache.invalidateAll(loaded.keySet());
+        }
+        if (missing != null) {
+            pending.removeAll(loaded.keySet());
+            for (Long id : pending) {
+                missing.put(id, MISSING);
+            }
+            if (creations.get() != seenCreations) {
+                missing.invalidateAll(pending);
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        // Antes que el invalidate: una carga que empiece después ya no guarda
+        if (unsettled != null) {
+            unsettled.put(id, Boolean.TRUE);
+        }
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+        if (missing != null) {
+            missing.invalidate(id);
+        }
+    }
+
+    // Sin transacción activa (p.ej. repo.save directo) el evento se procesa en el acto
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.CREATED) {
+            creations.incrementAndGet();
+        }
+        invalidate(event.id());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        creations.incrementAndGet();
+        if (unsettled != null) {
+            event.ids().forEach(id -> unsettled.put(id, Boolean.TRUE));
+        }
+        if (missing != null) {
+            missing.invalidateAll(event.ids());
+        }
+    }
+
+    public ProductCacheStats stats() {
+        if (cache == null) {
+            return new ProductCacheStats(false, 0, 0, 0, 0, 0.0, 0, 0);
+        }
+        CacheStats s = cache.stats();
+        long negativeSize = missing == null ? 0 : missing.estimatedSize();
+        long negativeHits = missing == null ? 0 : missing.stats().hitCount();
+        return new ProductCacheStats(true, cache.estimatedSize(),
+                s.hitCount(), s.missCount(), s.evictionCount(), s.hitRate(),
+                negativeSize, negativeHits);
+    }
+}
@@ -0,0 +1,12 @@
+package ar.edu.challenge01.productapi.cache;
+
+public record ProductCacheStats(
+        boolean enabled,
+        long size,
+        long hits,
+        long misses,
+        long evictions,
+        double hitRate,
+        long negativeSize,
+        long negativeHits
+) {}
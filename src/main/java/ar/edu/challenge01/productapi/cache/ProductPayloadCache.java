@@ -0,0 +1,136 @@
+package ar.edu.challenge01.productapi.cache;
+
+import ar.edu.challenge01.productapi.datasource.ReadReplicas;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.event.ProductsCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache de listados ya serializados (y comprimidos) para GET /products.
+ * Un hit se escribe tal cual: sin consulta, sin Jackson y sin gzip por request.
+ *
+ * Versión: el listado completo se indexa por el ETag de la colección, que sale
+ * de la base. Las páginas por keyset se indexan por (limit, cursor, generación),
+ * donde la generación avanza con cada escritura confirmada en esta instancia;
+ * las escrituras de otras instancias se ven recién al vencer el ttl.
+ * El tamaño se limita por bytes (max-bytes), no por cantidad de entradas.
+ *
+ * Con réplicas de lectura no se guarda nada durante ReadReplicas.maxStaleness
+ * después de cada escritura: lo leído en ese lapso puede venir de una réplica
+ * que todavía no la aplicó.
+ */
+@Component
+public class ProductPayloadCache {
+
+    private final ObjectMapper mapper;
+    private final Cache<String, EncodedPayload> cache;   // null si está deshabilitada
+    private final int gzipMinBytes;
+
+    private final long replicaStalenessNanos;
+
+    private final AtomicLong generation = new AtomicLong();
+    // Hasta cuándo (nanoTime) no se guarda nada; solo con réplicas
+    private volatile long unsettledUntil;
+
+    @Autowired
+    public ProductPayloadCache(
+            ObjectMapper mapper,
+            @Value("${app.product-payload-cache.enabled:true}") boolean enabled,
+            @Value("${app.product-payload-cache.max-bytes:64MB}") DataSize maxBytes,
+            @Value("${app.product-payload-cache.ttl:30s}") Duration ttl,
+            @Value("${app.product-payload-cache.gzip-min-size:1KB}") DataSize gzipMinSize,
+            ObjectProvider<ReadReplicas> replicas
+    ) {
+        this(mapper, enabled, maxBytes, ttl, gzipMinSize,
+                replicas.getIfAvailable() == null ? Duration.ZERO : replicas.getIfAvailable().maxStaleness());
+    }
+
+    public ProductPayloadCache(ObjectMapper mapper, boolean enabled, DataSize maxBytes, Duration ttl,
+                               DataSize gzipMinSize, Duration replicaStaleness) {
+        this.mapper = mapper;
+        this.replicaStalenessNanos = replicaStaleness.toNanos();
+        this.unsettledUntil = System.nanoTime();
+        this.gzipMinBytes = (int) gzipMinSize.toBytes();
+        this.cache = !enabled ? null : Caffeine.newBuilder()
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String key, EncodedPayload p) ->
+                        p.json().length + (p.gzip() == null ? 0 : p.gzip().length))
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /** Clave de una página por keyset; tomarla antes de consultar la base. */
+    public String pageKey(int limit, String cursor) {
+        return "page:" + generation.get() + ":" + limit + ":" + (cursor == null ? "" : cursor);
+    }
+
+    public EncodedPayload get(String key) {
+        return cache == null || key == null ? null : cache.getIfPresent(key);
+    }
+
+    /** Serializa (y comprime) value y lo guarda bajo key; key null = no cachear. */
+    public EncodedPayload put(String key, String etag, Object value) {
+        EncodedPayload payload = encode(etag, value);
+        if (cache != null && key != null && System.nanoTime() - unsettledUntil >= 0) {
+            cache.put(key, payload);
+        }
+        return payload;
+    }
+
+    EncodedPayload encode(String etag, Object value) {
+        try {
+            byte[] json = mapper.writeValueAsBytes(value);
+            return new EncodedPayload(etag, json, json.length < gzipMinBytes ? null : gzip(json));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize product payload", ex);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 8 * 1024)) {
+            gz.write(data);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);   // en memoria: no ocurre
+        }
+        return out.toByteArray();
+    }
+
+    // Las páginas guardadas quedan inalcanzables (otra generación): se liberan ya
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        bump();
+    }
+
+    private void bump() {
+        if (replicaStalenessNanos > 0) {
+            unsettledUntil = System.nanoTime() + replicaStalenessNanos;
+        }
+        generation.incrementAndGet();
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ar.edu.challenge01.productapi.changefeed;
+
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * Una fila del outbox tal como se publica en GET /products/changes.
+ * El consumidor la aplica como delta: CREATED/UPDATED → releer GET /products/{id},
+ * DELETED → borrar su copia.
+ */
+public record ProductChange(
+        long seq,
+        ProductChangedEvent.Type type,
+        long productId,
+        Instant occurredAt
+) {}
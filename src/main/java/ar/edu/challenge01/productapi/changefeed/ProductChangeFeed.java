@@ -0,0 +1,286 @@
+package ar.edu.challenge01.productapi.changefeed;
+
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publica el outbox (product_changes) a los suscriptores de GET /products/changes.
+ *
+ * Cada suscriptor tiene su propia posición (seq) y su propio hilo, que lee del
+ * outbox en tandas de batch-size filas y las envía como un único evento SSE.
+ * La tabla es el buffer: no hay colas en memoria. Un consumidor lento bloquea
+ * solo su propio send() y deja de leer hasta poder escribir (backpressure);
+ * uno que se desconecta retoma desde su Last-Event-ID.
+ *
+ * Huecos en seq: un BIGSERIAL se asigna al insertar, no al confirmar, así que
+ * una transacción lenta puede hacer visible el seq N+1 antes que el N. El
+ * lector no avanza más allá de un hueco hasta que pasa gap-wait desde la fila
+ * siguiente; pasado ese tiempo lo considera un rollback y lo saltea. Una
+ * transacción que tarda más que gap-wait en confirmar se pierde para los
+ * suscriptores que ya pasaron su seq: cada salto queda en el log (WARN) y en
+ * el contador product.changes.gaps.skipped, y gap-wait se ajusta por
+ * configuración si las transacciones largas son esperables.
+ *
+ * Nunca lazy (APP_LAZY_INIT): la purga programada se registra al crear el bean.
+ */
+@Component
+@Lazy(false)
+public class ProductChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductChangeFeed.class);
+
+    private static final String SELECT_AFTER = """
+            SELECT seq, product_id, type, occurred_at
+            FROM product_changes
+            WHERE seq > ?
+            ORDER BY seq
+            LIMIT ?
+            """;
+
+    // Último seq emitido por la secuencia (confirmado o no); null si nunca se usó
+    private static final String LAST_ISSUED =
+            "SELECT pg_sequence_last_value(pg_get_serial_sequence('product_changes', 'seq'))";
+
+    private final JdbcTemplate jdbc;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration heartbeat;
+    private final Duration gapWait;
+    private final Duration retention;
+    private final Counter gapsSkipped;
+
+    private final Semaphore slots;
+    private final ExecutorService workers;
+
+    // Se incrementa en cada commit que escribió en el outbox
+    private final Object signal = new Object();
+    private long commits;
+
+    public ProductChangeFeed(
+            JdbcTemplate jdbc,
+            MeterRegistry registry,
+            @Value("${app.product-changes.batch-size:500}") int batchSize,
+            @Value("${app.product-changes.max-subscribers:100}") int maxSubscribers,
+            @Value("${app.product-changes.poll-interval:1s}") Duration pollInterval,
+            @Value("${app.product-changes.heartbeat:15s}") Duration heartbeat,
+            @Value("${app.product-changes.gap-wait:10s}") Duration gapWait,
+            @Value("${app.product-changes.retention:7d}") Duration retention
+    ) {
+        this.jdbc = jdbc;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.heartbeat = heartbeat;
+        this.gapWait = gapWait;
+        this.retention = retention;
+        this.gapsSkipped = Counter.builder("product.changes.gaps.skipped")
+                .description("Outbox seqs a subscriber skipped after waiting gap-wait for them")
+                .register(registry);
+        this.slots = new Semaphore(maxSubscribers);
+        AtomicInteger n = new AtomicInteger();
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "product-changes-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Último seq confirmado. Con el outbox vacío (todo purgado) es el último que
+     * emitió la secuencia: empezar desde 0 haría esperar un hueco que no se llena.
+     */
+    public long currentSeq() {
+        Long seq = jdbc.queryForObject("SELECT max(seq) FROM product_changes", Long.class);
+        return seq != null ? seq : lastIssuedSeq();
+    }
+
+    /**
+     * true si los cambios posteriores a since ya fueron purgados por retención:
+     * el consumidor tiene que recargar el catálogo completo.
+     */
+    public boolean isExpired(long since) {
+        Long oldest = jdbc.queryForObject("SELECT min(seq) FROM product_changes", Long.class);
+        if (oldest == null) {
+            // Vacío: si la secuencia ya emitió seqs posteriores a since, se purgaron
+            return since < lastIssuedSeq();
+        }
+        return since + 1 < oldest;
+    }
+
+    private long lastIssuedSeq() {
+        Long seq = jdbc.queryForObject(LAST_ISSUED, Long.class);
+        return seq == null ? 0 : seq;
+    }
+
+    /**
+     * Empieza a enviar al emitter los cambios con seq &gt; since.
+     * Devuelve false si ya se alcanzó max-subscribers.
+     */
+    public boolean subscribe(long since, SseEmitter emitter) {
+        if (!slots.tryAcquire()) {
+            return false;
+        }
+        Subscription sub = new Subscription(since, emitter);
+        emitter.onCompletion(sub::close);
+        emitter.onTimeout(sub::close);
+        emitter.onError(ex -> sub.close());
+        workers.execute(() -> {
+            try {
+                sub.run();
+            } finally {
+                slots.release();
+            }
+        });
+        return true;
+    }
+
+    void wakeUp() {
+        synchronized (signal) {
+            commits++;
+            signal.notifyAll();
+        }
+    }
+
+    // Espera un commit nuevo (posterior a 'seen') o hasta pollInterval, lo que ocurra antes.
+    // El timeout cubre escrituras hechas por otras instancias, que no pasan por wakeUp().
+    private void awaitChanges(long seen) throws InterruptedException {
+        long deadline = System.nanoTime() + pollInterval.toNanos();
+        synchronized (signal) {
+            long remaining;
+            while (commits == seen && (remaining = deadline - System.nanoTime()) > 0) {
+                signal.wait(Math.max(1, remaining / 1_000_000));
+            }
+        }
+    }
+
+    private long commitsSeen() {
+        synchronized (signal) {
+            return commits;
+        }
+    }
+
+    /**
+     * Hasta batch-size cambios con seq &gt; seq, cortando en el primer hueco
+     * todavía dentro de gap-wait. Lo usan los suscriptores y ProductIndex.
+     */
+    public List<ProductChange> readAfter(long seq) {
+        List<ProductChange> rows = jdbc.query(SELECT_AFTER, (rs, i) -> new ProductChange(
+                rs.getLong("seq"),
+                ProductChangedEvent.Type.valueOf(rs.getString("type")),
+                rs.getLong("product_id"),
+                rs.getTimestamp("occurred_at").toInstant()
+        ), seq, batchSize);
+        List<ProductChange> ready = untilGap(seq, rows, Instant.now().minus(gapWait));
+        long expected = seq + 1;
+        for (ProductChange row : ready) {
+            if (row.seq() != expected) {
+                gapsSkipped.increment();
+                log.warn("Product changes {}..{} not visible after {}, skipped as rolled back",
+                        expected, row.seq() - 1, gapWait);
+            }
+            expected = row.seq() + 1;
+        }
+        return ready;
+    }
+
+    // Corta la tanda en el primer hueco reciente (seq todavía no confirmado)
+    static List<ProductChange> untilGap(long after, List<ProductChange> rows, Instant gapDeadline) {
+        long expected = after + 1;
+        for (int i = 0; i < rows.size(); i++) {
+            ProductChange row = rows.get(i);
+            if (row.seq() != expected && row.occurredAt().isAfter(gapDeadline)) {
+                return rows.subList(0, i);
+            }
+            expected = row.seq() + 1;
+        }
+        return rows;
+    }
+
+    @Scheduled(fixedDelayString = "${app.product-changes.cleanup-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = jdbc.update("DELETE FROM product_changes WHERE occurred_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Purged {} product changes older than {}", deleted, retention);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private long position;
+        private volatile boolean open = true;
+
+        Subscription(long since, SseEmitter emitter) {
+            this.emitter = emitter;
+            this.position = since;
+        }
+
+        void close() {
+            open = false;
+        }
+
+        void run() {
+            long lastSend = System.nanoTime();
+            try {
+                while (open) {
+                    long seen = commitsSeen();
+                    List<ProductChange> batch = readAfter(position);
+                    if (!batch.isEmpty()) {
+                        long last = batch.get(batch.size() - 1).seq();
+                        // id = último seq de la tanda: es lo que el cliente reenvía como Last-Event-ID
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(last))
+                                .name("changes")
+                                .data(batch, MediaType.APPLICATION_JSON));
+                        position = last;
+                        lastSend = System.nanoTime();
+                        if (batch.size() == batchSize) {
+                            continue;   // hay más pendiente: seguir sin esperar
+                        }
+                    } else if (System.nanoTime() - lastSend >= heartbeat.toNanos()) {
+                        // Comentario SSE: detecta clientes caídos y mantiene vivos los proxies
+                        emitter.send(SseEmitter.event().comment("keepalive"));
+                        lastSend = System.nanoTime();
+                    }
+                    awaitChanges(seen);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Cliente desconectado o emitter ya completado: nada que hacer
+                log.debug("Product changes subscriber closed at seq {}: {}", position, ex.toString());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.warn("Product changes subscriber failed at seq {}", position, ex);
+                emitter.completeWithError(ex);
+                return;
+            }
+            emitter.complete();
+        }
+    }
+}
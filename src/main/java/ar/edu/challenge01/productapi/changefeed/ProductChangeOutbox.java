@@ -0,0 +1,71 @@
+package ar.edu.challenge01.productapi.changefeed;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.event.ProductsCreatedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Escribe los eventos de producto en el outbox (product_changes).
+ *
+ * El INSERT corre sincrónicamente al publicarse el evento, dentro de la
+ * transacción de la escritura (ProductService, ProductBulkService,
+ * ProductUpsertService, ProductWriteBehind): JdbcTemplate usa su misma conexión,
+ * así el cambio y su fila de outbox se confirman o se revierten juntos. Un
+ * evento publicado fuera de una transacción es un error de programación: en
+ * autocommit el cambio podría quedar confirmado sin su fila, y el feed no se
+ * entera nunca.
+ *
+ * El stack reactivo escribe su fila por R2DBC (ver ReactiveProductService).
+ */
+@Component
+@ServletStack
+public class ProductChangeOutbox {
+
+    private static final String INSERT = "INSERT INTO product_changes (product_id, type) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ProductChangeFeed feed;
+
+    public ProductChangeOutbox(JdbcTemplate jdbc, ProductChangeFeed feed) {
+        this.jdbc = jdbc;
+        this.feed = feed;
+    }
+
+    @EventListener
+    public void record(ProductChangedEvent event) {
+        requireTransaction();
+        jdbc.update(INSERT, event.id(), event.type().name());
+    }
+
+    @EventListener
+    public void record(ProductsCreatedEvent event) {
+        requireTransaction();
+        jdbc.batchUpdate(INSERT, event.ids(), 500, (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setString(2, ProductChangedEvent.Type.CREATED.name());
+        });
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Product changes must be published inside the write's transaction");
+        }
+    }
+
+    // Recién después del commit las filas son visibles: despierta a los suscriptores
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void committed(ProductChangedEvent event) {
+        feed.wakeUp();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void committed(ProductsCreatedEvent event) {
+        feed.wakeUp();
+    }
+}
@@ -0,0 +1,177 @@
+package ar.edu.challenge01.productapi.config;
+
+import ar.edu.challenge01.productapi.metrics.RequestDbStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulkhead delante de cada pool de Hikari: como mucho tantas conexiones prestadas
+ * como tiene ese pool. El resto espera en el semáforo (con hilos virtuales,
+ * esperar ahí es barato) en lugar de bloquear dentro del pool; si la espera
+ * supera el timeout, getConnection falla con SaturatedException y el request
+ * recibe 503 (ver ApiExceptionHandler).
+ *
+ * Se toma un permiso por conexión, no por llamada: una transacción entera
+ * (bulk, upsert, ProductService) ocupa uno solo desde que pide la conexión
+ * hasta que la cierra, igual que ocupa una del pool.
+ *
+ * Cada DataSource envuelto tiene su propio semáforo: con réplicas, el primario
+ * y cada réplica se envuelven por separado (ver ReadReplicaConfig), así una
+ * réplica lenta no se queda con los permisos que necesitan las escrituras.
+ *
+ * También mide cuánto espera cada request por sus conexiones (semáforo más
+ * pool, ver RequestDbStats), aun con el bulkhead deshabilitado: es la señal de
+ * saturación de la base que usa el límite adaptativo de /products.
+ * Por el mismo proxy de la conexión se cuentan los statements de cada request
+ * (db.request.statements): los de Hibernate y los de JdbcTemplate por igual.
+ */
+@Component
+public class DbBulkhead {
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final long timeoutNanos;
+
+    public DbBulkhead(
+            @Value("${app.db-bulkhead.enabled:true}") boolean enabled,
+            @Value("${app.db-bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.db-bulkhead.acquire-timeout:2s}") Duration acquireTimeout
+    ) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutNanos = acquireTimeout.toNanos();
+    }
+
+    /**
+     * Envuelve el DataSource para que cada getConnection pase por un semáforo
+     * de max-concurrent permisos y se mida su espera.
+     */
+    public DataSource wrap(DataSource target) {
+        return wrap(target, maxConcurrent);
+    }
+
+    /** Igual, con un semáforo propio del tamaño de ese pool. */
+    public DataSource wrap(DataSource target, int permits) {
+        return new GuardedDataSource(target, new Semaphore(permits, true));
+    }
+
+    private void acquire(Semaphore permits) throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SaturatedException();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", ex);
+        }
+    }
+
+    private void release(Semaphore permits) {
+        if (enabled) {
+            permits.release();
+        }
+    }
+
+    // El permiso vuelve al semáforo en el primer close() de la conexión.
+    // Cada prepareStatement/prepareCall/createStatement cuenta como un statement del request.
+    private Connection guard(Connection target, Semaphore permits) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("close") && method.getParameterCount() == 0) {
+                        try {
+                            target.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                release(permits);
+                            }
+                        }
+                        return null;
+                    }
+                    if (name.equals("prepareStatement") || name.equals("prepareCall")
+                            || name.equals("createStatement")) {
+                        RequestDbStats.statementPrepared();
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+
+    private final class GuardedDataSource extends DelegatingDataSource {
+
+        private final Semaphore permits;
+
+        GuardedDataSource(DataSource target, Semaphore permits) {
+            super(target);
+            this.permits = permits;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                acquire(permits);
+                try {
+                    return guard(obtainTargetDataSource().getConnection(), permits);
+                } catch (SQLException | RuntimeException ex) {
+                    release(permits);
+                    throw ex;
+                }
+            } finally {
+                RequestDbStats.connectionAcquired(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                acquire(permits);
+                try {
+                    return guard(obtainTargetDataSource().getConnection(username, password), permits);
+                } catch (SQLException | RuntimeException ex) {
+                    release(permits);
+                    throw ex;
+                }
+            } finally {
+                RequestDbStats.connectionAcquired(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * No hubo conexión libre dentro de acquire-timeout. Llega envuelta por quien
+     * pidió la conexión (transaction manager, Hibernate, JdbcTemplate).
+     */
+    public static final class SaturatedException extends SQLTransientConnectionException {
+
+        SaturatedException() {
+            super("Database is saturated, retry later");
+        }
+
+        // Sin stack trace: se lanza justamente cuando el servidor está sobrecargado
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ar.edu.challenge01.productapi.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DbBulkheadConfig {
+
+    /**
+     * Envuelve con el DbBulkhead el DataSource "dataSource", el que usan JPA,
+     * JdbcTemplate y Flyway, cuando es el de Spring Boot.
+     * Con réplicas (el proxy lazy de ReadReplicaConfig) lo deja como está: ahí
+     * el primario y cada réplica ya vienen envueltos por separado, cada uno con
+     * un semáforo del tamaño de su pool.
+     */
+    @Bean
+    static BeanPostProcessor dbBulkheadDataSourcePostProcessor(ObjectProvider<DbBulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!beanName.equals("dataSource")) {
+                    return bean;
+                }
+                if (bean instanceof LazyConnectionDataSourceProxy) {
+                    return bean;
+                }
+                if (bean instanceof DataSource dataSource) {
+                    return bulkhead.getObject().wrap(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
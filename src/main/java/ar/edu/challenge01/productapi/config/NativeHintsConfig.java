@@ -0,0 +1,80 @@
+package ar.edu.challenge01.productapi.config;
+
+import ar.edu.challenge01.productapi.cache.ProductCacheStats;
+import ar.edu.challenge01.productapi.changefeed.ProductChange;
+import ar.edu.challenge01.productapi.dto.BulkItemResult;
+import ar.edu.challenge01.productapi.dto.BulkResponse;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductBatch;
+import ar.edu.challenge01.productapi.dto.ProductFieldsPage;
+import ar.edu.challenge01.productapi.dto.ProductFilter;
+import ar.edu.challenge01.productapi.dto.ProductPage;
+import ar.edu.challenge01.productapi.dto.ProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.entity.Category;
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.entity.ProductRow;
+import ar.edu.challenge01.productapi.index.ProductIndexStats;
+import ar.edu.challenge01.productapi.money.CentsConverter;
+import ar.edu.challenge01.productapi.repository.CollectionStamp;
+import ar.edu.challenge01.productapi.repository.SearchHit;
+import ar.edu.challenge01.productapi.writebehind.QueuedUpdate;
+import org.springframework.aop.SpringProxy;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.data.projection.TargetAware;
+
+import java.sql.Connection;
+
+/**
+ * Hints para el build AOT / native image (perfil maven 'native').
+ * Cubre lo que el procesamiento AOT de Spring no descubre solo: tipos que se
+ * serializan a mano (ProductPayloadCache escribe ProductPage con el ObjectMapper),
+ * constructor expressions de JPQL, proyecciones por interfaz (proxies JDK) y
+ * los scripts de Flyway, que se leen como recursos del classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.ProductApiHints.class)
+public class NativeHintsConfig {
+
+    static class ProductApiHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Entidades: Hibernate instancia y accede por reflexión
+            for (Class<?> entity : new Class<?>[] {Product.class, Category.class, ProductRow.class}) {
+                hints.reflection().registerType(entity, MemberCategory.values());
+            }
+            // @Convert del precio: Hibernate instancia el converter por reflexión
+            hints.reflection().registerType(CentsConverter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Records que entran o salen como JSON (incluye los anidados)
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                    ProductResponse.class, ProductPage.class, ProductFieldsPage.class, ProductBatch.class,
+                    CreateProductRequest.class, UpdateProductRequest.class, ProductRequest.class,
+                    ProductFilter.class, BulkResponse.class, BulkItemResult.class, ProductChange.class,
+                    ProductCacheStats.class, ProductIndexStats.class, QueuedUpdate.class);
+
+            // select new ...ProductResponse(...): Hibernate invoca el constructor canónico
+            hints.reflection().registerType(ProductResponse.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+            // Proyecciones por interfaz de Spring Data: proxies JDK
+            for (Class<?> projection : new Class<?>[] {SearchHit.class, CollectionStamp.class}) {
+                hints.proxies().registerJdkProxy(projection, TargetAware.class,
+                        SpringProxy.class, Advised.class, DecoratingProxy.class);
+            }
+
+            // DbBulkhead devuelve las conexiones envueltas en un proxy JDK
+            hints.proxies().registerJdkProxy(Connection.class);
+
+            hints.resources().registerPattern("db/migration/*.sql");
+        }
+    }
+}
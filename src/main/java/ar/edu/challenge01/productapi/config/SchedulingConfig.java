@@ -0,0 +1,12 @@
+package ar.edu.challenge01.productapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas periódicas (@Scheduled), p.ej. la purga del outbox de cambios.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
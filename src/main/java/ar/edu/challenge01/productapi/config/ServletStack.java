@@ -0,0 +1,22 @@
+package ar.edu.challenge01.productapi.config;
+
+import org.springframework.context.annotation.Profile;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Beans del stack servlet (Spring MVC): controllers, interceptores y su
+ * configuración. Con el perfil 'reactive' la aplicación arranca como WebFlux
+ * (ver application.yml), la API la atiende ReactiveProductController y estos
+ * beans no se registran.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Profile("!reactive")
+public @interface ServletStack {
+}
@@ -0,0 +1,31 @@
+package ar.edu.challenge01.productapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * spring-boot-starter-data-r2dbc está en el classpath en todos los perfiles, así
+ * que además del TransactionManager de JPA se registra un R2dbcTransactionManager.
+ * El de JPA es el @Primary: es el que usan los @Transactional sin calificar.
+ * El stack reactivo pide el suyo por tipo (ReactiveTransactionManager).
+ */
+@Configuration(proxyBeanMethods = false)
+public class TransactionConfig {
+
+    // Igual que el de Spring Boot (que se retira al existir este), con sus customizers
+    @Bean
+    @Primary
+    JpaTransactionManager transactionManager(
+            EntityManagerFactory entityManagerFactory,
+            ObjectProvider<TransactionManagerCustomizers> customizers
+    ) {
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+}
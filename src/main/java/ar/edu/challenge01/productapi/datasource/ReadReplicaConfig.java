@@ -0,0 +1,108 @@
+package ar.edu.challenge01.productapi.datasource;
+
+import ar.edu.challenge01.productapi.config.DbBulkhead;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ruteo de lecturas a réplicas, activo solo si app.datasource.replicas.urls
+ * tiene al menos una URL. Sin réplicas queda el DataSource de Spring Boot.
+ *
+ * El primario se arma igual que lo haría Boot (spring.datasource.*); cada réplica
+ * copia su configuración de Hikari y cambia URL, nombre y tamaño del pool.
+ * Hacia afuera (JPA, JdbcTemplate, Flyway) hay un único DataSource @Primary:
+ * el proxy lazy sobre el ruteo. Debajo del ruteo cada pool tiene su propio
+ * DbBulkhead: las conexiones a réplicas no compiten con las del primario.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    ReadReplicas readReplicas(
+            HikariDataSource primaryDataSource,
+            @Value("${app.datasource.replicas.urls}") String urls,
+            @Value("${app.datasource.replicas.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${app.datasource.replicas.max-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.replicas.check-interval:2s}") Duration checkInterval,
+            @Value("${app.datasource.replicas.query-timeout:1s}") Duration queryTimeout,
+            @Value("${app.datasource.replicas.primary-lsn-query}") String primaryLsnQuery,
+            @Value("${app.datasource.replicas.replica-status-query}") String replicaStatusQuery,
+            ObjectProvider<MeterRegistry> registry
+    ) {
+        List<ReadReplicas.Replica> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(urls)) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource pool = new HikariDataSource();
+            primaryDataSource.copyStateTo(pool);
+            pool.setJdbcUrl(url.trim());
+            pool.setPoolName(name);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            pool.setInitializationFailTimeout(-1);   // una réplica caída no frena el arranque
+            // No son beans: Boot no les registra las métricas hikaricp.* por su cuenta
+            registry.ifAvailable(r -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(r)));
+            replicas.add(new ReadReplicas.Replica(name, pool));
+        }
+        return new ReadReplicas(primaryDataSource, replicas, primaryLsnQuery, replicaStatusQuery,
+                maxLag, checkInterval, queryTimeout);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ReadReplicas readReplicas,
+            DbBulkhead bulkhead,
+            @Value("${app.db-bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int primaryPermits
+    ) {
+        // Bulkhead debajo del proxy lazy: cuenta y mide las conexiones reales, no los handles sin pedir
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primaryDataSource, readReplicas,
+                ds -> bulkhead.wrap(ds, ds == primaryDataSource
+                        ? primaryPermits
+                        : ((HikariDataSource) ds).getMaximumPoolSize())));
+    }
+
+    // /actuator/health/readReplicas: el servicio sigue UP sin réplicas (lee del primario)
+    @Bean
+    HealthIndicator readReplicasHealthIndicator(ReadReplicas readReplicas) {
+        return () -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            for (ReadReplicas.Replica r : readReplicas.replicas()) {
+                details.put(r.name(), Map.of("status", r.healthy() ? "UP" : "DOWN", "lagMs", r.lagMillis()));
+            }
+            return Health.up().withDetails(details).build();
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package ar.edu.challenge01.productapi.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Transacciones @Transactional(readOnly = true) a una réplica sana, todo lo
+ * demás (escrituras, llamadas fuera de transacción y cualquier lectura de un
+ * request que escribe) al primario. Las consultas de lectura de
+ * ProductRepository declaran su propia transacción read-only.
+ *
+ * Tiene que usarse envuelto en un LazyConnectionDataSourceProxy: la conexión
+ * real se pide en el primer statement, cuando el flag read-only de la
+ * transacción ya está puesto. Sin el proxy, el transaction manager pide la
+ * conexión al empezar y todo terminaría en el primario.
+ *
+ * La conexión de una transacción de escritura es la que, después del commit,
+ * lee el token de read-your-writes (ver ReadYourWrites).
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReadReplicas replicas;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas) {
+        this(primary, replicas, UnaryOperator.identity());
+    }
+
+    /**
+     * guard envuelve cada destino (el primario y cada réplica) por separado,
+     * p.ej. con su propio DbBulkhead. Los chequeos de ReadReplicas siguen
+     * usando los pools sin envolver.
+     */
+    public ReadReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas, UnaryOperator<DataSource> guard) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        DataSource guardedPrimary = guard.apply(primary);
+        targets.put(PRIMARY, guardedPrimary);
+        for (ReadReplicas.Replica r : replicas.replicas()) {
+            targets.put(r.name(), guard.apply(r.dataSource()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(guardedPrimary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = super.getConnection();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWrites.issueAfterCommit(connection, replicas.primaryLsnQuery());
+        }
+        return connection;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWrites.writeRequest()) {
+            return PRIMARY;
+        }
+        ReadReplicas.Replica replica = replicas.pick(ReadYourWrites.requiredLsn());
+        // Lecturas monótonas dentro del request (ver ReadYourWrites)
+        ReadYourWrites.readAt(replica == null ? Long.MAX_VALUE : replica.replayedLsn());
+        return replica == null ? PRIMARY : replica.name();
+    }
+}
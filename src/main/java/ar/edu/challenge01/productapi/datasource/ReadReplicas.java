@@ -0,0 +1,208 @@
+package ar.edu.challenge01.productapi.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réplicas de lectura con su estado de salud.
+ *
+ * Todo se compara por posición de WAL (LSN, en bytes), no por tiempo. Cada
+ * check-interval se toma la posición actual del primario (primary-lsn-query)
+ * y en cada réplica hasta dónde aplicó y si su receptor de WAL está
+ * transmitiendo (replica-status-query). El atraso de una réplica es cuánto
+ * hace que el primario estaba en la posición que ella aplicó, según esas
+ * muestras. Sale de la rotación si no responde, si su receptor no está en
+ * streaming (desconectada o trabada: no recibe nada, pero tampoco tiene nada
+ * pendiente de aplicar) o si está más de max-lag atrás. Arrancan fuera de
+ * rotación: hasta el primer chequeo todas las lecturas van al primario.
+ *
+ * replayedLsn es lo que la réplica tenía aplicado en el último chequeo; contra
+ * eso se compara el token de read-your-writes (ver ReadYourWrites).
+ */
+public class ReadReplicas implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private volatile boolean healthy;
+        private volatile long replayedLsn = -1;
+        private volatile long lagMillis = -1;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+
+        public String name() { return name; }
+
+        public DataSource dataSource() { return dataSource; }
+
+        public boolean healthy() { return healthy; }
+
+        /** -1 si el último chequeo falló o si todavía no se puede estimar. */
+        public long lagMillis() { return lagMillis; }
+
+        /** Hasta dónde aplicó el WAL según el último chequeo (-1 si no se sabe). */
+        long replayedLsn() { return replayedLsn; }
+    }
+
+    private record ReplicaStatus(long replayedLsn, boolean streaming) {}
+
+    // Posición del primario en un chequeo
+    private record Sample(long atMillis, long lsn) {}
+
+    private final JdbcTemplate primary;
+    private final List<Replica> replicas;
+    private final String primaryLsnQuery;
+    private final String replicaStatusQuery;
+    private final long maxLagMillis;
+    private final Duration maxStaleness;
+    private final AtomicInteger next = new AtomicInteger();
+    // De la más vieja a la más nueva; la más vieja tiene al menos max-lag (solo la toca check)
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    public ReadReplicas(DataSource primary, List<Replica> replicas, String primaryLsnQuery,
+                        String replicaStatusQuery, Duration maxLag, Duration checkInterval, Duration queryTimeout) {
+        this.primary = new JdbcTemplate(primary);
+        this.replicas = List.copyOf(replicas);
+        this.primaryLsnQuery = primaryLsnQuery;
+        this.replicaStatusQuery = replicaStatusQuery;
+        this.maxLagMillis = maxLag.toMillis();
+        this.maxStaleness = maxLag.plus(checkInterval);
+        int timeoutSeconds = (int) Math.max(1, queryTimeout.toSeconds());
+        this.primary.setQueryTimeout(timeoutSeconds);
+        for (Replica r : this.replicas) {
+            r.jdbc.setQueryTimeout(timeoutSeconds);
+        }
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Cota del atraso de una lectura servida por una réplica en rotación:
+     * max-lag en el último chequeo más lo que pudo atrasarse hasta el siguiente.
+     * Las caches no guardan lo leído durante esa ventana después de una escritura.
+     */
+    public Duration maxStaleness() {
+        return maxStaleness;
+    }
+
+    /** Consulta que devuelve la posición actual del WAL del primario (el token de ReadYourWrites). */
+    String primaryLsnQuery() {
+        return primaryLsnQuery;
+    }
+
+    /**
+     * Round-robin entre las réplicas sanas que ya aplicaron el WAL hasta
+     * requiredLsn (0 = sin requisito). null si ninguna sirve.
+     * Sin locks: un contador atómico y lecturas de campos volatile.
+     */
+    Replica pick(long requiredLsn) {
+        int n = replicas.size();
+        if (n == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), n);
+        for (int i = 0; i < n; i++) {
+            Replica r = replicas.get((start + i) % n);
+            if (r.healthy && r.replayedLsn >= requiredLsn) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.check-interval:2s}")
+    public void check() {
+        check(System.currentTimeMillis());
+    }
+
+    synchronized void check(long nowMillis) {
+        // Primero el primario: una réplica al día ya aplicó esa posición cuando se la consulta
+        try {
+            Long lsn = primary.queryForObject(primaryLsnQuery, Long.class);
+            if (lsn != null) {
+                addSample(nowMillis, lsn);
+            }
+        } catch (RuntimeException ex) {
+            // Sin muestra nueva: las réplicas se evalúan contra las anteriores
+            log.debug("Primary WAL position check failed: {}", ex.toString());
+        }
+
+        for (Replica r : replicas) {
+            boolean wasHealthy = r.healthy;
+            try {
+                ReplicaStatus status = r.jdbc.queryForObject(replicaStatusQuery, (rs, i) ->
+                        new ReplicaStatus(rs.getLong(1), rs.getBoolean(2)));
+                long lag = lagMillis(status.replayedLsn());
+                r.replayedLsn = status.replayedLsn();
+                r.lagMillis = lag;
+                r.healthy = status.streaming() && lag >= 0 && lag <= maxLagMillis;
+            } catch (RuntimeException ex) {
+                r.lagMillis = -1;
+                r.healthy = false;
+                log.debug("Replica {} check failed: {}", r.name, ex.toString());
+            }
+            if (wasHealthy != r.healthy) {
+                log.warn("Replica {} is now {} (lag {} ms)", r.name, r.healthy ? "UP" : "DOWN", r.lagMillis);
+            }
+        }
+    }
+
+    private void addSample(long nowMillis, long lsn) {
+        samples.addLast(new Sample(nowMillis, lsn));
+        // Se descarta la más vieja mientras la siguiente ya alcance para cubrir max-lag
+        while (samples.size() > 1) {
+            Iterator<Sample> it = samples.iterator();
+            it.next();
+            if (nowMillis - it.next().atMillis() < maxLagMillis) {
+                break;
+            }
+            samples.removeFirst();
+        }
+    }
+
+    /**
+     * Cuánto hace que el primario estaba en replayedLsn, como cota superior:
+     * cuánto antes de la última muestra se tomó la más nueva que la réplica ya
+     * aplicó (0 si aplicó la última). -1 si aplicó menos que todas: atrasada
+     * más que lo que cubren (max-lag), o recién arrancando y sin historia.
+     */
+    private long lagMillis(long replayedLsn) {
+        Sample newest = samples.peekLast();
+        Iterator<Sample> newestFirst = samples.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Sample s = newestFirst.next();
+            if (s.lsn() <= replayedLsn) {
+                return newest.atMillis() - s.atMillis();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica r : replicas) {
+            if (r.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package ar.edu.challenge01.productapi.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Read-your-writes con token de consistencia.
+ *
+ * Cuando confirma una transacción de escritura, la respuesta lleva
+ * X-Consistency-Token: la posición del WAL del primario leída en esa misma
+ * conexión justo después del commit (pg_current_wal_lsn(), en bytes), que ya
+ * incluye el registro del commit. Si el cliente lo reenvía en sus lecturas
+ * siguientes, solo se usa una réplica que ya aplicó el WAL hasta ahí; si
+ * ninguna llegó, la lectura va al primario. Sin token no hay requisito: la
+ * lectura puede ver hasta max-lag de atraso.
+ *
+ * Dentro de un mismo request las lecturas son monótonas: después de leer de
+ * una réplica, las transacciones siguientes piden al menos lo que esa réplica
+ * había aplicado, y después de leer del primario siguen en el primario. Así,
+ * p.ej., la versión de la colección y el listado que se cachea con ella no
+ * salen de réplicas en posiciones distintas. Los requests que escriben
+ * (todo lo que no es GET/HEAD/OPTIONS) leen siempre del primario.
+ */
+public final class ReadYourWrites {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWrites.class);
+
+    // Marca en la transacción: la sincronización se registra una sola vez
+    private static final Object ISSUED = new Object();
+
+    // Atributo del request: LSN mínimo para sus lecturas siguientes (ver readAt)
+    private static final String READ_AT = ReadYourWrites.class.getName() + ".readAt";
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * LSN mínimo para la próxima lectura del request actual: el del token o el
+     * de lo que el request ya leyó (0 sin requisito o sin request).
+     */
+    static long requiredLsn() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return 0;
+        }
+        long required = request.getAttribute(READ_AT) instanceof Long readAt ? readAt : 0;
+        String token = request.getHeader(HEADER);
+        if (token == null || token.isEmpty()) {
+            return required;
+        }
+        try {
+            return Math.max(required, Long.parseLong(token.trim()));
+        } catch (NumberFormatException ex) {
+            return required;   // token inválido: se ignora, no vale un 400
+        }
+    }
+
+    /**
+     * Registra que el request leyó en la posición lsn; Long.MAX_VALUE = leyó del
+     * primario, así que sus lecturas siguientes también van al primario.
+     */
+    static void readAt(long lsn) {
+        HttpServletRequest request = currentRequest();
+        if (request != null && !(request.getAttribute(READ_AT) instanceof Long readAt && readAt >= lsn)) {
+            request.setAttribute(READ_AT, lsn);
+        }
+    }
+
+    /** El request actual escribe: todas sus lecturas van al primario. */
+    static boolean writeRequest() {
+        HttpServletRequest request = currentRequest();
+        if (request == null) {
+            return false;
+        }
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    /**
+     * Registra en la transacción de escritura actual que, al confirmar, la
+     * respuesta debe llevar el token, leído con lsnQuery en la conexión de la
+     * transacción. Corre antes de que el controller escriba el cuerpo, así que
+     * el header todavía se puede agregar.
+     */
+    static void issueAfterCommit(Connection connection, String lsnQuery) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(ISSUED)) {
+            return;
+        }
+        HttpServletResponse response = currentResponse();
+        if (response == null) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(ISSUED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // La conexión sigue tomada hasta el cleanup de la transacción, que corre después
+            @Override
+            public void afterCommit() {
+                try (Statement st = connection.createStatement();
+                     ResultSet rs = st.executeQuery(lsnQuery)) {
+                    if (rs.next()) {
+                        response.setHeader(HEADER, Long.toString(rs.getLong(1)));
+                    }
+                } catch (SQLException ex) {
+                    // Sin token el cliente lee sin requisito; la escritura ya está confirmada
+                    log.debug("Could not read the WAL position after commit: {}", ex.toString());
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ISSUED);
+            }
+        });
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+                ? attrs.getRequest() : null;
+    }
+
+    private static HttpServletResponse currentResponse() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs
+                ? attrs.getResponse() : null;
+    }
+}
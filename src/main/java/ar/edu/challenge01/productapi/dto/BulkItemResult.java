@@ -0,0 +1,27 @@
+package ar.edu.challenge01.productapi.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record BulkItemResult(
+        int index,
+        String status,          // CREATED | UPDATED | UNCHANGED | INVALID
+        Long id,
+        Map<String, List<String>> errors
+) {
+    public static BulkItemResult created(int index, Long id) {
+        return new BulkItemResult(index, "CREATED", id, Map.of());
+    }
+
+    public static BulkItemResult updated(int index, Long id) {
+        return new BulkItemResult(index, "UPDATED", id, Map.of());
+    }
+
+    public static BulkItemResult unchanged(int index, Long id) {
+        return new BulkItemResult(index, "UNCHANGED", id, Map.of());
+    }
+
+    public static BulkItemResult invalid(int index, Map<String, List<String>> errors) {
+        return new BulkItemResult(index, "INVALID", null, errors);
+    }
+}
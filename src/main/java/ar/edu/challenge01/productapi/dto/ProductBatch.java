@@ -0,0 +1,8 @@
+package ar.edu.challenge01.productapi.dto;
+
+import java.util.List;
+
+public record ProductBatch(
+        List<ProductResponse> items,   // en el orden de los ids pedidos
+        List<Long> missing             // ids pedidos que no existen
+) {}
@@ -0,0 +1,11 @@
+package ar.edu.challenge01.productapi.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// ProductPage con selección de campos (?fields=): cada item tiene solo las claves pedidas
+public record ProductFieldsPage(
+        List<Map<String, Object>> items,
+        String nextCursor,
+        String prevCursor
+) {}
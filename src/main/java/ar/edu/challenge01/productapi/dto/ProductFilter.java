@@ -0,0 +1,19 @@
+package ar.edu.challenge01.productapi.dto;
+
+import java.time.Instant;
+
+/**
+ * Criterios de GET /products/filter. Todos opcionales; los rangos son
+ * inclusivos en el mínimo y exclusivos en el máximo para las fechas.
+ * Los precios van en centavos, ya redondeados hacia adentro del rango.
+ */
+public record ProductFilter(
+        Long minPriceCents,
+        Long maxPriceCents,
+        Instant createdFrom,
+        Instant createdTo,
+        Instant updatedFrom,
+        Instant updatedTo,
+        Long categoryId,
+        String category
+) {}
@@ -0,0 +1,9 @@
+package ar.edu.challenge01.productapi.dto;
+
+import java.util.List;
+
+public record ProductPage(
+        List<ProductResponse> items,
+        String nextCursor,
+        String prevCursor
+) {}
@@ -1,13 +1,25 @@
 package ar.edu.challenge01.productapi.dto;
 
-import java.math.BigDecimal;
+import ar.edu.challenge01.productapi.money.CentsDeserializer;
+import ar.edu.challenge01.productapi.money.CentsSerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.Instant;
 
+// price viaja como decimal (1234.50); adentro son centavos. El orden explícito
+// es el de siempre: Jackson deja al final las propiedades renombradas.
+@JsonPropertyOrder({"id", "name", "description", "price", "createdAt", "updatedAt"})
 public record ProductResponse(
         Long id,
         String name,
         String description,
-        BigDecimal price,
+        @JsonProperty("price")
+        @JsonSerialize(using = CentsSerializer.class)
+        @JsonDeserialize(using = CentsDeserializer.class)
+        long priceCents,
         Instant createdAt,
         Instant updatedAt
 ) {}
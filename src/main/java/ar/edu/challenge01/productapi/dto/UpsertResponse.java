@@ -0,0 +1,11 @@
+package ar.edu.challenge01.productapi.dto;
+
+import java.util.List;
+
+public record UpsertResponse(
+        int created,
+        int updated,
+        int unchanged,
+        int failed,
+        List<BulkItemResult> items
+) {}
@@ -1,17 +1,20 @@
 package ar.edu.challenge01.productapi.entity;
 
-import java.math.RoundingMode;
+import ar.edu.challenge01.productapi.money.CentsConverter;
+import ar.edu.challenge01.productapi.money.Money;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "products")
 public class Product {
 
+  // Secuencia 'pooled' (ver V4): permite batch inserts, cosa que IDENTITY impide
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+  @SequenceGenerator(name = "products_seq", sequenceName = "products_id_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank
@@ -23,21 +26,39 @@ public class Product {
   @Column(nullable = false)
   private String description;
 
-  @DecimalMin(value = "0.00", inclusive = true, message = "price must be greater than or equal to 0.00")
-  @Digits(integer = 13, fraction = 2,
-          message = "price must have up to 13 integer digits and 2 decimals")
+  // En centavos; la columna sigue siendo NUMERIC(15,2) (ver CentsConverter)
+  @PositiveOrZero(message = "price must be greater than or equal to 0.00")
+  @Max(value = Money.MAX_CENTS, message = "price must have up to 13 integer digits and 2 decimals")
+  @Convert(converter = CentsConverter.class)
   @Column(nullable = false, precision = 15, scale = 2)
-  private BigDecimal price;
+  private long price;
+
+  // Clave del ERP (V1, índice único ux_products_sku). Opcional: las altas por la API no la traen
+  @Size(max = 64)
+  @Column(length = 64)
+  private String sku;
 
   @Column(name = "created_at", nullable = false, updatable = false)
   private Instant createdAt;
 
+  // Resolución de microsegundos, igual que TIMESTAMP en PostgreSQL: el valor en
+  // memoria coincide con el persistido (los ETags dependen de updatedAt)
   @Column(name = "updated_at", nullable = false)
   private Instant updatedAt;
 
+  // Opcional (V8). LAZY: listar productos no dispara consultas a categories
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "category_id")
+  private Category category;
+
+  // Bloqueo optimista: evita que dos ediciones concurrentes se pisen en silencio
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @PrePersist
   void prePersist() {
-    Instant now = Instant.now();
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
     if (createdAt == null) {
       createdAt = now;
     }
@@ -48,7 +69,7 @@ public class Product {
 
   @PreUpdate
   void preUpdate() {
-    updatedAt = Instant.now();
+    updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
   }
 
   // Getters/Setters
@@ -61,22 +82,23 @@ public class Product {
   public String getDescription() { return description; }
   public void setDescription(String description) { this.description = description; }
 
-  public BigDecimal getPrice() { return price; }
+  // Ya redondeado: el HALF_UP a 2 decimales se aplica al pasar a centavos (Money.toCents)
+  public long getPriceCents() { return price; }
+  public void setPriceCents(long priceCents) { this.price = priceCents; }
 
-  public void setPrice(BigDecimal price) {
-    if (price == null) {
-      this.price = null;
-    } else {
-      // Siempre 2 decimales, redondeo HALF_UP (comportamiento típico de precios)
-      this.price = price.setScale(2, RoundingMode.HALF_UP);
-    }
-  }
- }
+  public String getSku() { return sku; }
+  public void setSku(String sku) { this.sku = sku; }
 
   public Instant getCreatedAt() { return createdAt; }
   public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 
   public Instant getUpdatedAt() { return updatedAt; }
   public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+  public Category getCategory() { return category; }
+  public void setCategory(Category category) { this.category = category; }
+
+  public Long getVersion() { return version; }
+  public void setVersion(Long version) { this.version = version; }
 }
 
@@ -0,0 +1,29 @@
+package ar.edu.challenge01.productapi.entity;
+
+import ar.edu.challenge01.productapi.money.Money;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de la tabla products para el stack reactivo (R2DBC).
+ * Mismo esquema que Product (migraciones Flyway), sin persistence context.
+ */
+@Table("products")
+public record ProductRow(
+        @Id Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        @Column("created_at") LocalDateTime createdAt,
+        @Column("updated_at") LocalDateTime updatedAt,
+        @Version Long version
+) {
+    public ProductRow withValues(String name, String description, BigDecimal price, LocalDateTime updatedAt) {
+        return new ProductRow(id, name, description, Money.normalize(price), createdAt, updatedAt, version);
+    }
+}
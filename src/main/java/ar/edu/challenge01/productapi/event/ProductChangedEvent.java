@@ -0,0 +1,17 @@
+package ar.edu.challenge01.productapi.event;
+
+/**
+ * Se publica en cada alta, modificación o baja de un producto.
+ * Los listeners que dependen de datos confirmados (cache, índices, etc.)
+ * deben escucharlo con @TransactionalEventListener(AFTER_COMMIT).
+ */
+public record ProductChangedEvent(Type type, Long id) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static ProductChangedEvent created(Long id) { return new ProductChangedEvent(Type.CREATED, id); }
+
+    public static ProductChangedEvent updated(Long id) { return new ProductChangedEvent(Type.UPDATED, id); }
+
+    public static ProductChangedEvent deleted(Long id) { return new ProductChangedEvent(Type.DELETED, id); }
+}
@@ -0,0 +1,10 @@
+package ar.edu.challenge01.productapi.event;
+
+import java.util.List;
+
+/**
+ * Alta masiva (POST /products/_bulk): un solo evento con todos los ids
+ * creados, para que los listeners procesen el lote de una vez en lugar de
+ * recibir miles de ProductChangedEvent.
+ */
+public record ProductsCreatedEvent(List<Long> ids) {}
@@ -0,0 +1,302 @@
+package ar.edu.challenge01.productapi.index;
+
+import ar.edu.challenge01.productapi.changefeed.ProductChange;
+import ar.edu.challenge01.productapi.changefeed.ProductChangeFeed;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.event.ProductsCreatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Índice en memoria del catálogo para nodos de lectura intensiva
+ * (app.product-index.enabled=true).
+ *
+ * Al arrancar carga una foto completa de products y después la mantiene al
+ * día con los eventos de escritura (ProductChangedEvent, ProductsCreatedEvent):
+ * después de cada commit relee por PK las filas afectadas y publica una foto
+ * nueva. Los lectores nunca bloquean; leen la foto vigente (volatile).
+ *
+ * Las escrituras de otras instancias llegan por el outbox (product_changes):
+ * cada refresh-interval se leen los cambios posteriores al último seq visto,
+ * con el mismo manejo de huecos que GET /products/changes, y se releen esas
+ * filas. Si el outbox ya purgó lo que faltaba, se recarga la foto completa.
+ * Si el índice no pudo ponerse al día durante max-staleness (base caída,
+ * refresh trabado), find y snapshot devuelven null y los callers van a la base.
+ *
+ * La relectura corre sin lock, en paralelo entre escritores. Lo leído queda
+ * en pending y lo publica quien tome applyLock, todo junto: con escrituras
+ * concurrentes se copian las columnas una vez por tanda y no una vez por fila.
+ * Cada escritor vuelve recién cuando su cambio está publicado (un GET posterior
+ * a su PUT ya lo ve). Como dos relecturas de la misma fila pueden llegar en
+ * cualquier orden, gana la de mayor version, y un id borrado no vuelve a
+ * entrar (los ids salen de una secuencia y no se reutilizan).
+ *
+ * Un miss en el índice no es un 404: los callers deben caer a la base.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.product-index", name = "enabled", havingValue = "true")
+public class ProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndex.class);
+
+    // El precio ya sale en centavos: price * 100 es exacto en NUMERIC(15,2)
+    private static final String SELECT = "SELECT id, name, description, CAST(price * 100 AS bigint) AS price_cents,"
+            + " created_at, updated_at, version FROM products";
+
+    // Bajas recordadas para descartar relecturas viejas de la misma fila que lleguen después
+    private static final int MAX_TOMBSTONES = 10_000;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTx;
+    private final ProductChangeFeed changes;
+    private final long maxStalenessNanos;
+
+    private volatile ProductIndexSnapshot snapshot;     // null hasta terminar la carga inicial
+    private volatile long loadMillis;
+    // Último seq del outbox ya aplicado y cuándo (nanoTime) se leyó el outbox hasta el final
+    private volatile long changesSeq;
+    private volatile long refreshedAt;
+
+    // Relecturas todavía no publicadas: id -> fila, o Optional.empty() si ya no existe
+    private final Map<Long, Optional<ProductIndexSnapshot.Row>> pending = new ConcurrentHashMap<>();
+    // ReentrantLock y no synchronized: un hilo virtual que espera acá no fija su carrier
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final Set<Long> tombstones = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_TOMBSTONES;
+        }
+    });   // protegido por applyLock
+    private final Set<Long> changedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    public ProductIndex(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager txManager,
+            ProductChangeFeed changes,
+            @Value("${app.product-index.max-staleness:10s}") Duration maxStaleness
+    ) {
+        this.jdbc = jdbc;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.changes = changes;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        long[] seq = {0};
+        // Dentro de una transacción el driver respeta el fetch size y trae las filas por tandas
+        List<ProductIndexSnapshot.Row> rows = readOnlyTx.execute(status -> {
+            // Antes de la foto y en la misma conexión (con réplicas, la misma base): lo
+            // confirmado después se relee desde el outbox
+            seq[0] = changes.currentSeq();
+            List<ProductIndexSnapshot.Row> out = new ArrayList<>();
+            jdbc.query(con -> {
+                var ps = con.prepareStatement(SELECT);
+                ps.setFetchSize(1_000);
+                return ps;
+            }, rs -> {
+                out.add(row(rs));
+            });
+            return out;
+        });
+        changesSeq = seq[0];
+        refreshedAt = start;
+        snapshot = ProductIndexSnapshot.of(rows);
+        // Cambios confirmados mientras corría la consulta: pueden no estar en la foto
+        if (!changedDuringLoad.isEmpty()) {
+            List<Long> ids = List.copyOf(changedDuringLoad);
+            changedDuringLoad.removeAll(ids);
+            changed(ids);
+        }
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        ProductIndexStats stats = stats();
+        log.info("Product index loaded: {} products in {} ms, ~{} KB ({} bytes/product, {} without text)",
+                stats.size(), loadMillis, stats.totalBytes() / 1024,
+                Math.round(stats.bytesPerProduct()), Math.round(stats.columnBytesPerProduct()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changed(List.of(event.id()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        changed(event.ids());
+    }
+
+    /** Aplica los cambios del outbox posteriores al último seq visto (incluye los de otras instancias). */
+    @Scheduled(fixedDelayString = "${app.product-index.refresh-interval:1s}")
+    public void refresh() {
+        if (snapshot == null) {
+            return;   // la carga inicial todavía no terminó
+        }
+        long start = System.nanoTime();
+        long seq = changesSeq;
+        try {
+            if (changes.isExpired(seq)) {
+                log.warn("Product changes after seq {} were purged, reloading the product index", seq);
+                load();
+                return;
+            }
+            List<ProductChange> batch;
+            while (!(batch = changes.readAfter(seq)).isEmpty()) {
+                changed(batch.stream().map(ProductChange::productId).toList());
+                seq = batch.get(batch.size() - 1).seq();
+                changesSeq = seq;
+            }
+        } catch (DataAccessException ex) {
+            // Se reintenta en el próximo refresh; pasado max-staleness los callers van a la base
+            log.warn("Could not refresh the product index from product_changes after seq {}: {}", seq, ex.toString());
+            return;
+        }
+        refreshedAt = start;
+    }
+
+    private void changed(Collection<Long> ids) {
+        if (snapshot == null) {
+            changedDuringLoad.addAll(ids);
+            if (snapshot == null) {
+                return;   // load() los relee al terminar
+            }
+            // load() terminó mientras tanto: releer acá (si también los releyó él, no pasa nada)
+        }
+        reread(ids).forEach((id, row) -> pending.merge(id, row, ProductIndex::newer));
+        publish();
+    }
+
+    // Fuera de todo lock: varios escritores pueden estar releyendo a la vez
+    private Map<Long, Optional<ProductIndexSnapshot.Row>> reread(Collection<Long> ids) {
+        Map<Long, Optional<ProductIndexSnapshot.Row>> read = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            String in = String.join(",", chunk.stream().map(id -> "?").toList());
+            jdbc.query(SELECT + " WHERE id IN (" + in + ")",
+                    rs -> {
+                        ProductIndexSnapshot.Row r = row(rs);
+                        read.put(r.id(), Optional.of(r));
+                    },
+                    chunk.toArray());
+            for (Long id : chunk) {
+                read.putIfAbsent(id, Optional.empty());
+            }
+        }
+        return read;
+    }
+
+    // Publica todo lo pendiente (lo propio y lo de otros escritores) en una sola foto nueva.
+    // Si otro ya lo publicó mientras se esperaba el lock, no queda nada por hacer.
+    private void publish() {
+        applyLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            ProductIndexSnapshot current = snapshot;
+            Map<Long, ProductIndexSnapshot.Row> upserts = new HashMap<>();
+            Set<Long> removals = new HashSet<>();
+            for (Long id : List.copyOf(pending.keySet())) {
+                Optional<ProductIndexSnapshot.Row> change = pending.remove(id);
+                if (change == null) {
+                    continue;
+                }
+                if (change.isEmpty()) {
+                    tombstones.add(id);
+                    removals.add(id);
+                } else if (!tombstones.contains(id) && change.get().version() >= current.version(id)) {
+                    upserts.put(id, change.get());
+                }
+            }
+            snapshot = current.apply(upserts, removals);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    // Entre dos relecturas de la misma fila: la baja o la de mayor version
+    private static Optional<ProductIndexSnapshot.Row> newer(Optional<ProductIndexSnapshot.Row> a,
+                                                            Optional<ProductIndexSnapshot.Row> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return Optional.empty();
+        }
+        return b.get().version() >= a.get().version() ? b : a;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> out = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += 1_000) {
+            out.add(all.subList(i, Math.min(all.size(), i + 1_000)));
+        }
+        return out;
+    }
+
+    private static ProductIndexSnapshot.Row row(ResultSet rs) throws SQLException {
+        return new ProductIndexSnapshot.Row(
+                rs.getLong("id"),
+                rs.getLong("price_cents"),
+                ProductIndexSnapshot.toMicros(rs.getTimestamp("created_at").toInstant()),
+                ProductIndexSnapshot.toMicros(rs.getTimestamp("updated_at").toInstant()),
+                rs.getLong("version"),
+                rs.getString("name"),
+                rs.getString("description")
+        );
+    }
+
+    /** Foto vigente, o null si la carga inicial todavía no terminó o si está atrasada. */
+    public ProductIndexSnapshot snapshot() {
+        return System.nanoTime() - refreshedAt > maxStalenessNanos ? null : snapshot;
+    }
+
+    /** Lookup por id sin ir a la base; null si no está (o si el índice no está listo o está atrasado). */
+    public ProductResponse find(long id) {
+        ProductIndexSnapshot s = snapshot();
+        return s == null ? null : s.find(id);
+    }
+
+    public ProductIndexStats stats() {
+        ProductIndexSnapshot s = snapshot;
+        if (s == null) {
+            return new ProductIndexStats(false, 0, 0, 0, 0, 0.0, 0.0, 0);
+        }
+        long[] bytes = s.estimateBytes();
+        int n = s.size();
+        long total = bytes[0] + bytes[1];
+        return new ProductIndexStats(true, n, bytes[0], bytes[1], total,
+                n == 0 ? 0.0 : (double) total / n,
+                n == 0 ? 0.0 : (double) bytes[0] / n,
+                loadMillis);
+    }
+}
@@ -0,0 +1,366 @@
+package ar.edu.challenge01.productapi.index;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Foto inmutable y columnar del catálogo.
+ *
+ * Las columnas son arrays paralelos ordenados por id (búsqueda binaria para
+ * el lookup por id). Los órdenes secundarios son permutaciones int[] sobre
+ * esas posiciones: por (createdAt desc, id desc) y por (precio asc, id asc).
+ * Precio en centavos y fechas en microsegundos desde epoch, así recorrer un
+ * rango no crea BigDecimal ni Instant: solo se materializa lo que se devuelve.
+ *
+ * Nunca se modifica después de construida; cada escritura produce una foto
+ * nueva (copy-on-write) y los lectores siguen con la que tenían.
+ */
+public final class ProductIndexSnapshot {
+
+    /** Fila a indexar, tal como se lee de la base. */
+    public record Row(long id, long priceCents, long createdMicros, long updatedMicros, long version,
+                      String name, String description) {}
+
+    static final ProductIndexSnapshot EMPTY = of(List.of());
+
+    private final long[] ids;
+    private final long[] priceCents;
+    private final long[] createdMicros;
+    private final long[] updatedMicros;
+    private final long[] versions;
+    private final String[] names;
+    private final String[] descriptions;
+    private final int[] byCreated;
+    private final int[] byPrice;
+
+    private ProductIndexSnapshot(long[] ids, long[] priceCents, long[] createdMicros, long[] updatedMicros,
+                                 long[] versions, String[] names, String[] descriptions,
+                                 int[] byCreated, int[] byPrice) {
+        this.ids = ids;
+        this.priceCents = priceCents;
+        this.createdMicros = createdMicros;
+        this.updatedMicros = updatedMicros;
+        this.versions = versions;
+        this.names = names;
+        this.descriptions = descriptions;
+        this.byCreated = byCreated;
+        this.byPrice = byPrice;
+    }
+
+    /** Construye la foto a partir de filas en cualquier orden (carga inicial, cambios en lote). */
+    public static ProductIndexSnapshot of(Collection<Row> rows) {
+        Row[] sorted = rows.toArray(Row[]::new);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.id(), b.id()));
+        int n = sorted.length;
+        long[] ids = new long[n];
+        long[] cents = new long[n];
+        long[] created = new long[n];
+        long[] updated = new long[n];
+        long[] versions = new long[n];
+        String[] names = new String[n];
+        String[] descriptions = new String[n];
+        for (int i = 0; i < n; i++) {
+            Row r = sorted[i];
+            ids[i] = r.id();
+            cents[i] = r.priceCents();
+            created[i] = r.createdMicros();
+            updated[i] = r.updatedMicros();
+            versions[i] = r.version();
+            names[i] = r.name();
+            descriptions[i] = r.description();
+        }
+        int[] byCreated = identity(n);
+        int[] byPrice = identity(n);
+        mergeSort(byCreated, createdOrder(ids, created));
+        mergeSort(byPrice, priceOrder(ids, cents));
+        return new ProductIndexSnapshot(ids, cents, created, updated, versions, names, descriptions, byCreated, byPrice);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // ---------------------------------------------------------------- lecturas
+
+    public ProductResponse find(long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        return pos < 0 ? null : response(pos);
+    }
+
+    /** Columna version de la fila indexada, o -1 si el id no está. */
+    long version(long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        return pos < 0 ? -1 : versions[pos];
+    }
+
+    /**
+     * Hasta limit productos del más nuevo al más viejo, posteriores (en ese
+     * orden) al cursor (afterCreatedMicros, afterId) si hasCursor.
+     */
+    public List<ProductResponse> newest(boolean hasCursor, long afterCreatedMicros, long afterId, int limit) {
+        int from = 0;
+        if (hasCursor) {
+            // primera posición estrictamente después del cursor en orden (created desc, id desc)
+            from = lowerBound(byCreated, pos -> {
+                int c = Long.compare(afterCreatedMicros, createdMicros[pos]);
+                return c != 0 ? c : Long.compare(afterId, ids[pos]);
+            }, true);
+        }
+        int to = Math.min(byCreated.length, from + limit);
+        List<ProductResponse> out = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            out.add(response(byCreated[i]));
+        }
+        return out;
+    }
+
+    /**
+     * Hasta limit productos con precio en [minCents, maxCents], de menor a
+     * mayor precio, posteriores al cursor (afterCents, afterId) si hasCursor.
+     */
+    public List<ProductResponse> priceRange(long minCents, long maxCents,
+                                            boolean hasCursor, long afterCents, long afterId, int limit) {
+        int from = lowerBound(byPrice, pos -> Long.compare(priceCents[pos], minCents), false);
+        if (hasCursor) {
+            int afterCursor = lowerBound(byPrice, pos -> {
+                int c = Long.compare(priceCents[pos], afterCents);
+                return c != 0 ? c : Long.compare(ids[pos], afterId);
+            }, true);
+            from = Math.max(from, afterCursor);
+        }
+        List<ProductResponse> out = new ArrayList<>(Math.min(limit, 64));
+        for (int i = from; i < byPrice.length && out.size() < limit; i++) {
+            int pos = byPrice[i];
+            if (priceCents[pos] > maxCents) {
+                break;
+            }
+            out.add(response(pos));
+        }
+        return out;
+    }
+
+    /**
+     * Primera posición i de order cuyo elemento no queda antes del buscado:
+     * cmp(pos) < 0 significa "pos va antes". Con strict, también se saltean
+     * los elementos iguales (cmp == 0).
+     */
+    private static int lowerBound(int[] order, IntUnaryOperator cmp, boolean strict) {
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = cmp.applyAsInt(order[mid]);
+            if (c < 0 || (strict && c == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private ProductResponse response(int pos) {
+        return new ProductResponse(
+                ids[pos],
+                names[pos],
+                descriptions[pos],
+                priceCents[pos],
+                toInstant(createdMicros[pos]),
+                toInstant(updatedMicros[pos])
+        );
+    }
+
+    // --------------------------------------------------------------- escrituras
+
+    /**
+     * Foto nueva con los cambios aplicados: upserts por id y bajas.
+     * Una sola pasada por las columnas para todo el lote, sin reordenar lo que
+     * no cambió: las filas que quedan conservan su orden relativo en las
+     * permutaciones, y solo las k cambiadas se ordenan y se intercalan
+     * (O(n + k log k)). Conviene juntar los cambios y aplicarlos de una vez.
+     */
+    public ProductIndexSnapshot apply(Map<Long, Row> upserts, Collection<Long> removals) {
+        if (upserts.isEmpty() && removals.isEmpty()) {
+            return this;
+        }
+        Row[] changed = upserts.values().toArray(Row[]::new);
+        Arrays.sort(changed, (a, b) -> Long.compare(a.id(), b.id()));
+        Set<Long> removed = removals instanceof Set<Long> set ? set : new HashSet<>(removals);
+
+        int n = ids.length;
+        int size = n;
+        for (Row r : changed) {
+            if (Arrays.binarySearch(ids, r.id()) < 0) {
+                size++;
+            }
+        }
+        for (Long id : removed) {
+            if (!upserts.containsKey(id) && Arrays.binarySearch(ids, id) >= 0) {
+                size--;
+            }
+        }
+
+        long[] nIds = new long[size];
+        long[] nCents = new long[size];
+        long[] nCreated = new long[size];
+        long[] nUpdated = new long[size];
+        long[] nVersions = new long[size];
+        String[] nNames = new String[size];
+        String[] nDescriptions = new String[size];
+        int[] moved = new int[n];                   // posición nueva de cada fila vieja (-1: cambió o se borró)
+        int[] changedAt = new int[changed.length];  // posición nueva de cada fila cambiada
+
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < n || j < changed.length) {
+            if (j < changed.length && (i == n || changed[j].id() <= ids[i])) {
+                Row r = changed[j];
+                if (i < n && ids[i] == r.id()) {
+                    moved[i++] = -1;
+                }
+                nIds[k] = r.id();
+                nCents[k] = r.priceCents();
+                nCreated[k] = r.createdMicros();
+                nUpdated[k] = r.updatedMicros();
+                nVersions[k] = r.version();
+                nNames[k] = r.name();
+                nDescriptions[k] = r.description();
+                changedAt[j++] = k++;
+            } else if (removed.contains(ids[i])) {
+                moved[i++] = -1;
+            } else {
+                nIds[k] = ids[i];
+                nCents[k] = priceCents[i];
+                nCreated[k] = createdMicros[i];
+                nUpdated[k] = updatedMicros[i];
+                nVersions[k] = versions[i];
+                nNames[k] = names[i];
+                nDescriptions[k] = descriptions[i];
+                moved[i++] = k++;
+            }
+        }
+
+        int[] nByCreated = merge(byCreated, moved, changedAt, size, createdOrder(nIds, nCreated));
+        int[] nByPrice = merge(byPrice, moved, changedAt, size, priceOrder(nIds, nCents));
+        return new ProductIndexSnapshot(nIds, nCents, nCreated, nUpdated, nVersions, nNames, nDescriptions,
+                nByCreated, nByPrice);
+    }
+
+    // Permutación nueva: la vieja sin las filas que cambiaron (ya en posiciones nuevas),
+    // intercalada con las cambiadas ordenadas por cmp sobre las columnas nuevas
+    private static int[] merge(int[] order, int[] moved, int[] changedAt, int size, IntBinaryOperator cmp) {
+        int[] fresh = changedAt.clone();
+        mergeSort(fresh, cmp);
+        int[] out = new int[size];
+        int a = 0;
+        int b = 0;
+        int k = 0;
+        while (k < size) {
+            while (a < order.length && moved[order[a]] < 0) {
+                a++;
+            }
+            if (b < fresh.length && (a == order.length || cmp.applyAsInt(fresh[b], moved[order[a]]) < 0)) {
+                out[k++] = fresh[b++];
+            } else {
+                out[k++] = moved[order[a++]];
+            }
+        }
+        return out;
+    }
+
+    private static IntBinaryOperator createdOrder(long[] ids, long[] created) {
+        return (a, b) -> {
+            int c = Long.compare(created[b], created[a]);
+            return c != 0 ? c : Long.compare(ids[b], ids[a]);
+        };
+    }
+
+    private static IntBinaryOperator priceOrder(long[] ids, long[] cents) {
+        return (a, b) -> {
+            int c = Long.compare(cents[a], cents[b]);
+            return c != 0 ? c : Long.compare(ids[a], ids[b]);
+        };
+    }
+
+    private static int[] identity(int n) {
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = i;
+        }
+        return out;
+    }
+
+    // Merge sort sobre int[] con comparador primitivo: sin boxing a Integer[]
+    private static void mergeSort(int[] a, IntBinaryOperator cmp) {
+        int[] buf = new int[a.length];
+        for (int width = 1; width < a.length; width <<= 1) {
+            for (int lo = 0; lo < a.length - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(lo + (width << 1), a.length);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    buf[k++] = cmp.applyAsInt(a[j], a[i]) < 0 ? a[j++] : a[i++];
+                }
+                while (i < mid) buf[k++] = a[i++];
+                while (j < hi) buf[k++] = a[j++];
+                System.arraycopy(buf, lo, a, lo, hi - lo);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------ memoria
+
+    /**
+     * Bytes estimados de la foto con compressed oops (HotSpot 64 bits, heap &lt; 32 GB):
+     * header de array de 16 bytes, referencias de 4 y Strings compactos
+     * (1 byte por carácter si son Latin-1, 2 si no) de 24 bytes + byte[].
+     * Devuelve {columnas numéricas + permutaciones + arrays de referencias, strings}.
+     */
+    long[] estimateBytes() {
+        int n = ids.length;
+        long columns = 5 * (16 + 8L * n)        // ids, cents, created, updated, versions
+                + 2 * (16 + 4L * n)             // byCreated, byPrice
+                + 2 * (16 + 4L * n);            // names[], descriptions[] (referencias)
+        long strings = 0;
+        for (int i = 0; i < n; i++) {
+            strings += stringBytes(names[i]) + stringBytes(descriptions[i]);
+        }
+        return new long[] {align(columns), strings};
+    }
+
+    private static long stringBytes(String s) {
+        if (s == null) {
+            return 0;
+        }
+        boolean latin1 = true;
+        for (int i = 0; i < s.length() && latin1; i++) {
+            latin1 = s.charAt(i) <= 0xFF;
+        }
+        return 24 + align(16 + (long) s.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    public static long toMicros(Instant ts) {
+        return Math.addExact(Math.multiplyExact(ts.getEpochSecond(), 1_000_000L), ts.getNano() / 1_000);
+    }
+
+    public static Instant toInstant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
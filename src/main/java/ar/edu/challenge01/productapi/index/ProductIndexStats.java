@@ -0,0 +1,12 @@
+package ar.edu.challenge01.productapi.index;
+
+public record ProductIndexStats(
+        boolean ready,
+        int size,
+        long columnBytes,
+        long stringBytes,
+        long totalBytes,
+        double bytesPerProduct,
+        double columnBytesPerProduct,
+        long loadMillis
+) {}
@@ -4,6 +4,13 @@ import ar.edu.challenge01.productapi.dto.CreateProductRequest;
 import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
 import ar.edu.challenge01.productapi.dto.ProductResponse;
 import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.entity.ProductRow;
+import ar.edu.challenge01.productapi.money.Money;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 public final class ProductMapper {
 
@@ -14,14 +21,19 @@ public final class ProductMapper {
         Product p = new Product();
         p.setName(req.name());
         p.setDescription(req.description());
-        p.setPrice(req.price());
+        p.setPriceCents(Money.toCents(req.price()));
         return p;
     }
 
     public static void updateEntity(Product p, UpdateProductRequest req) {
+        // UpdateProductRequest no valida @NotNull ni @Digits: lo que la columna
+        // NOT NULL NUMERIC(15,2) rechazaría se corta acá, con el mismo 409 de la base
+        if (!Money.fits(req.price())) {
+            throw new DataIntegrityViolationException("price does not fit NUMERIC(15,2)");
+        }
         p.setName(req.name());
         p.setDescription(req.description());
-        p.setPrice(req.price());
+        p.setPriceCents(Money.toCents(req.price()));
     }
 
     public static ProductResponse toResponse(Product p) {
@@ -29,10 +41,25 @@ public final class ProductMapper {
                 p.getId(),
                 p.getName(),
                 p.getDescription(),
-                p.getPrice(),     
+                p.getPriceCents(),
                 p.getCreatedAt(),
                 p.getUpdatedAt()
         );
     }
-}
 
+    public static ProductResponse toResponse(ProductRow r) {
+        return new ProductResponse(
+                r.id(),
+                r.name(),
+                r.description(),
+                Money.toCents(r.price()),
+                toInstant(r.createdAt()),
+                toInstant(r.updatedAt())
+        );
+    }
+
+    // TIMESTAMP sin zona: Hibernate lo escribe en la zona de la JVM, así que se interpreta igual
+    private static Instant toInstant(LocalDateTime ts) {
+        return ts == null ? null : ts.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
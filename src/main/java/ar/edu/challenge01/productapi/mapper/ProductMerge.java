@@ -0,0 +1,72 @@
+package ar.edu.challenge01.productapi.mapper;
+
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.money.Money;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Merge a tres vías para reintentar un PUT que perdió la carrera del @Version.
+ * base   = el producto tal como lo leyó el request,
+ * ours   = los valores del request,
+ * theirs = el producto ya modificado por la otra transacción.
+ * Un campo está en conflicto solo si ambos lo cambiaron a valores distintos.
+ */
+public final class ProductMerge {
+
+    private ProductMerge() {
+    }
+
+    public record Snapshot(String name, String description, long priceCents) {
+        public static Snapshot of(Product p) {
+            return new Snapshot(p.getName(), p.getDescription(), p.getPriceCents());
+        }
+    }
+
+    /**
+     * Aplica sobre 'theirs' los campos que el request cambió respecto de 'base'.
+     * Devuelve los campos en conflicto; si hay alguno, 'theirs' no se modifica.
+     */
+    public static List<String> apply(Snapshot base, Product theirs, UpdateProductRequest ours) {
+        // Ya pasó por ProductMapper.updateEntity: el precio no es null y entra en la columna
+        long ourPrice = Money.toCents(ours.price());
+
+        List<String> conflicts = new ArrayList<>();
+        if (conflicts(base.name(), theirs.getName(), ours.name())) {
+            conflicts.add("name");
+        }
+        if (conflicts(base.description(), theirs.getDescription(), ours.description())) {
+            conflicts.add("description");
+        }
+        if (conflicts(base.priceCents(), theirs.getPriceCents(), ourPrice)) {
+            conflicts.add("price");
+        }
+        if (!conflicts.isEmpty()) {
+            return conflicts;
+        }
+
+        if (!Objects.equals(base.name(), ours.name())) {
+            theirs.setName(ours.name());
+        }
+        if (!Objects.equals(base.description(), ours.description())) {
+            theirs.setDescription(ours.description());
+        }
+        if (base.priceCents() != ourPrice) {
+            theirs.setPriceCents(ourPrice);
+        }
+        return conflicts;
+    }
+
+    private static boolean conflicts(Object base, Object theirs, Object ours) {
+        return !Objects.equals(base, ours)
+                && !Objects.equals(base, theirs)
+                && !Objects.equals(theirs, ours);
+    }
+
+    private static boolean conflicts(long base, long theirs, long ours) {
+        return base != ours && base != theirs && theirs != ours;
+    }
+}
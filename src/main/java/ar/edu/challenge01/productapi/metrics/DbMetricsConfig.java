@@ -0,0 +1,28 @@
+package ar.edu.challenge01.productapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DbMetricsConfig {
+
+    /**
+     * Registra el contador de entidades cargadas en la SessionFactory.
+     * Es una instancia compartida sin estado propio: el conteo vive en RequestDbStats.
+     * Los statements no se cuentan acá sino en la conexión (DbBulkhead): así
+     * entran también los de JdbcTemplate (outbox, upsert, relectura del índice).
+     */
+    @Bean
+    HibernatePropertiesCustomizer requestDbStatsCustomizer() {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+    }
+
+    // Declarado acá y no como @Component: los tests @WebMvcTest no lo levantan sin MeterRegistry
+    @Bean
+    DbRequestMetricsFilter dbRequestMetricsFilter(MeterRegistry registry) {
+        return new DbRequestMetricsFilter(registry);
+    }
+}
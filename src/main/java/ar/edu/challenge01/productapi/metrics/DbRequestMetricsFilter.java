@@ -0,0 +1,65 @@
+package ar.edu.challenge01.productapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registra por request cuántos statements ejecutó Hibernate, cuántas
+ * entidades cargó y cuánto esperó por conexiones, etiquetados por endpoint:
+ *   db.request.statements{method, uri}
+ *   db.request.entities.loaded{method, uri}
+ *   db.request.connection.wait{method, uri}
+ * Con uri = patrón de la ruta (p.ej. /products/{id}), igual que http.server.requests.
+ * Solo cuenta el hilo del request: lo que corre en otro hilo (p.ej. el
+ * streaming de GET /products/export) queda afuera.
+ * Se registra en DbMetricsConfig.
+ */
+public class DbRequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    public DbRequestMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestDbStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDbStats.Snapshot stats = RequestDbStats.end();
+            // Sin patrón (404 de ruta, recursos estáticos) se agrupa para no disparar la cardinalidad
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            String method = request.getMethod();
+
+            DistributionSummary.builder("db.request.statements")
+                    .description("SQL statements prepared by Hibernate per request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry)
+                    .record(stats.statements());
+            DistributionSummary.builder("db.request.entities.loaded")
+                    .description("Entities loaded by Hibernate per request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry)
+                    .record(stats.entitiesLoaded());
+            Timer.builder("db.request.connection.wait")
+                    .description("Time spent waiting for database connections per request")
+                    .tags("method", method, "uri", uri)
+                    .register(registry)
+                    .record(stats.connectionWaitNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
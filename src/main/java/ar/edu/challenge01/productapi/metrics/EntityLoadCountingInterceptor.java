@@ -0,0 +1,18 @@
+package ar.edu.challenge01.productapi.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Cuenta las entidades que Hibernate hidrata en el request en curso.
+ * Muchas entidades por request con pocos statements delata over-fetching;
+ * muchos statements con pocas entidades cada uno, un N+1.
+ */
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestDbStats.entityLoaded();
+        return false;
+    }
+}
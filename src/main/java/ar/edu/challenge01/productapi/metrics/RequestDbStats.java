@@ -0,0 +1,57 @@
+package ar.edu.challenge01.productapi.metrics;
+
+/**
+ * Contadores de acceso a la base del request en curso (por hilo):
+ * statements SQL (de Hibernate o de JdbcTemplate), entidades cargadas y tiempo
+ * esperando una conexión. Los alimentan DbBulkhead (statements y espera, desde
+ * el proxy de cada conexión) y EntityLoadCountingInterceptor;
+ * DbRequestMetricsFilter los abre y cierra alrededor de cada request.
+ * Fuera de un request (tareas, listeners en otros hilos) no cuentan nada.
+ */
+public final class RequestDbStats {
+
+    public record Snapshot(long statements, long entitiesLoaded, long connectionWaitNanos) {}
+
+    // [0] statements, [1] entidades cargadas, [2] nanos esperando conexión; null fuera de un request
+    private static final ThreadLocal<long[]> COUNTERS = new ThreadLocal<>();
+
+    private RequestDbStats() {
+    }
+
+    static void begin() {
+        COUNTERS.set(new long[3]);
+    }
+
+    static Snapshot end() {
+        long[] c = COUNTERS.get();
+        COUNTERS.remove();
+        return c == null ? new Snapshot(0, 0, 0) : new Snapshot(c[0], c[1], c[2]);
+    }
+
+    /** Espera por conexiones acumulada hasta ahora por el request en curso (0 fuera de un request). */
+    public static long connectionWaitNanos() {
+        long[] c = COUNTERS.get();
+        return c == null ? 0 : c[2];
+    }
+
+    public static void connectionAcquired(long waitNanos) {
+        long[] c = COUNTERS.get();
+        if (c != null) {
+            c[2] += waitNanos;
+        }
+    }
+
+    public static void statementPrepared() {
+        long[] c = COUNTERS.get();
+        if (c != null) {
+            c[0]++;
+        }
+    }
+
+    static void entityLoaded() {
+        long[] c = COUNTERS.get();
+        if (c != null) {
+            c[1]++;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ar.edu.challenge01.productapi.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Atributo en centavos (long) contra la columna NUMERIC(15,2) de siempre.
+ * Se aplica también a los parámetros que se comparan con el atributo
+ * (Specifications, keyset): se pasan en centavos.
+ */
+@Converter
+public class CentsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long cents) {
+        return cents == null ? null : Money.toBigDecimal(cents);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal price) {
+        return price == null ? null : Money.toCents(price);
+    }
+}
@@ -0,0 +1,46 @@
+package ar.edu.challenge01.productapi.money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * Lee un precio (número JSON o string, como el deserializador de BigDecimal)
+ * y lo deja en centavos con HALF_UP. Parsea el texto del token directamente:
+ * ni BigDecimal ni double de por medio.
+ */
+public class CentsDeserializer extends StdDeserializer<Long> {
+
+    public CentsDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_STRING) {
+            return (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        }
+        char[] text = p.getTextCharacters();
+        int start = p.getTextOffset();
+        int end = start + p.getTextLength();
+        if (token == JsonToken.VALUE_STRING) {
+            while (start < end && Character.isWhitespace(text[start])) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(text[end - 1])) {
+                end--;
+            }
+        }
+        try {
+            return Money.parse(text, start, end - start);
+        } catch (NumberFormatException | ArithmeticException ex) {
+            throw InvalidFormatException.from(p, "Not a valid price", p.getText(), Long.class);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ar.edu.challenge01.productapi.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Centavos como número JSON con 2 decimales (1234.50), el mismo texto que
+ * escribía Jackson para el BigDecimal de escala 2. Sin pasar por BigDecimal.
+ */
+public class CentsSerializer extends StdSerializer<Long> {
+
+    public CentsSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long cents, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        char[] buf = new char[Money.MAX_LENGTH];
+        int start = Money.format(cents, buf);
+        gen.writeNumber(buf, start, buf.length - start);
+    }
+}
@@ -0,0 +1,202 @@
+package ar.edu.challenge01.productapi.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Precios como centavos en un long. Es la representación interna (entidad,
+ * ProductResponse, índice en memoria, write-behind); BigDecimal queda en los
+ * bordes: requests validados con Bean Validation y parámetros JDBC.
+ *
+ * Las reglas son las de siempre: 2 decimales con redondeo HALF_UP, y el JSON
+ * sale como "1234.50", igual que el BigDecimal de escala 2 que había antes.
+ * parse y format trabajan sobre los caracteres, sin crear BigDecimal.
+ */
+public final class Money {
+
+    /** Mayor precio que entra en la columna NUMERIC(15,2): 9999999999999.99 */
+    public static final long MAX_CENTS = 999_999_999_999_999L;
+
+    /** Chars que necesita format en el peor caso: "-92233720368547758.08" */
+    public static final int MAX_LENGTH = 21;
+
+    private static final BigDecimal MAX_LONG = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_LONG = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    // Más allá de esto el exponente ya no cambia el resultado: 0 o fuera de rango
+    private static final long EXPONENT_LIMIT = 1_000_000_000L;
+
+    private Money() {
+    }
+
+    /**
+     * Centavos con redondeo HALF_UP, lo mismo que setScale(2, HALF_UP).
+     * ArithmeticException si no entra en un long.
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    /**
+     * Centavos con el redondeo pedido, saturando en Long.MIN_VALUE / Long.MAX_VALUE.
+     * Para límites de rango: minPrice=10.005 es "desde 1001 centavos" (CEILING).
+     */
+    public static long toCents(BigDecimal amount, RoundingMode rounding) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(MAX_LONG) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(MIN_LONG) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /** setScale(2, HALF_UP) respetando null: para parámetros JDBC que van tal cual a la base. */
+    public static BigDecimal normalize(BigDecimal amount) {
+        return amount == null ? null : amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /** true si, redondeado, entra en NUMERIC(15,2) sin que la base lo rechace. */
+    public static boolean fits(BigDecimal amount) {
+        if (amount == null) {
+            return false;
+        }
+        long cents = toCents(amount, RoundingMode.HALF_UP);
+        return cents >= -MAX_CENTS && cents <= MAX_CENTS;
+    }
+
+    // ------------------------------------------------------------------ texto
+
+    /**
+     * Escribe cents como decimal plano con 2 decimales, alineado al final de buf
+     * (de al menos MAX_LENGTH chars). Devuelve la posición del primer char.
+     */
+    public static int format(long cents, char[] buf) {
+        // En negativo para que Long.MIN_VALUE no desborde
+        long v = cents < 0 ? cents : -cents;
+        int pos = buf.length;
+        for (int i = 0; i < 2; i++) {
+            buf[--pos] = (char) ('0' - v % 10);
+            v /= 10;
+        }
+        buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' - v % 10);
+            v /= 10;
+        } while (v != 0);
+        if (cents < 0) {
+            buf[--pos] = '-';
+        }
+        return pos;
+    }
+
+    public static String toString(long cents) {
+        char[] buf = new char[MAX_LENGTH];
+        int start = format(cents, buf);
+        return new String(buf, start, buf.length - start);
+    }
+
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Centavos de un decimal escrito como lo acepta new BigDecimal(String) con
+     * dígitos ASCII ("1234.5", "+0.005", ".5", "1.2E+3"), redondeado HALF_UP.
+     * Solo mira los dígitos que importan: los que caen hasta el centavo y el
+     * siguiente, que decide el redondeo.
+     * NumberFormatException si no es un número; ArithmeticException si no entra en un long.
+     */
+    public static long parse(char[] buf, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+
+        int mantissaStart = i;
+        int digits = 0;
+        int point = -1;   // dígitos antes del punto
+        for (; i < end; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && point < 0) {
+                point = digits;
+            } else {
+                break;
+            }
+        }
+        int mantissaEnd = i;
+        if (digits == 0) {
+            throw invalid(buf, offset, length);
+        }
+
+        long exponent = 0;
+        if (i < end) {
+            if (buf[i] != 'e' && buf[i] != 'E') {
+                throw invalid(buf, offset, length);
+            }
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buf[i] == '-' || buf[i] == '+')) {
+                negativeExponent = buf[i] == '-';
+                i++;
+            }
+            if (i == end) {
+                throw invalid(buf, offset, length);
+            }
+            for (; i < end; i++) {
+                char c = buf[i];
+                if (c < '0' || c > '9') {
+                    throw invalid(buf, offset, length);
+                }
+                if (exponent < EXPONENT_LIMIT) {
+                    exponent = exponent * 10 + (c - '0');
+                }
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+
+        // Dígitos de la mantisa que quedan a la izquierda de la coma de los centavos
+        long kept = (point < 0 ? digits : point) + exponent + 2;
+        long cents = 0;
+        int roundingDigit = 0;
+        long k = 0;
+        for (int j = mantissaStart; j < mantissaEnd; j++) {
+            char c = buf[j];
+            if (c == '.') {
+                continue;
+            }
+            if (k == kept) {
+                roundingDigit = c - '0';
+                break;
+            }
+            if (k < kept) {
+                cents = Math.addExact(Math.multiplyExact(cents, 10), c - '0');
+            }
+            k++;
+        }
+        // Mantisa más corta que la parte entera ("12E3"): ceros a la derecha
+        for (; cents != 0 && k < kept; k++) {
+            cents = Math.multiplyExact(cents, 10);
+        }
+        if (roundingDigit >= 5) {
+            cents = Math.addExact(cents, 1);
+        }
+        return negative ? -cents : cents;
+    }
+
+    private static NumberFormatException invalid(char[] buf, int offset, int length) {
+        return new NumberFormatException("Not a decimal number: \"" + new String(buf, offset, length) + "\"");
+    }
+}
@@ -0,0 +1,68 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Límite de requests en vuelo que se ajusta solo (AIMD).
+ *
+ * - Si un request esperó por conexiones a la base más que db-wait-threshold
+ *   (o la base respondió 503), el límite se multiplica por backoff. Como muchos
+ *   requests que esperaron llegan juntos, se reduce como mucho una vez por
+ *   ventana de db-wait-threshold: una tanda lenta es una sola señal, no N.
+ * - Si no esperó y había al menos limit/2 en vuelo, crece de a uno.
+ *
+ * Admitir y liberar son operaciones atómicas sobre contadores, sin locks.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final int min;
+    private final int max;
+    private final long thresholdNanos;
+    private final double backoff;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease;
+
+    AdaptiveConcurrencyLimit(int initial, int min, int max, long thresholdNanos, double backoff, long nowNanos) {
+        if (min < 1 || max < min || backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("require 1 <= min <= max and 0 < backoff < 1");
+        }
+        this.min = min;
+        this.max = max;
+        this.thresholdNanos = thresholdNanos;
+        this.backoff = backoff;
+        this.limit = new AtomicInteger(Math.min(max, Math.max(min, initial)));
+        this.lastDecrease = new AtomicLong(nowNanos - thresholdNanos);
+    }
+
+    boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    void release(long dbWaitNanos, boolean overloaded, long nowNanos) {
+        int wasInFlight = inFlight.getAndDecrement();
+        if (overloaded || dbWaitNanos > thresholdNanos) {
+            long last = lastDecrease.get();
+            if (nowNanos - last >= thresholdNanos && lastDecrease.compareAndSet(last, nowNanos)) {
+                limit.updateAndGet(l -> Math.max(min, (int) (l * backoff)));
+            }
+        } else if (wasInFlight * 2 >= limit.get()) {
+            // Crece solo si se estaba usando al menos la mitad: en reposo no se infla hasta max
+            limit.updateAndGet(l -> Math.min(max, l + 1));
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,72 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Un bucket por cliente y por tipo de request (ver Budget).
+ *
+ * La tabla es un Caffeine: lecturas sin lock sobre un ConcurrentHashMap
+ * particionado, así clientes distintos nunca compiten por el mismo estado.
+ * Los clientes inactivos se descartan por expire-after-access y el tamaño
+ * está acotado: una rotación de IPs no puede hacer crecer la tabla sin límite.
+ */
+final class ClientRateLimiter {
+
+    /** Presupuestos independientes de cada cliente. */
+    enum Budget {
+        READ,
+        WRITE,
+        // PUT diferido (Prefer: respond-async): solo encola, no ocupa la base
+        ASYNC_WRITE
+    }
+
+    private record Buckets(TokenBucket read, TokenBucket write, TokenBucket asyncWrite) {
+
+        TokenBucket of(Budget budget) {
+            return switch (budget) {
+                case READ -> read;
+                case WRITE -> write;
+                case ASYNC_WRITE -> asyncWrite;
+            };
+        }
+    }
+
+    private final Cache<String, Buckets> clients;
+    private final double readRate;
+    private final int readBurst;
+    private final double writeRate;
+    private final int writeBurst;
+    private final double asyncWriteRate;
+    private final int asyncWriteBurst;
+
+    ClientRateLimiter(double readRate, int readBurst, double writeRate, int writeBurst,
+                      double asyncWriteRate, int asyncWriteBurst, long maxClients, Duration idleTimeout) {
+        this.readRate = readRate;
+        this.readBurst = readBurst;
+        this.writeRate = writeRate;
+        this.writeBurst = writeBurst;
+        this.asyncWriteRate = asyncWriteRate;
+        this.asyncWriteBurst = asyncWriteBurst;
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    /** 0 si el request entra en el presupuesto del cliente; si no, nanos hasta el próximo token. */
+    long tryAcquire(String client, Budget budget) {
+        long now = System.nanoTime();
+        Buckets buckets = clients.get(client, k -> new Buckets(
+                new TokenBucket(readRate, readBurst, now),
+                new TokenBucket(writeRate, writeBurst, now),
+                new TokenBucket(asyncWriteRate, asyncWriteBurst, now)));
+        return buckets.of(budget).tryAcquire(now);
+    }
+
+    long trackedClients() {
+        return clients.estimatedSize();
+    }
+}
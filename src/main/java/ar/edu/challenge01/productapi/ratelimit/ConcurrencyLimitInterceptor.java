@@ -0,0 +1,53 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import ar.edu.challenge01.productapi.metrics.RequestDbStats;
+import ar.edu.challenge01.productapi.web.ServiceUnavailableException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Load shedding global: si no hay lugar bajo el límite adaptativo se responde
+ * 503 con Retry-After en el acto, antes de ocupar un hilo esperando el pool.
+ * El límite se ajusta con lo que cada request esperó por conexiones a la base
+ * (RequestDbStats, lo mide DbBulkhead) y con los 503 del DbBulkhead; no con la
+ * latencia de punta a punta, que depende de la ruta, del tamaño de la
+ * respuesta y de la red del cliente.
+ */
+final class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED = ConcurrencyLimitInterceptor.class.getName() + ".admitted";
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final long retryAfterSeconds;
+
+    ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimit limit, long retryAfterSeconds) {
+        this.limit = limit;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!limit.tryAcquire()) {
+            throw new ServiceUnavailableException("Server is overloaded, retry later", retryAfterSeconds);
+        }
+        request.setAttribute(ADMITTED, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ADMITTED) == null) {
+            return;
+        }
+        request.removeAttribute(ADMITTED);
+        limit.release(RequestDbStats.connectionWaitNanos(),
+                response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value(), System.nanoTime());
+    }
+}
@@ -0,0 +1,102 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Rate limiting por cliente y load shedding delante de los endpoints /products.
+ *
+ * Los limitadores se arman acá y no como @Component: este WebMvcConfigurer
+ * también se levanta en los tests @WebMvcTest, que no tienen MeterRegistry.
+ */
+@Configuration
+@ServletStack
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private static final String[] PRODUCT_ROUTES = {"/products", "/products/**"};
+    private static final String[] ADMIN_ROUTES = {"/products/_cache/**", "/products/_index/**"};
+    // Streams de larga duración: cuentan contra el presupuesto del cliente pero no como "en vuelo"
+    private static final String[] STREAMING_ROUTES = {"/products/changes", "/products/export"};
+
+    private final boolean rateLimitEnabled;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+    private final boolean asyncWrites;
+    private final ClientRateLimiter rateLimiter;
+
+    private final boolean concurrencyLimitEnabled;
+    private final long retryAfterSeconds;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    public RateLimitConfig(
+            @Value("${app.rate-limit.enabled:true}") boolean rateLimitEnabled,
+            @Value("${app.rate-limit.client-header:X-API-Key}") String clientHeader,
+            @Value("${app.rate-limit.api-keys:}") Set<String> apiKeys,
+            @Value("${app.rate-limit.read.rate:200}") double readRate,
+            @Value("${app.rate-limit.read.burst:400}") int readBurst,
+            @Value("${app.rate-limit.write.rate:20}") double writeRate,
+            @Value("${app.rate-limit.write.burst:40}") int writeBurst,
+            @Value("${app.rate-limit.async-write.rate:500}") double asyncWriteRate,
+            @Value("${app.rate-limit.async-write.burst:1000}") int asyncWriteBurst,
+            @Value("${app.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${app.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${app.write-behind.enabled:false}") boolean writeBehindEnabled,
+            @Value("${app.concurrency-limit.enabled:true}") boolean concurrencyLimitEnabled,
+            @Value("${app.concurrency-limit.initial:50}") int initialLimit,
+            @Value("${app.concurrency-limit.min:5}") int minLimit,
+            @Value("${app.concurrency-limit.max:400}") int maxLimit,
+            @Value("${app.concurrency-limit.db-wait-threshold:100ms}") Duration dbWaitThreshold,
+            @Value("${app.concurrency-limit.backoff:0.9}") double backoff,
+            @Value("${app.concurrency-limit.retry-after:1s}") Duration retryAfter,
+            ObjectProvider<MeterRegistry> registry
+    ) {
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.clientHeader = clientHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        this.asyncWrites = writeBehindEnabled;
+        this.rateLimiter = new ClientRateLimiter(readRate, readBurst, writeRate, writeBurst,
+                asyncWriteRate, asyncWriteBurst, maxClients, idleTimeout);
+        this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                dbWaitThreshold.toNanos(), backoff, System.nanoTime());
+        registry.ifAvailable(this::registerGauges);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (concurrencyLimitEnabled) {
+            // Primero el global: un request rechazado por sobrecarga no gasta tokens del cliente
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(concurrencyLimit, retryAfterSeconds))
+                    .addPathPatterns(PRODUCT_ROUTES)
+                    .excludePathPatterns(ADMIN_ROUTES)
+                    .excludePathPatterns(STREAMING_ROUTES);
+        }
+        if (rateLimitEnabled) {
+            registry.addInterceptor(new RateLimitInterceptor(rateLimiter, clientHeader, apiKeys, asyncWrites))
+                    .addPathPatterns(PRODUCT_ROUTES)
+                    .excludePathPatterns(ADMIN_ROUTES);
+        }
+    }
+
+    private void registerGauges(MeterRegistry registry) {
+        Gauge.builder("http.server.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Límite adaptativo de requests en vuelo sobre /products")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.in_flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests en vuelo sobre /products")
+                .register(registry);
+        Gauge.builder("http.server.rate_limit.clients", rateLimiter, ClientRateLimiter::trackedClients)
+                .description("Clientes con buckets activos")
+                .register(registry);
+    }
+}
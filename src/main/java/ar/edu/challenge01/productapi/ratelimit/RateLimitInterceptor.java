@@ -0,0 +1,78 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import ar.edu.challenge01.productapi.ratelimit.ClientRateLimiter.Budget;
+import ar.edu.challenge01.productapi.web.ProductController;
+import ar.edu.challenge01.productapi.web.TooManyRequestsException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Presupuesto por cliente: lecturas (GET/HEAD) y escrituras por separado, así
+ * un integrador que importa en masa no se come las lecturas del resto (ni las propias).
+ * El cliente es la API key si está en app.rate-limit.api-keys; si no, la IP
+ * remota. Una key cualquiera no cuenta: si no, rotar el header daría un
+ * presupuesto nuevo en cada request.
+ * Los PUT /products/{id} que van a la escritura diferida (Prefer: respond-async,
+ * sin If-Match) tienen un tercer bucket, más amplio: aceptarlos es escribir en
+ * el journal, no una transacción. Solo con app.write-behind.enabled; si no, el
+ * controller los atiende sincrónicos y pagan como cualquier escritura.
+ * El rechazo es un 429 con Retry-After que arma ApiExceptionHandler.
+ */
+final class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Pattern PRODUCT_BY_ID = Pattern.compile("/products/\\d+");
+
+    private final ClientRateLimiter limiter;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+    private final boolean asyncWrites;
+
+    RateLimitInterceptor(ClientRateLimiter limiter, String clientHeader, Set<String> apiKeys, boolean asyncWrites) {
+        this.limiter = limiter;
+        this.clientHeader = clientHeader;
+        this.apiKeys = apiKeys;
+        this.asyncWrites = asyncWrites;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;    // segundo dispatch de un request async: ya se cobró
+        }
+        long waitNanos = limiter.tryAcquire(client(request), budget(request));
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Rate limit exceeded, retry later",
+                    Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L));
+        }
+        return true;
+    }
+
+    // Prefijos distintos: una key no puede pisar el bucket de una IP ni al revés
+    String client(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        if (key != null && apiKeys.contains(key)) {
+            return "key:" + key;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    Budget budget(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return Budget.READ;
+        }
+        if (asyncWrites && "PUT".equals(method)
+                && request.getHeader(HttpHeaders.IF_MATCH) == null
+                && ProductController.prefersAsync(request.getHeader("Prefer"))
+                && PRODUCT_BY_ID.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches()) {
+            return Budget.ASYNC_WRITE;
+        }
+        return Budget.WRITE;
+    }
+}
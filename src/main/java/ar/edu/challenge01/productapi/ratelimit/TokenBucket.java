@@ -0,0 +1,46 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin locks, implementado como GCRA: en vez de contar tokens y
+ * recargarlos con un timer, guarda un único instante (TAT, "theoretical arrival
+ * time") en un AtomicLong. Admitir un request es un compareAndSet; con un solo
+ * hilo por cliente casi nunca hay reintentos.
+ *
+ * Equivalente a un bucket de capacidad burst que se recarga a rate tokens/s.
+ */
+final class TokenBucket {
+
+    private final long emissionNanos;   // intervalo entre tokens (1 / rate)
+    private final long toleranceNanos;  // cuánto puede adelantarse el TAT (burst tokens)
+    private final AtomicLong tat;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate must be > 0 and burst >= 1");
+        }
+        this.emissionNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = emissionNanos * burst;
+        this.tat = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Consume un token. Devuelve 0 si se admitió o, si no, cuántos nanos faltan
+     * hasta que haya uno disponible (para el Retry-After).
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = tat.get();
+            // Comparaciones por diferencia: nanoTime puede ser negativo
+            long next = (current - nowNanos > 0 ? current : nowNanos) + emissionNanos;
+            long excess = next - nowNanos - toleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ar.edu.challenge01.productapi.repository;
+
+import java.time.Instant;
+
+/**
+ * Resumen barato del estado de la tabla products (una sola consulta agregada).
+ * Cambia con cualquier alta, baja o modificación, por lo que sirve como
+ * versión de la colección para el ETag de GET /products.
+ *
+ * La suma de versiones es la que delata las modificaciones: cada escritura
+ * incrementa version, mientras que max(updatedAt) puede no moverse (la
+ * escritura diferida aplica updates con su instante de aceptación, que puede
+ * ser anterior al último updated_at de la tabla).
+ */
+public interface CollectionStamp {
+  Long getCount();
+  Long getMaxId();
+  Instant getLastUpdated();
+  Long getVersionSum();
+}
@@ -0,0 +1,34 @@
+package ar.edu.challenge01.productapi.repository;
+
+/**
+ * Campos de producto seleccionables con ?fields= (nombre JSON = atributo JPA).
+ * El orden de declaración es el orden de las claves en la respuesta.
+ */
+public enum ProductField {
+  ID("id"),
+  NAME("name"),
+  DESCRIPTION("description"),
+  PRICE("price"),
+  CREATED_AT("createdAt"),
+  UPDATED_AT("updatedAt");
+
+  private final String attribute;
+
+  ProductField(String attribute) {
+    this.attribute = attribute;
+  }
+
+  public String attribute() {
+    return attribute;
+  }
+
+  /** null si el nombre no corresponde a ningún campo. */
+  public static ProductField fromName(String name) {
+    for (ProductField f : values()) {
+      if (f.attribute.equals(name)) {
+        return f;
+      }
+    }
+    return null;
+  }
+}
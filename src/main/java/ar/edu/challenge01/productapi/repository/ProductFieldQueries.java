@@ -0,0 +1,23 @@
+package ar.edu.challenge01.productapi.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Lecturas que traen solo las columnas pedidas (?fields=), para no leer
+ * description (TEXT) cuando el cliente no la usa. Fragmento de ProductRepository.
+ */
+public interface ProductFieldQueries {
+
+  Optional<ProductFieldRow> findFieldsById(Long id, Set<ProductField> fields);
+
+  /**
+   * Misma página que findFirstPage / findPageAfter / findPageBefore.
+   * Sin cursor (createdAt null) devuelve la primera; backward=true devuelve
+   * las filas en orden ascendente, igual que findPageBefore.
+   */
+  List<ProductFieldRow> findFieldsPage(Instant createdAt, Long id, boolean backward, int limit,
+                                       Set<ProductField> fields);
+}
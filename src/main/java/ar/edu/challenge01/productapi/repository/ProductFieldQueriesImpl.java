@@ -0,0 +1,100 @@
+package ar.edu.challenge01.productapi.repository;
+
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.money.Money;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Implementación con Criteria sobre Tuple: el SELECT lleva solo las columnas
+ * pedidas más las de keyset, y el resultado son escalares, no entidades.
+ */
+@Transactional(readOnly = true)
+class ProductFieldQueriesImpl implements ProductFieldQueries {
+
+  private static final String ID = ProductField.ID.attribute();
+  private static final String CREATED_AT = ProductField.CREATED_AT.attribute();
+  private static final String UPDATED_AT = ProductField.UPDATED_AT.attribute();
+
+  private final EntityManager em;
+
+  ProductFieldQueriesImpl(EntityManager em) {
+    this.em = em;
+  }
+
+  @Override
+  public Optional<ProductFieldRow> findFieldsById(Long id, Set<ProductField> fields) {
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    CriteriaQuery<Tuple> q = cb.createTupleQuery();
+    Root<Product> p = q.from(Product.class);
+    q.multiselect(selection(p, fields)).where(cb.equal(p.get(ID), id));
+    return em.createQuery(q).getResultList().stream()
+        .findFirst()
+        .map(t -> toRow(t, fields));
+  }
+
+  @Override
+  public List<ProductFieldRow> findFieldsPage(Instant createdAt, Long id, boolean backward, int limit,
+                                              Set<ProductField> fields) {
+    CriteriaBuilder cb = em.getCriteriaBuilder();
+    CriteriaQuery<Tuple> q = cb.createTupleQuery();
+    Root<Product> p = q.from(Product.class);
+    Path<Instant> pCreatedAt = p.get(CREATED_AT);
+    Path<Long> pId = p.get(ID);
+
+    q.multiselect(selection(p, fields));
+    if (createdAt != null) {
+      // (created_at, id) < / > (:createdAt, :id), desarrollado: Criteria no tiene row values
+      q.where(backward
+          ? cb.or(cb.greaterThan(pCreatedAt, createdAt),
+                  cb.and(cb.equal(pCreatedAt, createdAt), cb.greaterThan(pId, id)))
+          : cb.or(cb.lessThan(pCreatedAt, createdAt),
+                  cb.and(cb.equal(pCreatedAt, createdAt), cb.lessThan(pId, id))));
+    }
+    q.orderBy(backward
+        ? List.of(cb.asc(pCreatedAt), cb.asc(pId))
+        : List.of(cb.desc(pCreatedAt), cb.desc(pId)));
+
+    return em.createQuery(q).setMaxResults(limit).getResultList().stream()
+        .map(t -> toRow(t, fields))
+        .toList();
+  }
+
+  private static List<Selection<?>> selection(Root<Product> p, Set<ProductField> fields) {
+    List<Selection<?>> columns = new ArrayList<>(fields.size() + 3);
+    columns.add(p.get(ID).alias(ID));
+    columns.add(p.get(CREATED_AT).alias(CREATED_AT));
+    columns.add(p.get(UPDATED_AT).alias(UPDATED_AT));
+    for (ProductField f : fields) {
+      if (f != ProductField.ID && f != ProductField.CREATED_AT && f != ProductField.UPDATED_AT) {
+        columns.add(p.get(f.attribute()).alias(f.attribute()));
+      }
+    }
+    return columns;
+  }
+
+  private static ProductFieldRow toRow(Tuple t, Set<ProductField> fields) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    for (ProductField f : fields) {
+      Object value = t.get(f.attribute());
+      // El atributo está en centavos; el Map se serializa tal cual, así que vuelve a decimal
+      values.put(f.attribute(), f == ProductField.PRICE ? Money.toBigDecimal((Long) value) : value);
+    }
+    return new ProductFieldRow(t.get(ID, Long.class), t.get(CREATED_AT, Instant.class),
+        t.get(UPDATED_AT, Instant.class), values);
+  }
+}
@@ -0,0 +1,10 @@
+package ar.edu.challenge01.productapi.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Fila de una lectura con selección de campos. id, createdAt y updatedAt se
+ * leen siempre (cursores y ETags); values tiene solo los campos pedidos.
+ */
+public record ProductFieldRow(Long id, Instant createdAt, Instant updatedAt, Map<String, Object> values) {}
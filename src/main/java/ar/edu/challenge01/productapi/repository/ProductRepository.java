@@ -1,7 +1,227 @@
 package ar.edu.challenge01.productapi.repository;
 
+import ar.edu.challenge01.productapi.dto.ProductResponse;
 import ar.edu.challenge01.productapi.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface ProductRepository extends JpaRepository<Product, Long>,
+    JpaSpecificationExecutor<Product>, ProductFieldQueries {
+
+  // Lecturas por proyección: la constructor expression arma el ProductResponse
+  // directo desde el ResultSet. No hay entidades administradas, ni snapshot para
+  // dirty checking, ni nada que revisar en el flush.
+  // Las consultas de lectura declaran @Transactional(readOnly = true): Spring Data
+  // no le da transacción a un @Query, y sin ella el ruteo a réplicas
+  // (ReadReplicaRoutingDataSource) las mandaría al primario. Dentro de una
+  // transacción de escritura se suman a ella y leen del primario.
+
+  @Transactional(readOnly = true)
+  @Query("""
+      select new ar.edu.challenge01.productapi.dto.ProductResponse(
+          p.id, p.name, p.description, p.price, p.createdAt, p.updatedAt)
+      from Product p
+      where p.id = :id
+      """)
+  Optional<ProductResponse> findResponseById(@Param("id") Long id);
+
+  @Transactional(readOnly = true)
+  @Query("""
+      select new ar.edu.challenge01.productapi.dto.ProductResponse(
+          p.id, p.name, p.description, p.price, p.createdAt, p.updatedAt)
+      from Product p
+      where p.id in :ids
+      """)
+  List<ProductResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+  @Transactional(readOnly = true)
+  @Query("""
+      select new ar.edu.challenge01.productapi.dto.ProductResponse(
+          p.id, p.name, p.description, p.price, p.createdAt, p.updatedAt)
+      from Product p
+      """)
+  List<ProductResponse> findAllResponses(Sort sort);
+
+  // Búsqueda por clave del ERP, servida por ux_products_sku
+  @Transactional(readOnly = true)
+  @Query("""
+      select new ar.edu.challenge01.productapi.dto.ProductResponse(
+          p.id, p.name, p.description, p.price, p.createdAt, p.updatedAt)
+      from Product p
+      where p.sku = :sku
+      """)
+  Optional<ProductResponse> findResponseBySku(@Param("sku") String sku);
+
+  // Paginación por keyset sobre (created_at, id), servida por ix_products_created_at_id.
+  // El CAST mantiene la comparación en 'timestamp' para que el índice sea utilizable.
+  // Devuelven entidades (el ETag de la página usa id/updatedAt) pero de solo lectura:
+  // Hibernate no guarda snapshot ni las revisa en el flush.
+
+  @Transactional(readOnly = true)
+  @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+  @Query(value = """
+      SELECT * FROM products
+      ORDER BY created_at DESC, id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<Product> findFirstPage(@Param("limit") int limit);
+
+  // Página siguiente: productos más viejos que el cursor (orden descendente)
+  @Transactional(readOnly = true)
+  @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+  @Query(value = """
+      SELECT * FROM products
+      WHERE (created_at, id) < (CAST(:createdAt AS timestamp), :id)
+      ORDER BY created_at DESC, id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<Product> findPageAfter(@Param("createdAt") Instant createdAt,
+                              @Param("id") long id,
+                              @Param("limit") int limit);
+
+  // Página anterior: productos más nuevos que el cursor (orden ascendente, se invierte en el caller)
+  @Transactional(readOnly = true)
+  @QueryHints(@QueryHint(name = HINT_READ_ONLY, value = "true"))
+  @Query(value = """
+      SELECT * FROM products
+      WHERE (created_at, id) > (CAST(:createdAt AS timestamp), :id)
+      ORDER BY created_at ASC, id ASC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<Product> findPageBefore(@Param("createdAt") Instant createdAt,
+                               @Param("id") long id,
+                               @Param("limit") int limit);
+
+  // Mutaciones en un solo round-trip: sin leer la entidad antes de escribir.
+  // El caller deriva el 404 (o el 412) de la cantidad de filas afectadas.
+
+  @Transactional
+  @Modifying
+  @Query("delete from Product p where p.id = :id")
+  int deleteByIdReturningCount(@Param("id") Long id);
+
+  @Transactional
+  @Query(value = """
+      UPDATE products
+      SET name = :name, description = :description, price = :price,
+          updated_at = CAST(:updatedAt AS timestamp), version = version + 1
+      WHERE id = :id
+      RETURNING *
+      """, nativeQuery = true)
+  Optional<Product> updateReturning(@Param("id") Long id,
+                                    @Param("name") String name,
+                                    @Param("description") String description,
+                                    @Param("price") BigDecimal price,
+                                    @Param("updatedAt") Instant updatedAt);
+
+  // Igual que updateReturning pero condicionado a la versión que el cliente vio (If-Match)
+  @Transactional
+  @Query(value = """
+      UPDATE products
+      SET name = :name, description = :description, price = :price,
+          updated_at = CAST(:updatedAt AS timestamp), version = version + 1
+      WHERE id = :id AND updated_at = CAST(:expectedUpdatedAt AS timestamp)
+      RETURNING *
+      """, nativeQuery = true)
+  Optional<Product> updateReturningIfUnchanged(@Param("id") Long id,
+                                               @Param("name") String name,
+                                               @Param("description") String description,
+                                               @Param("price") BigDecimal price,
+                                               @Param("updatedAt") Instant updatedAt,
+                                               @Param("expectedUpdatedAt") Instant expectedUpdatedAt);
+
+  // Versión de la colección para el ETag del listado (ver CollectionStamp)
+  @Transactional(readOnly = true)
+  @Query("""
+      select count(p) as count, max(p.id) as maxId, max(p.updatedAt) as lastUpdated,
+             coalesce(sum(p.version), 0) as versionSum
+      from Product p
+      """)
+  CollectionStamp collectionStamp();
+
+  // Búsqueda (V7): texto completo sobre search_vector (índice GIN), rankeada por
+  // ts_rank y paginada por keyset sobre (score, id). El score viaja en el cursor
+  // como real, así la comparación es exacta contra el valor recalculado.
+
+  @Transactional(readOnly = true)
+  @Query(value = """
+      SELECT p.id AS id, ts_rank(p.search_vector, q) AS score
+      FROM products p, websearch_to_tsquery('spanish', :q) q
+      WHERE p.search_vector @@ q
+      ORDER BY score DESC, p.id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<SearchHit> searchFirstPage(@Param("q") String q, @Param("limit") int limit);
+
+  @Transactional(readOnly = true)
+  @Query(value = """
+      SELECT p.id AS id, ts_rank(p.search_vector, q) AS score
+      FROM products p, websearch_to_tsquery('spanish', :q) q
+      WHERE p.search_vector @@ q
+        AND (ts_rank(p.search_vector, q), p.id) < (CAST(:score AS real), :id)
+      ORDER BY score DESC, p.id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<SearchHit> searchPageAfter(@Param("q") String q,
+                                  @Param("score") float score,
+                                  @Param("id") long id,
+                                  @Param("limit") int limit);
+
+  // Fallback por trigramas (prefijos, typos) cuando el texto completo no encuentra nada.
+  // El operador <% usa ix_products_name_trgm; el umbral es pg_trgm.word_similarity_threshold.
+
+  @Transactional(readOnly = true)
+  @Query(value = """
+      SELECT p.id AS id, word_similarity(:q, p.name) AS score
+      FROM products p
+      WHERE :q <% p.name
+      ORDER BY score DESC, p.id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<SearchHit> fuzzySearchFirstPage(@Param("q") String q, @Param("limit") int limit);
+
+  @Transactional(readOnly = true)
+  @Query(value = """
+      SELECT p.id AS id, word_similarity(:q, p.name) AS score
+      FROM products p
+      WHERE :q <% p.name
+        AND (word_similarity(:q, p.name), p.id) < (CAST(:score AS real), :id)
+      ORDER BY score DESC, p.id DESC
+      LIMIT :limit
+      """, nativeQuery = true)
+  List<SearchHit> fuzzySearchPageAfter(@Param("q") String q,
+                                       @Param("score") float score,
+                                       @Param("id") long id,
+                                       @Param("limit") int limit);
+
+  // Export: cursor JDBC forward-only. Con autocommit desactivado (dentro de una
+  // transacción) el driver de PostgreSQL trae las filas de a EXPORT_FETCH_SIZE
+  // en vez de materializar todo el resultado. Debe consumirse dentro de la transacción.
+  int EXPORT_FETCH_SIZE = 500;
+
+  @QueryHints({
+      @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+      @QueryHint(name = HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HINT_CACHEABLE, value = "false")
+  })
+  @Query("select p from Product p order by p.id")
+  Stream<Product> streamAllForExport();
+}
@@ -0,0 +1,65 @@
+package ar.edu.challenge01.productapi.repository;
+
+import ar.edu.challenge01.productapi.dto.ProductFilter;
+import ar.edu.challenge01.productapi.entity.Category;
+import ar.edu.challenge01.productapi.entity.Product;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traduce un ProductFilter a predicados JPA. Solo se agregan los criterios
+ * presentes, así el plan de la base usa el índice más selectivo disponible
+ * (ver V8) en lugar de filtrar en memoria.
+ */
+public final class ProductSpecifications {
+
+  private ProductSpecifications() {
+  }
+
+  public static Specification<Product> matching(ProductFilter f) {
+    List<Specification<Product>> specs = new ArrayList<>();
+    if (f.minPriceCents() != null) specs.add(priceAtLeast(f.minPriceCents()));
+    if (f.maxPriceCents() != null) specs.add(priceAtMost(f.maxPriceCents()));
+    if (f.createdFrom() != null) specs.add(instantFrom("createdAt", f.createdFrom()));
+    if (f.createdTo() != null) specs.add(instantBefore("createdAt", f.createdTo()));
+    if (f.updatedFrom() != null) specs.add(instantFrom("updatedAt", f.updatedFrom()));
+    if (f.updatedTo() != null) specs.add(instantBefore("updatedAt", f.updatedTo()));
+    if (f.categoryId() != null) specs.add(inCategory(f.categoryId()));
+    if (f.category() != null && !f.category().isBlank()) specs.add(inCategoryNamed(f.category().strip()));
+    return Specification.allOf(specs);
+  }
+
+  // En centavos: el CentsConverter del atributo también convierte el parámetro
+  public static Specification<Product> priceAtLeast(long minCents) {
+    return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minCents);
+  }
+
+  public static Specification<Product> priceAtMost(long maxCents) {
+    return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxCents);
+  }
+
+  public static Specification<Product> instantFrom(String attribute, Instant from) {
+    return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get(attribute), from);
+  }
+
+  public static Specification<Product> instantBefore(String attribute, Instant to) {
+    return (root, query, cb) -> cb.lessThan(root.get(attribute), to);
+  }
+
+  // Compara contra la FK category_id: no hace falta el JOIN
+  public static Specification<Product> inCategory(Long categoryId) {
+    return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+  }
+
+  // Por nombre sí se une con categories (name es UNIQUE, a lo sumo una fila)
+  public static Specification<Product> inCategoryNamed(String name) {
+    return (root, query, cb) -> {
+      Join<Product, Category> category = root.join("category");
+      return cb.equal(category.get("name"), name);
+    };
+  }
+}
@@ -0,0 +1,23 @@
+package ar.edu.challenge01.productapi.repository;
+
+import ar.edu.challenge01.productapi.entity.ProductRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, Long> {
+
+  // Mismo orden que GET /products del stack bloqueante (usa ix_products_created_at_id)
+  Flux<ProductRow> findAllByOrderByCreatedAtDescIdDesc();
+
+  @Modifying
+  @Query("DELETE FROM products WHERE id = :id")
+  Mono<Integer> deleteByIdReturningCount(Long id);
+
+  // Fila del outbox (product_changes): se escribe en la transacción del cambio
+  @Modifying
+  @Query("INSERT INTO product_changes (product_id, type) VALUES (:productId, :type)")
+  Mono<Integer> recordChange(Long productId, String type);
+}
@@ -0,0 +1,11 @@
+package ar.edu.challenge01.productapi.repository;
+
+/**
+ * Resultado de una búsqueda: solo el id y su puntaje, en el orden del ranking.
+ * Las entidades se cargan después por clave primaria, así la consulta de
+ * ranking no arrastra las columnas de texto de todas las filas candidatas.
+ */
+public interface SearchHit {
+  Long getId();
+  Float getScore();
+}
@@ -0,0 +1,119 @@
+package ar.edu.challenge01.productapi.service;
+
+import ar.edu.challenge01.productapi.dto.BulkItemResult;
+import ar.edu.challenge01.productapi.dto.BulkResponse;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.event.ProductsCreatedEvent;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alta masiva de productos: valida todos los ítems en una sola pasada y
+ * persiste los válidos en batches JDBC de hibernate.jdbc.batch_size filas,
+ * todo dentro de una única transacción.
+ */
+@Service
+public class ProductBulkService {
+
+    private final EntityManager em;
+    private final Validator validator;
+    private final int batchSize;
+    private final ApplicationEventPublisher events;
+
+    public ProductBulkService(
+            EntityManager em,
+            Validator validator,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+            ApplicationEventPublisher events
+    ) {
+        this.em = em;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.events = events;
+    }
+
+    @Transactional
+    public BulkResponse createAll(List<CreateProductRequest> items) {
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        List<Product> pending = new ArrayList<>(batchSize);
+        List<Integer> pendingIndexes = new ArrayList<>(batchSize);
+        int failed = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            CreateProductRequest item = items.get(i);
+            Map<String, List<String>> errors = validate(item);
+            if (!errors.isEmpty()) {
+                results[i] = BulkItemResult.invalid(i, errors);
+                failed++;
+                continue;
+            }
+
+            // Con la secuencia 'pooled' el id se asigna en persist, sin ir a la base
+            Product p = ProductMapper.toEntity(item);
+            em.persist(p);
+            pending.add(p);
+            pendingIndexes.add(i);
+
+            if (pending.size() == batchSize) {
+                flushBatch(pending, pendingIndexes, results);
+            }
+        }
+        flushBatch(pending, pendingIndexes, results);
+
+        // Un solo evento para todo el lote (se procesa después del commit)
+        List<Long> createdIds = Arrays.stream(results)
+                .filter(r -> r.id() != null)
+                .map(BulkItemResult::id)
+                .toList();
+        if (!createdIds.isEmpty()) {
+            events.publishEvent(new ProductsCreatedEvent(createdIds));
+        }
+
+        return new BulkResponse(items.size() - failed, failed, Arrays.asList(results));
+    }
+
+    // Envía el batch pendiente y libera las entidades para que la memoria no crezca con el tamaño del lote
+    private void flushBatch(List<Product> pending, List<Integer> indexes, BulkItemResult[] results) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        em.flush();
+        for (int j = 0; j < pending.size(); j++) {
+            int index = indexes.get(j);
+            results[index] = BulkItemResult.created(index, pending.get(j).getId());
+        }
+        em.clear();
+        pending.clear();
+        indexes.clear();
+    }
+
+    private Map<String, List<String>> validate(CreateProductRequest item) {
+        if (item == null) {
+            return Map.of("item", List.of("item must not be null"));
+        }
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<String>> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<CreateProductRequest> v : violations) {
+            errors.computeIfAbsent(v.getPropertyPath().toString(), k -> new ArrayList<>())
+                  .add(v.getMessage());
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,105 @@
+package ar.edu.challenge01.productapi.service;
+
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.money.Money;
+import ar.edu.challenge01.productapi.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Volcado completo del catálogo en streaming (NDJSON o CSV).
+ * Lee con un cursor forward-only y limpia el persistence context cada
+ * EXPORT_FETCH_SIZE filas, así la memoria no depende del tamaño de la tabla.
+ */
+@Service
+public class ProductExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "id,name,description,price,createdAt,updatedAt\n";
+
+    private final ProductRepository repo;
+    private final EntityManager em;
+    private final ObjectWriter lineWriter;
+
+    public ProductExportService(ProductRepository repo, EntityManager em, ObjectMapper mapper) {
+        this.repo = repo;
+        this.em = em;
+        // Una línea por producto: sin cerrar ni flushear el Writer en cada valor
+        this.lineWriter = mapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        try (Stream<Product> rows = repo.streamAllForExport()) {
+            Iterator<Product> it = rows.iterator();
+            int inChunk = 0;
+            while (it.hasNext()) {
+                Product p = it.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, p);
+                } else {
+                    lineWriter.writeValue(writer, ProductMapper.toResponse(p));
+                    writer.write('\n');
+                }
+                if (++inChunk == ProductRepository.EXPORT_FETCH_SIZE) {
+                    // Libera las entidades ya escritas y empuja el chunk al cliente
+                    em.clear();
+                    writer.flush();
+                    inChunk = 0;
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer w, Product p) throws IOException {
+        w.write(String.valueOf(p.getId()));
+        w.write(',');
+        w.write(csv(p.getName()));
+        w.write(',');
+        w.write(csv(p.getDescription()));
+        w.write(',');
+        char[] price = new char[Money.MAX_LENGTH];
+        int start = Money.format(p.getPriceCents(), price);
+        w.write(price, start, price.length - start);
+        w.write(',');
+        w.write(p.getCreatedAt() == null ? "" : p.getCreatedAt().toString());
+        w.write(',');
+        w.write(p.getUpdatedAt() == null ? "" : p.getUpdatedAt().toString());
+        w.write('\n');
+    }
+
+    // RFC 4180: se citan los campos con coma, comillas o saltos de línea
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
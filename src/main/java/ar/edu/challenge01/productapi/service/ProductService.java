@@ -1,60 +1,126 @@
 package ar.edu.challenge01.productapi.service;
 
+import ar.edu.challenge01.productapi.cache.ProductCache;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
 import ar.edu.challenge01.productapi.dto.ProductRequest;
 import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
 import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
 import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.money.Money;
 import ar.edu.challenge01.productapi.repository.ProductRepository;
 import ar.edu.challenge01.productapi.web.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Escrituras de productos. Cada método es una transacción: el evento que
+ * publica escribe la fila del outbox (ProductChangeOutbox) en esa misma
+ * transacción, así el cambio y su registro en GET /products/changes se
+ * confirman o se revierten juntos.
+ */
 @Service
 @Transactional
 public class ProductService {
 
     private final ProductRepository repo;
+    private final ProductCache cache;
+    private final ApplicationEventPublisher events;
 
-    public ProductService(ProductRepository repo) {
+    public ProductService(ProductRepository repo, ProductCache cache, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.cache = cache;
+        this.events = events;
     }
 
     public ProductResponse create(ProductRequest req) {
         Product p = ProductMapper.toEntity(req);
         p = repo.save(p);
+        events.publishEvent(ProductChangedEvent.created(p.getId()));
+        return ProductMapper.toResponse(p);
+    }
+
+    public ProductResponse create(CreateProductRequest req) {
+        Product p = repo.save(ProductMapper.toEntity(req));
+        events.publishEvent(ProductChangedEvent.created(p.getId()));
         return ProductMapper.toResponse(p);
     }
 
     @Transactional(readOnly = true)
     public List<ProductResponse> findAll() {
-        return repo.findAll().stream().map(ProductMapper::toResponse).toList();
+        return repo.findAllResponses(Sort.unsorted());
     }
 
     @Transactional(readOnly = true)
     public ProductResponse findById(Long id) {
-        return ProductMapper.toResponse(findEntity(id));
+        ProductResponse found = cache.get(id, key -> repo.findResponseById(key).orElse(null));
+        if (found == null) {
+            throw NotFoundException.product(id);
+        }
+        return found;
     }
 
+    // Un solo UPDATE ... RETURNING: sin leer la entidad antes de escribir
     public ProductResponse update(Long id, ProductRequest req) {
-        Product p = findEntity(id);
-        ProductMapper.updateEntity(p, req);
-        p = repo.save(p);
+        Product p = repo.updateReturning(id, req.name(), req.description(),
+                        Money.normalize(req.price()),
+                        Instant.now().truncatedTo(ChronoUnit.MICROS))
+                .orElseThrow(() -> NotFoundException.product(id));
+        // la cache se invalida después del commit (ver ProductCache)
+        events.publishEvent(ProductChangedEvent.updated(id));
         return ProductMapper.toResponse(p);
     }
 
-    public void delete(Long id) {
-        if (!repo.existsById(id)) {
-            throw new NotFoundException("Product %d not found".formatted(id));
+    /**
+     * PUT /products/{id} con un único UPDATE ... RETURNING. Con expectedVersions
+     * (If-Match) solo escribe si updated_at es una de ellas; null = sin condición.
+     * Vacío si no afectó filas: el producto no existe o cambió.
+     */
+    public Optional<Product> update(Long id, UpdateProductRequest req, List<Instant> expectedVersions) {
+        BigDecimal price = Money.normalize(req.price());
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        Optional<Product> updated = Optional.empty();
+        if (expectedVersions == null) {
+            updated = repo.updateReturning(id, req.name(), req.description(), price, now);
+        } else {
+            // A lo sumo una es la versión actual: el resto no afecta filas
+            for (Instant expected : expectedVersions) {
+                updated = repo.updateReturningIfUnchanged(id, req.name(), req.description(), price, now, expected);
+                if (updated.isPresent()) {
+                    break;
+                }
+            }
         }
-        repo.deleteById(id);
+        updated.ifPresent(p -> events.publishEvent(ProductChangedEvent.updated(id)));
+        return updated;
     }
 
-    // Helper interno
-    private Product findEntity(Long id) {
-        return repo.findById(id)
-                .orElseThrow(() -> new NotFoundException("Product %d not found".formatted(id)));
+    /**
+     * Guarda un producto ya mergeado (modo merge de PUT) con el chequeo de @Version.
+     * El flush adentro hace que un conflicto salga de acá como
+     * ObjectOptimisticLockingFailureException y el caller pueda reintentar
+     * con una transacción nueva.
+     */
+    public Product saveMerged(Product merged) {
+        Product saved = repo.saveAndFlush(merged);
+        events.publishEvent(ProductChangedEvent.updated(saved.getId()));
+        return saved;
     }
-}
 
+    public void delete(Long id) {
+        if (repo.deleteByIdReturningCount(id) == 0) {
+            throw NotFoundException.product(id);
+        }
+        events.publishEvent(ProductChangedEvent.deleted(id));
+    }
+}
@@ -0,0 +1,212 @@
+package ar.edu.challenge01.productapi.service;
+
+import ar.edu.challenge01.productapi.dto.BulkItemResult;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.ProductUpsertItem;
+import ar.edu.challenge01.productapi.dto.UpsertResponse;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.event.ProductsCreatedEvent;
+import ar.edu.challenge01.productapi.money.Money;
+import ar.edu.challenge01.productapi.repository.ProductRepository;
+import ar.edu.challenge01.productapi.web.ConflictException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Alta o modificación por sku (clave del ERP) en un solo statement:
+ * INSERT ... ON CONFLICT (sku) DO UPDATE sobre ux_products_sku. La base resuelve
+ * la carrera entre dos altas del mismo sku, así que no hay 409 por la clave única.
+ *
+ * Idempotente: si la fila ya tiene esos valores el UPDATE no se aplica (no cambia
+ * updated_at ni la versión, no se publica evento) y la fila no vuelve en RETURNING.
+ * Reenviar el feed completo solo escribe lo que cambió.
+ */
+@Service
+public class ProductUpsertService {
+
+    static final int CHUNK_SIZE = 1_000;
+
+    // Una fila por elemento de los arrays. id sale del default de la columna (nextval);
+    // (xmax = 0) distingue una fila insertada de una actualizada.
+    private static final String UPSERT = """
+            INSERT INTO products (sku, name, description, price, created_at, updated_at)
+            SELECT s.sku, s.name, s.description, s.price, CAST(? AS timestamp), CAST(? AS timestamp)
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::numeric[]) AS s(sku, name, description, price)
+            ON CONFLICT (sku) DO UPDATE
+            SET name = EXCLUDED.name, description = EXCLUDED.description, price = EXCLUDED.price,
+                updated_at = EXCLUDED.updated_at, version = products.version + 1
+            WHERE (products.name, products.description, products.price)
+                  IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.description, EXCLUDED.price)
+            RETURNING id, sku, created_at, updated_at, (xmax = 0) AS inserted
+            """;
+
+    private static final String IDS_BY_SKU = "SELECT id, sku FROM products WHERE sku = ANY(?::text[])";
+
+    private final JdbcTemplate jdbc;
+    private final ProductRepository repo;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+
+    public ProductUpsertService(JdbcTemplate jdbc, ProductRepository repo, Validator validator,
+                                ApplicationEventPublisher events) {
+        this.jdbc = jdbc;
+        this.repo = repo;
+        this.validator = validator;
+        this.events = events;
+    }
+
+    public record Outcome(boolean created, ProductResponse product) {}
+
+    private record Upserted(long id, String sku, Instant createdAt, Instant updatedAt, boolean inserted) {}
+
+    private record SkuId(long id, String sku) {}
+
+    @Transactional
+    public Outcome upsert(String sku, CreateProductRequest req) {
+        BigDecimal price = Money.normalize(req.price());
+        List<Upserted> rows = upsertChunk(
+                List.of(new ProductUpsertItem(sku, req.name(), req.description(), price)), now());
+        if (rows.isEmpty()) {
+            // Sin cambios: se devuelve la fila tal como está
+            return new Outcome(false, repo.findResponseBySku(sku)
+                    .orElseThrow(() -> new ConflictException("Product with sku " + sku + " was deleted concurrently")));
+        }
+        Upserted row = rows.get(0);
+        events.publishEvent(row.inserted() ? ProductChangedEvent.created(row.id()) : ProductChangedEvent.updated(row.id()));
+        return new Outcome(row.inserted(),
+                new ProductResponse(row.id(), req.name(), req.description(), Money.toCents(price),
+                        row.createdAt(), row.updatedAt()));
+    }
+
+    @Transactional
+    public UpsertResponse upsertAll(List<ProductUpsertItem> items) {
+        BulkItemResult[] results = new BulkItemResult[items.size()];
+        Map<String, Integer> indexBySku = new HashMap<>();
+        List<ProductUpsertItem> valid = new ArrayList<>(items.size());
+        int failed = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            ProductUpsertItem item = items.get(i);
+            Map<String, List<String>> errors = validate(item);
+            if (errors.isEmpty() && indexBySku.putIfAbsent(item.sku(), i) != null) {
+                // Dos filas con el mismo sku en un statement: ON CONFLICT no lo admite
+                errors = Map.of("sku", List.of("sku is repeated in this request"));
+            }
+            if (!errors.isEmpty()) {
+                results[i] = BulkItemResult.invalid(i, errors);
+                failed++;
+                continue;
+            }
+            valid.add(new ProductUpsertItem(item.sku(), item.name(), item.description(),
+                    Money.normalize(item.price())));
+        }
+
+        Instant now = now();
+        List<Long> createdIds = new ArrayList<>();
+        int updated = 0;
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            List<ProductUpsertItem> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+            for (Upserted row : upsertChunk(chunk, now)) {
+                int index = indexBySku.get(row.sku());
+                if (row.inserted()) {
+                    results[index] = BulkItemResult.created(index, row.id());
+                    createdIds.add(row.id());
+                } else {
+                    results[index] = BulkItemResult.updated(index, row.id());
+                    events.publishEvent(ProductChangedEvent.updated(row.id()));
+                    updated++;
+                }
+            }
+        }
+
+        // Los que no volvieron en RETURNING ya estaban iguales: solo falta informar su id
+        List<String> unchangedSkus = valid.stream()
+                .map(ProductUpsertItem::sku)
+                .filter(sku -> results[indexBySku.get(sku)] == null)
+                .toList();
+        int unchanged = 0;
+        for (int from = 0; from < unchangedSkus.size(); from += CHUNK_SIZE) {
+            String[] skus = unchangedSkus.subList(from, Math.min(from + CHUNK_SIZE, unchangedSkus.size()))
+                    .toArray(String[]::new);
+            List<SkuId> found = jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(IDS_BY_SKU);
+                ps.setArray(1, con.createArrayOf("text", skus));
+                return ps;
+            }, (rs, n) -> new SkuId(rs.getLong("id"), rs.getString("sku")));
+            for (SkuId row : found) {
+                int index = indexBySku.get(row.sku());
+                results[index] = BulkItemResult.unchanged(index, row.id());
+                unchanged++;
+            }
+        }
+        for (String sku : unchangedSkus) {
+            int index = indexBySku.get(sku);
+            if (results[index] == null) {   // borrado entre los dos statements
+                results[index] = BulkItemResult.invalid(index, Map.of("sku", List.of("product was deleted concurrently")));
+                failed++;
+            }
+        }
+
+        if (!createdIds.isEmpty()) {
+            events.publishEvent(new ProductsCreatedEvent(createdIds));
+        }
+        return new UpsertResponse(createdIds.size(), updated, unchanged, failed, Arrays.asList(results));
+    }
+
+    private List<Upserted> upsertChunk(List<ProductUpsertItem> chunk, Instant now) {
+        Timestamp ts = Timestamp.from(now);
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT);
+            ps.setTimestamp(1, ts);
+            ps.setTimestamp(2, ts);
+            ps.setArray(3, con.createArrayOf("text", chunk.stream().map(ProductUpsertItem::sku).toArray(String[]::new)));
+            ps.setArray(4, con.createArrayOf("text", chunk.stream().map(ProductUpsertItem::name).toArray(String[]::new)));
+            ps.setArray(5, con.createArrayOf("text", chunk.stream().map(ProductUpsertItem::description).toArray(String[]::new)));
+            ps.setArray(6, con.createArrayOf("numeric", chunk.stream().map(ProductUpsertItem::price).toArray(BigDecimal[]::new)));
+            return ps;
+        }, (rs, n) -> new Upserted(
+                rs.getLong("id"),
+                rs.getString("sku"),
+                rs.getTimestamp("created_at").toInstant(),
+                rs.getTimestamp("updated_at").toInstant(),
+                rs.getBoolean("inserted")));
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private Map<String, List<String>> validate(ProductUpsertItem item) {
+        if (item == null) {
+            return Map.of("item", List.of("item must not be null"));
+        }
+        Set<ConstraintViolation<ProductUpsertItem>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, List<String>> errors = new LinkedHashMap<>();
+        for (ConstraintViolation<ProductUpsertItem> v : violations) {
+            errors.computeIfAbsent(v.getPropertyPath().toString(), k -> new ArrayList<>())
+                  .add(v.getMessage());
+        }
+        return errors;
+    }
+}
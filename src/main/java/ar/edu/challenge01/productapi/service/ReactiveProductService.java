@@ -0,0 +1,101 @@
+package ar.edu.challenge01.productapi.service;
+
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.entity.ProductRow;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.money.Money;
+import ar.edu.challenge01.productapi.repository.ReactiveProductRepository;
+import ar.edu.challenge01.productapi.web.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Contraparte no bloqueante de ProductService sobre R2DBC (perfil 'reactive').
+ *
+ * Cada escritura y su fila del outbox (product_changes) van en una transacción
+ * R2DBC; el evento para cache e índice se publica después del commit.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductService {
+
+    // Filas pedidas por adelantado al driver: acota la memoria si el cliente consume lento
+    private static final int PREFETCH = 256;
+
+    private final ReactiveProductRepository repo;
+    private final ApplicationEventPublisher events;
+    private final TransactionalOperator tx;
+
+    public ReactiveProductService(ReactiveProductRepository repo, ApplicationEventPublisher events,
+                                  ReactiveTransactionManager txManager) {
+        this.repo = repo;
+        this.events = events;
+        this.tx = TransactionalOperator.create(txManager);
+    }
+
+    public Flux<ProductResponse> findAll() {
+        return repo.findAllByOrderByCreatedAtDescIdDesc()
+                .limitRate(PREFETCH)
+                .map(ProductMapper::toResponse);
+    }
+
+    public Mono<ProductResponse> findById(Long id) {
+        return repo.findById(id)
+                .switchIfEmpty(notFound(id))
+                .map(ProductMapper::toResponse);
+    }
+
+    public Mono<ProductResponse> create(CreateProductRequest req) {
+        LocalDateTime now = now();
+        ProductRow row = new ProductRow(null, req.name(), req.description(),
+                Money.normalize(req.price()), now, now, null);
+        return repo.save(row)
+                .flatMap(saved -> record(ProductChangedEvent.created(saved.id())).thenReturn(saved))
+                .as(tx::transactional)
+                .doOnNext(saved -> events.publishEvent(ProductChangedEvent.created(saved.id())))
+                .map(ProductMapper::toResponse);
+    }
+
+    // @Version en ProductRow: una escritura concurrente hace fallar el save (409)
+    public Mono<ProductResponse> update(Long id, UpdateProductRequest req) {
+        return repo.findById(id)
+                .switchIfEmpty(notFound(id))
+                .flatMap(row -> repo.save(row.withValues(req.name(), req.description(), req.price(), now())))
+                .flatMap(saved -> record(ProductChangedEvent.updated(id)).thenReturn(saved))
+                .as(tx::transactional)
+                .doOnNext(saved -> events.publishEvent(ProductChangedEvent.updated(id)))
+                .map(ProductMapper::toResponse);
+    }
+
+    public Mono<Void> delete(Long id) {
+        return repo.deleteByIdReturningCount(id)
+                .flatMap(count -> count == 0
+                        ? Mono.<Void>error(NotFoundException.product(id))
+                        : record(ProductChangedEvent.deleted(id)))
+                .as(tx::transactional)
+                .then(Mono.fromRunnable(() -> events.publishEvent(ProductChangedEvent.deleted(id))));
+    }
+
+    private Mono<Void> record(ProductChangedEvent event) {
+        return repo.recordChange(event.id(), event.type().name()).then();
+    }
+
+    private static <T> Mono<T> notFound(Long id) {
+        return Mono.error(() -> NotFoundException.product(id));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -1,11 +1,19 @@
 package ar.edu.challenge01.productapi.web;
 
+import ar.edu.challenge01.productapi.config.DbBulkhead;
+import jakarta.persistence.OptimisticLockException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -14,9 +22,13 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
-  // 404
+  // 404 - El de producto es el camino caliente (ids inexistentes): cuerpo pre-serializado
   @ExceptionHandler(NotFoundException.class)
   public ResponseEntity<?> handleNotFound(NotFoundException ex) {
+    recordError(ex);
+    if (ex.getProductId() >= 0) {
+      return ProblemBodies.response(HttpStatus.NOT_FOUND, ProblemBodies.productNotFound(ex.getProductId()));
+    }
     return ResponseEntity.status(HttpStatus.NOT_FOUND)
         .body(Map.of("error", "NOT_FOUND", "message", ex.getMessage()));
   }
@@ -24,6 +36,7 @@ public class ApiExceptionHandler {
   // 400 - Bean Validation (agrupa múltiples mensajes por campo)
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex) {
+    recordError(ex);
     var fields = ex.getBindingResult().getFieldErrors().stream()
         .collect(Collectors.groupingBy(
             fe -> fe.getField(),
@@ -37,32 +50,125 @@ public class ApiExceptionHandler {
     ));
   }
 
+  // 400 - Bean Validation en el stack reactivo (mismo formato que el bloqueante)
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<?> handleReactiveValidation(WebExchangeBindException ex) {
+    recordError(ex);
+    var fields = ex.getFieldErrors().stream()
+        .collect(Collectors.groupingBy(
+            fe -> fe.getField(),
+            LinkedHashMap::new,
+            Collectors.mapping(DefaultMessageSourceResolvable::getDefaultMessage, Collectors.toList())
+        ));
+    return ResponseEntity.badRequest().body(Map.of(
+        "error", "BAD_REQUEST",
+        "message", "Validation failed",
+        "fields", fields
+    ));
+  }
+
   // 400 - JSON malformado
   @ExceptionHandler(HttpMessageNotReadableException.class)
   public ResponseEntity<?> handleBadJson(HttpMessageNotReadableException ex) {
+    recordError(ex);
+    return ProblemBodies.response(HttpStatus.BAD_REQUEST, ProblemBodies.MALFORMED_JSON);
+  }
+
+  // 400 - Parámetros inválidos (cursor, etc.)
+  @ExceptionHandler(BadRequestException.class)
+  public ResponseEntity<?> handleBadRequest(BadRequestException ex) {
+    recordError(ex);
     return ResponseEntity.badRequest()
-        .body(Map.of("error", "BAD_REQUEST", "message", "Malformed JSON"));
+        .body(Map.of("error", "BAD_REQUEST", "message", ex.getMessage()));
+  }
+
+  // 400 - Query params con formato inválido (precio, fecha ISO-8601, id)
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<?> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+    recordError(ex);
+    return ResponseEntity.badRequest()
+        .body(Map.of("error", "BAD_REQUEST", "message", "Invalid value for parameter '" + ex.getName() + "'"));
   }
 
   // 409 - Conflictos de integridad (unique, FK, etc.)
   @ExceptionHandler(DataIntegrityViolationException.class)
   public ResponseEntity<?> handleDataIntegrity(DataIntegrityViolationException ex) {
-    return ResponseEntity.status(HttpStatus.CONFLICT)
-        .body(Map.of("error", "CONFLICT", "message", "Data integrity violation"));
+    recordError(ex);
+    return ProblemBodies.response(HttpStatus.CONFLICT, ProblemBodies.DATA_INTEGRITY);
   }
 
   // 409 - Conflicto de negocio explícito (si usás tu propia excepción)
   @ExceptionHandler(ConflictException.class)
   public ResponseEntity<?> handleConflictExplicit(ConflictException ex) {
+    recordError(ex);
     return ResponseEntity.status(HttpStatus.CONFLICT)
         .body(Map.of("error", "CONFLICT", "message", ex.getMessage()));
   }
 
-  // 500 - Genérico
+  // 409 - Otra transacción modificó el producto entre la lectura y la escritura (@Version)
+  @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+  public ResponseEntity<?> handleOptimisticLock(Exception ex) {
+    recordError(ex);
+    return ProblemBodies.response(HttpStatus.CONFLICT, ProblemBodies.CONCURRENT_MODIFICATION);
+  }
+
+  // 410 - La posición pedida del feed de cambios ya fue purgada
+  @ExceptionHandler(GoneException.class)
+  public ResponseEntity<?> handleGone(GoneException ex) {
+    recordError(ex);
+    return ResponseEntity.status(HttpStatus.GONE)
+        .body(Map.of("error", "GONE", "message", ex.getMessage()));
+  }
+
+  // 412 - If-Match no coincide con la versión actual
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<?> handlePreconditionFailed(PreconditionFailedException ex) {
+    recordError(ex);
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+        .body(Map.of("error", "PRECONDITION_FAILED", "message", ex.getMessage()));
+  }
+
+  // 429 - Presupuesto del cliente agotado (rate limit por API key / IP)
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<?> handleTooManyRequests(TooManyRequestsException ex) {
+    recordError(ex);
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(Map.of("error", "TOO_MANY_REQUESTS", "message", ex.getMessage()));
+  }
+
+  // 503 - Base saturada (bulkhead) o load shedding: el cliente puede reintentar
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<?> handleServiceUnavailable(ServiceUnavailableException ex) {
+    recordError(ex);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(Map.of("error", "SERVICE_UNAVAILABLE", "message", ex.getMessage()));
+  }
+
+  // 500 - Genérico. Salvo que la causa sea el bulkhead de base: llega envuelto
+  // por quien pidió la conexión (transaction manager, Hibernate, JdbcTemplate) y es un 503
   @ExceptionHandler(Exception.class)
   public ResponseEntity<?> handleGeneric(Exception ex) {
-    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-        .body(Map.of("error", "INTERNAL_SERVER_ERROR", "message", "Unexpected error"));
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof DbBulkhead.SaturatedException) {
+        return handleServiceUnavailable(new ServiceUnavailableException(cause.getMessage(), 1));
+      }
+    }
+    recordError(ex);
+    return ProblemBodies.response(HttpStatus.INTERNAL_SERVER_ERROR, ProblemBodies.INTERNAL_ERROR);
   }
-}
 
+  /**
+   * Marca la excepción en la observación del request: así http.server.requests
+   * lleva exception=&lt;clase&gt; aunque la respuesta la arme este handler
+   * (p.ej. distinguir un 404 de producto de un 409 por @Version o un 500).
+   * En el stack reactivo no hay request de servlet y no hace nada.
+   */
+  private static void recordError(Throwable ex) {
+    if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs) {
+      ServerHttpObservationFilter.findObservationContext(attrs.getRequest())
+          .ifPresent(context -> context.setError(ex));
+    }
+  }
+}
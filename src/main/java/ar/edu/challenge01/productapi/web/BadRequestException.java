@@ -0,0 +1,5 @@
+package ar.edu.challenge01.productapi.web;
+
+public class BadRequestException extends RuntimeException {
+  public BadRequestException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package ar.edu.challenge01.productapi.web;
+
+public class GoneException extends RuntimeException {
+  public GoneException(String message) { super(message); }
+}
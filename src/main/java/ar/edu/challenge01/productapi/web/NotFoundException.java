@@ -1,6 +1,34 @@
 package ar.edu.challenge01.productapi.web;
 
+/**
+ * 404 de la API. Sin stack trace (writableStackTrace=false): un 404 es un
+ * resultado esperado, no un error, y bajo tráfico de ids aleatorios llenar el
+ * stack en cada miss es la mayor parte de su costo. Para productos el mensaje
+ * se arma recién si alguien lo pide (ApiExceptionHandler no lo necesita).
+ */
 public class NotFoundException extends RuntimeException {
-  public NotFoundException(String message) { super(message); }
-}
 
+  private final long productId;   // -1 si el mensaje es explícito
+
+  public NotFoundException(String message) {
+    super(message, null, false, false);
+    this.productId = -1;
+  }
+
+  private NotFoundException(long productId) {
+    super(null, null, false, false);
+    this.productId = productId;
+  }
+
+  public static NotFoundException product(long id) {
+    return new NotFoundException(id);
+  }
+
+  /** Id del producto buscado, o -1 si la excepción no es de un producto. */
+  public long getProductId() { return productId; }
+
+  @Override
+  public String getMessage() {
+    return productId < 0 ? super.getMessage() : "Product with id " + productId + " not found";
+  }
+}
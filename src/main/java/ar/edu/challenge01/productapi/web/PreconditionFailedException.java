@@ -0,0 +1,5 @@
+package ar.edu.challenge01.productapi.web;
+
+public class PreconditionFailedException extends RuntimeException {
+  public PreconditionFailedException(String message) { super(message); }
+}
@@ -0,0 +1,62 @@
+package ar.edu.challenge01.productapi.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cuerpos RFC 7807 (application/problem+json) ya serializados para los errores
+ * de forma fija. Evitan armar un Map y pasar por Jackson en cada respuesta:
+ * el 404 de producto solo concatena el id entre dos arrays precalculados.
+ * Además de los campos de ProblemDetail incluyen "error" y "message", el
+ * formato que usa el resto de ApiExceptionHandler.
+ */
+final class ProblemBodies {
+
+    static final MediaType PROBLEM_JSON = MediaType.APPLICATION_PROBLEM_JSON;
+
+    private static final byte[] PRODUCT_NOT_FOUND_HEAD = bytes(
+            "{\"type\":\"about:blank\",\"title\":\"Not Found\",\"status\":404,"
+                    + "\"error\":\"NOT_FOUND\",\"message\":\"Product with id ");
+    private static final byte[] PRODUCT_NOT_FOUND_TAIL = bytes(" not found\"}");
+
+    static final byte[] MALFORMED_JSON = problem(HttpStatus.BAD_REQUEST, "BAD_REQUEST", "Malformed JSON");
+    static final byte[] CONCURRENT_MODIFICATION = problem(HttpStatus.CONFLICT, "CONFLICT",
+            "Product was modified concurrently, retry with the latest version");
+    static final byte[] DATA_INTEGRITY = problem(HttpStatus.CONFLICT, "CONFLICT", "Data integrity violation");
+    static final byte[] INTERNAL_ERROR = problem(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR",
+            "Unexpected error");
+
+    private ProblemBodies() {
+    }
+
+    static byte[] productNotFound(long id) {
+        byte[] digits = bytes(Long.toString(id));
+        byte[] out = new byte[PRODUCT_NOT_FOUND_HEAD.length + digits.length + PRODUCT_NOT_FOUND_TAIL.length];
+        System.arraycopy(PRODUCT_NOT_FOUND_HEAD, 0, out, 0, PRODUCT_NOT_FOUND_HEAD.length);
+        System.arraycopy(digits, 0, out, PRODUCT_NOT_FOUND_HEAD.length, digits.length);
+        System.arraycopy(PRODUCT_NOT_FOUND_TAIL, 0, out, PRODUCT_NOT_FOUND_HEAD.length + digits.length,
+                PRODUCT_NOT_FOUND_TAIL.length);
+        return out;
+    }
+
+    static ResponseEntity<byte[]> response(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.CONTENT_TYPE, PROBLEM_JSON.toString())
+                .body(body);
+    }
+
+    // Solo para las constantes: los textos son fijos y no necesitan escape JSON
+    private static byte[] problem(HttpStatus status, String error, String message) {
+        return bytes("{\"type\":\"about:blank\",\"title\":\"" + status.getReasonPhrase() + "\","
+                + "\"status\":" + status.value() + ","
+                + "\"error\":\"" + error + "\",\"message\":\"" + message + "\"}");
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
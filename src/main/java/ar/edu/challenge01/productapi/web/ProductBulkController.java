@@ -0,0 +1,43 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.dto.BulkResponse;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.service.ProductBulkService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/products")
+@ServletStack
+public class ProductBulkController {
+
+    static final int MAX_BULK_ITEMS = 10_000;
+
+    private final ProductBulkService bulkService;
+
+    public ProductBulkController(ProductBulkService bulkService) {
+        this.bulkService = bulkService;
+    }
+
+    /**
+     * POST /products/_bulk
+     * Crea muchos productos en una sola request. Cada ítem se valida por
+     * separado: los inválidos se informan con sus errores y no impiden que
+     * se persistan los válidos (con batch inserts).
+     */
+    @PostMapping("/_bulk")
+    public BulkResponse createAll(@RequestBody List<CreateProductRequest> body) {
+        if (body.isEmpty()) {
+            throw new BadRequestException("Bulk request must contain at least one item");
+        }
+        if (body.size() > MAX_BULK_ITEMS) {
+            throw new BadRequestException("Bulk request exceeds " + MAX_BULK_ITEMS + " items");
+        }
+        return bulkService.createAll(body);
+    }
+}
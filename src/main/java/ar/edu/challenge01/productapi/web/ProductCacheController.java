@@ -0,0 +1,29 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.cache.ProductCache;
+import ar.edu.challenge01.productapi.cache.ProductCacheStats;
+import ar.edu.challenge01.productapi.config.ServletStack;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/products/_cache")
+@ServletStack
+public class ProductCacheController {
+
+    private final ProductCache cache;
+
+    public ProductCacheController(ProductCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * GET /products/_cache/stats
+     * Contadores de la cache de productos (hits, misses, evictions).
+     */
+    @GetMapping("/stats")
+    public ProductCacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,73 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.changefeed.ProductChangeFeed;
+import ar.edu.challenge01.productapi.config.ServletStack;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/products")
+@ServletStack
+public class ProductChangesController {
+
+    private final ProductChangeFeed feed;
+    private final Duration timeout;
+
+    public ProductChangesController(
+            ProductChangeFeed feed,
+            @Value("${app.product-changes.timeout:30m}") Duration timeout
+    ) {
+        this.feed = feed;
+        this.timeout = timeout;
+    }
+
+    /**
+     * GET /products/changes[?since=seq]
+     * Feed de cambios por Server-Sent Events. Cada evento 'changes' trae una
+     * tanda de cambios ordenados por seq ([{seq, type, productId, occurredAt}])
+     * y su id es el último seq de la tanda. Al reconectar, el header
+     * Last-Event-ID (o since) retoma exactamente desde ahí; sin ninguno de los
+     * dos se empieza desde el cambio más reciente. Si los cambios pedidos ya
+     * se purgaron responde 410 y el consumidor debe recargar el catálogo.
+     *
+     * Sin 'produces': así los errores previos al stream (400, 410, 503) salen
+     * como JSON igual que en el resto de la API.
+     */
+    @GetMapping("/changes")
+    public SseEmitter changes(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        long from;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                from = Long.parseLong(lastEventId.strip());
+            } catch (NumberFormatException ex) {
+                throw new BadRequestException("Invalid Last-Event-ID");
+            }
+        } else if (since != null) {
+            from = since;
+        } else {
+            from = feed.currentSeq();
+        }
+        if (from < 0) {
+            throw new BadRequestException("since must be greater than or equal to 0");
+        }
+        if (feed.isExpired(from)) {
+            throw new GoneException("Changes after seq " + from + " are no longer available, reload the catalog");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        if (!feed.subscribe(from, emitter)) {
+            throw new ServiceUnavailableException("Too many change feed subscribers", 5);
+        }
+        return emitter;
+    }
+}
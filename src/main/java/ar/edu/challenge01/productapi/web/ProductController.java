@@ -1,57 +1,338 @@
 package ar.edu.challenge01.productapi.web;
 
+import ar.edu.challenge01.productapi.cache.EncodedPayload;
+import ar.edu.challenge01.productapi.cache.ProductCache;
+import ar.edu.challenge01.productapi.cache.ProductPayloadCache;
+import ar.edu.challenge01.productapi.config.ServletStack;
 import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductBatch;
+import ar.edu.challenge01.productapi.dto.ProductFieldsPage;
+import ar.edu.challenge01.productapi.dto.ProductPage;
 import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
 import ar.edu.challenge01.productapi.dto.ProductResponse;
 import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.index.ProductIndex;
 import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.mapper.ProductMerge;
+import ar.edu.challenge01.productapi.money.Money;
+import ar.edu.challenge01.productapi.repository.CollectionStamp;
+import ar.edu.challenge01.productapi.repository.ProductField;
+import ar.edu.challenge01.productapi.repository.ProductFieldRow;
 import ar.edu.challenge01.productapi.repository.ProductRepository;
-// ajusta este import al nombre de tu excepción real
-import ar.edu.challenge01.productapi.exception.ResourceNotFoundException;
+import ar.edu.challenge01.productapi.service.ProductService;
+import ar.edu.challenge01.productapi.writebehind.ProductWriteBehind;
 
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/products")
+@ServletStack
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_BATCH_IDS = 500;
+    // Tamaño de cada IN (...): listas más largas empeoran el plan y el parseo sin ahorrar round-trips
+    private static final int IN_CHUNK_SIZE = 100;
+
     private final ProductRepository repo;
+    private final ProductService service;
+    private final ProductCache cache;
+    private final ProductPayloadCache payloads;
+    private final ProductIndex index;   // null si app.product-index.enabled=false
+    private final ProductWriteBehind writeBehind;   // null si app.write-behind.enabled=false
+    private final int mergeRetries;
 
-    public ProductController(ProductRepository repo) {
+    public ProductController(
+            ProductRepository repo,
+            ProductService service,
+            ProductCache cache,
+            ProductPayloadCache payloads,
+            ObjectProvider<ProductIndex> index,
+            ObjectProvider<ProductWriteBehind> writeBehind,
+            @Value("${app.products.update.merge-retries:0}") int mergeRetries
+    ) {
         this.repo = repo;
+        this.service = service;
+        this.cache = cache;
+        this.payloads = payloads;
+        this.index = index.getIfAvailable();
+        this.writeBehind = writeBehind.getIfAvailable();
+        this.mergeRetries = mergeRetries;
     }
 
     /**
      * GET /products
      * Devuelve todos los productos ordenados cronológicamente (más nuevos primero)
      * en formato ProductResponse.
+     * Soporta If-None-Match: la versión de la colección se obtiene con una
+     * consulta agregada, y si no cambió se responde 304 sin cargar ni
+     * serializar el listado.
+     * El listado serializado (y comprimido) se cachea con esa misma versión
+     * como clave: mientras la colección no cambie no se vuelve a consultar.
      */
     @GetMapping
-    public List<ProductResponse> list() {
-        List<Product> products = repo.findAll(
-                Sort.by(Sort.Direction.DESC, "createdAt")
-        );
-        return products.stream()
-                .map(ProductMapper::toResponse)
-                .toList();
+    public ResponseEntity<byte[]> list(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        CollectionStamp stamp = repo.collectionStamp();
+        String etag = ProductETags.ofCollection(stamp);
+        long lastModified = (stamp == null || stamp.getLastUpdated() == null)
+                ? -1 : stamp.getLastUpdated().toEpochMilli();
+        // Solo por ETag: max(updatedAt) no siempre avanza con un update diferido
+        // (ver CollectionStamp), así que If-Modified-Since podría dar un 304 viejo
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;   // 304: checkNotModified ya escribió status y headers
+        }
+
+        String key = etag == null ? null : "all:" + etag;
+        EncodedPayload payload = payloads.get(key);
+        if (payload == null) {
+            // Proyección directa a ProductResponse: sin entidades administradas
+            List<ProductResponse> products = repo.findAllResponses(
+                    Sort.by(Sort.Direction.DESC, "createdAt")
+            );
+            payload = payloads.put(key, etag, products);
+        }
+        return encoded(conditional(etag, lastModified), payload, acceptEncoding);
+    }
+
+    /**
+     * GET /products?limit=20[&cursor=...]
+     * Paginación por keyset sobre (createdAt, id), del más nuevo al más viejo.
+     * A diferencia del listado completo, el costo de cada página es constante
+     * sin importar cuán profundo pagine el cliente. Devuelve cursores opacos
+     * para la página siguiente y la anterior (null si no hay más).
+     * Las páginas calientes se sirven ya serializadas desde ProductPayloadCache.
+     */
+    @GetMapping(params = "limit")
+    public ResponseEntity<byte[]> listPage(
+            @RequestParam int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ProductCursor from = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor);
+
+        // Clave tomada antes de consultar: una escritura que confirme en el medio la deja obsoleta
+        String key = payloads.pageKey(size, from == null ? null : cursor);
+        EncodedPayload cached = payloads.get(key);
+        if (cached != null) {
+            if (request.checkNotModified(cached.etag())) {
+                return null;
+            }
+            return encoded(conditional(cached.etag(), -1), cached, acceptEncoding);
+        }
+
+        // Pedimos un elemento extra para saber si hay más filas en esa dirección
+        List<Product> rows;
+        if (from == null) {
+            rows = repo.findFirstPage(size + 1);
+        } else if (from.backward()) {
+            rows = repo.findPageBefore(from.createdAt(), from.id(), size + 1);
+        } else {
+            rows = repo.findPageAfter(from.createdAt(), from.id(), size + 1);
+        }
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        if (from != null && from.backward()) {
+            rows = new ArrayList<>(rows);
+            Collections.reverse(rows);
+        }
+
+        // ETag de la página a partir de (id, updatedAt) de las filas, antes de mapear
+        String etag = ProductETags.ofPage(rows, hasMore);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        PageLinks links = rows.isEmpty() ? PageLinks.NONE : PageLinks.of(from, hasMore,
+                rows.get(0).getCreatedAt(), rows.get(0).getId(),
+                rows.get(rows.size() - 1).getCreatedAt(), rows.get(rows.size() - 1).getId());
+
+        EncodedPayload payload = payloads.put(key, etag, new ProductPage(
+                rows.stream().map(ProductMapper::toResponse).toList(),
+                links.next(),
+                links.prev()
+        ));
+        return encoded(conditional(etag, -1), payload, acceptEncoding);
+    }
+
+    /**
+     * GET /products?limit=20&fields=id,name,price[&cursor=...]
+     * La misma página que sin fields (mismos cursores y ETag), pero el SELECT
+     * trae solo los campos pedidos: description (TEXT) no se lee si no está.
+     */
+    @GetMapping(params = {"limit", "fields"})
+    public ResponseEntity<ProductFieldsPage> listPageFields(
+            @RequestParam int limit,
+            @RequestParam String fields,
+            @RequestParam(required = false) String cursor,
+            WebRequest request
+    ) {
+        Set<ProductField> selected = parseFields(fields);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ProductCursor from = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor);
+        boolean backward = from != null && from.backward();
+
+        List<ProductFieldRow> rows = repo.findFieldsPage(
+                from == null ? null : from.createdAt(),
+                from == null ? null : from.id(),
+                backward, size + 1, selected);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        if (backward) {
+            rows = new ArrayList<>(rows);
+            Collections.reverse(rows);
+        }
+
+        String etag = ProductETags.ofRowPage(rows, hasMore);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        PageLinks links = rows.isEmpty() ? PageLinks.NONE : PageLinks.of(from, hasMore,
+                rows.get(0).createdAt(), rows.get(0).id(),
+                rows.get(rows.size() - 1).createdAt(), rows.get(rows.size() - 1).id());
+
+        return conditional(etag, -1).body(new ProductFieldsPage(
+                rows.stream().map(ProductFieldRow::values).toList(),
+                links.next(),
+                links.prev()
+        ));
+    }
+
+    /**
+     * GET /products?ids=3,1,2
+     * Lectura por lote para quienes resuelven muchos productos por vista
+     * (carrito, pedidos): una consulta IN por cada IN_CHUNK_SIZE ids en lugar de
+     * un GET /products/{id} por producto. Pasa por el índice y la cache igual que
+     * GET /products/{id}. Los items respetan el orden pedido (sin repetidos) y
+     * los ids que no existen se informan en 'missing'.
+     */
+    @GetMapping(params = "ids")
+    public ProductBatch getMany(@RequestParam List<Long> ids) {
+        Set<Long> wanted = new LinkedHashSet<>(ids);
+        wanted.remove(null);   // "ids=1,,2"
+        if (wanted.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per request");
+        }
+
+        Map<Long, ProductResponse> found = new HashMap<>();
+        List<Long> pending = new ArrayList<>(wanted.size());
+        for (Long id : wanted) {
+            ProductResponse indexed = index == null ? null : index.find(id);
+            if (indexed != null) {
+                found.put(id, indexed);
+            } else {
+                pending.add(id);
+            }
+        }
+        if (!pending.isEmpty()) {
+            found.putAll(cache.getAll(pending, this::loadAll));
+        }
+
+        List<ProductResponse> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : wanted) {
+            ProductResponse p = found.get(id);
+            if (p != null) {
+                items.add(p);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatch(items, missing);
+    }
+
+    private Map<Long, ProductResponse> loadAll(Set<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        Map<Long, ProductResponse> loaded = new HashMap<>();
+        for (int from = 0; from < all.size(); from += IN_CHUNK_SIZE) {
+            List<Long> chunk = all.subList(from, Math.min(from + IN_CHUNK_SIZE, all.size()));
+            for (ProductResponse p : repo.findResponsesByIdIn(chunk)) {
+                loaded.put(p.id(), p);
+            }
+        }
+        return loaded;
     }
 
     /**
      * GET /products/{id}
-     * Devuelve un producto o lanza excepción de no encontrado.
+     * Devuelve un producto (desde el índice en memoria o la cache si está) o lanza
+     * excepción de no encontrado.
+     * Responde 304 si el If-None-Match / If-Modified-Since del cliente sigue vigente.
      */
     @GetMapping("/{id}")
-    public ProductResponse get(@PathVariable Long id) {
-        Product product = repo.findById(id)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Product with id " + id + " not found"));
-        return ProductMapper.toResponse(product);
+    public ResponseEntity<ProductResponse> get(@PathVariable Long id, WebRequest request) {
+        // Un miss en el índice no alcanza para un 404: se confirma contra la base
+        ProductResponse product = index == null ? null : index.find(id);
+        if (product == null) {
+            // null = no existe (la cache recuerda el miss un rato, ver ProductCache)
+            product = cache.get(id, key -> repo.findResponseById(key).orElse(null));
+            if (product == null) {
+                throw NotFoundException.product(id);
+            }
+        }
+
+        String etag = ProductETags.of(product);
+        long lastModified = ProductETags.lastModified(product);
+        if (etag != null && request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return conditional(etag, lastModified).body(product);
+    }
+
+    /**
+     * GET /products/{id}?fields=id,name,price
+     * Solo los campos pedidos, leídos directo de la base (no pasa por la cache,
+     * que guarda el producto completo). El ETag es el mismo que sin fields.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getFields(
+            @PathVariable Long id,
+            @RequestParam String fields,
+            WebRequest request
+    ) {
+        ProductFieldRow row = repo.findFieldsById(id, parseFields(fields))
+                .orElseThrow(() -> NotFoundException.product(id));
+
+        String etag = ProductETags.of(row);
+        Instant version = row.updatedAt() != null ? row.updatedAt() : row.createdAt();
+        long lastModified = version == null ? -1 : version.toEpochMilli();
+        if (etag != null && request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return conditional(etag, lastModified).body(row.values());
     }
 
     /**
@@ -62,47 +343,194 @@ public class ProductController {
     public ResponseEntity<ProductResponse> create(
             @Valid @RequestBody CreateProductRequest body
     ) {
-        Product toSave = ProductMapper.toEntity(body);
-        Product saved = repo.save(toSave);
-
-        ProductResponse response = ProductMapper.toResponse(saved);
+        ProductResponse response = service.create(body);
 
         return ResponseEntity
-                .created(URI.create("/products/" + saved.getId()))
+                .created(URI.create("/products/" + response.id()))
                 .body(response);
     }
 
     /**
      * PUT /products/{id}
-     * Actualiza completamente un producto existente.
+     * Actualiza completamente un producto existente con un único
+     * UPDATE ... RETURNING (sin leer antes la entidad), en la misma transacción
+     * que su fila del outbox (ver ProductService).
+     * Con If-Match, solo actualiza si el ETag coincide con la versión actual (si no, 412).
+     * Si el modo merge está habilitado (app.products.update.merge-retries > 0) se usa
+     * lectura + save con @Version: ante una escritura concurrente se relee el producto
+     * y se reaplican los campos del request que no chocan con los de la otra escritura.
+     * Con Prefer: respond-async (y app.write-behind.enabled) responde 202 y la
+     * escritura se aplica en diferido, agrupada con otras.
      */
     @PutMapping("/{id}")
-    public ProductResponse update(
+    public ResponseEntity<ProductResponse> update(
             @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
             @Valid @RequestBody UpdateProductRequest body
     ) {
-        Product updated = repo.findById(id)
-                .map(existing -> {
-                    ProductMapper.updateEntity(existing, body);
-                    return repo.save(existing);
-                })
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Product with id " + id + " not found"));
+        // Escritura diferida (ver ProductWriteBehind). Un PUT condicional necesita
+        // comparar contra la versión actual, así que If-Match se atiende sincrónico.
+        // Un precio que la base rechazaría también: el cliente recibe el 409 ahora.
+        if (writeBehind != null && ifMatch == null && prefersAsync(prefer) && Money.fits(body.price())) {
+            writeBehind.enqueue(id, body);
+            return ResponseEntity.accepted().header("Preference-Applied", "respond-async").build();
+        }
+
+        Product updated = mergeRetries > 0
+                ? updateWithMerge(id, ifMatch, body)
+                : updateInPlace(id, ifMatch, body);
+
+        ProductResponse response = ProductMapper.toResponse(updated);
+        return conditional(ProductETags.of(response), ProductETags.lastModified(response)).body(response);
+    }
+
+    // Un round-trip: el 404/412 se deriva de que el UPDATE no haya afectado filas
+    private Product updateInPlace(Long id, String ifMatch, UpdateProductRequest body) {
+        if (ifMatch == null || ProductETags.matchesAny(ifMatch)) {
+            return service.update(id, body, null)
+                    .orElseThrow(() -> NotFoundException.product(id));
+        }
 
-        return ProductMapper.toResponse(updated);
+        List<Instant> expected = ProductETags.parseVersions(ifMatch, id);
+        if (!expected.isEmpty()) {
+            Optional<Product> updated = service.update(id, body, expected);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+        }
+        // Solo en el camino de error: distinguir "no existe" de "cambió"
+        if (!repo.existsById(id)) {
+            throw NotFoundException.product(id);
+        }
+        throw new PreconditionFailedException("Product " + id + " was modified");
+    }
+
+    private Product updateWithMerge(Long id, String ifMatch, UpdateProductRequest body) {
+        Product existing = findOrThrow(id);
+        if (ifMatch != null && !ProductETags.matches(ifMatch, ProductETags.of(existing))) {
+            throw new PreconditionFailedException("Product " + id + " was modified");
+        }
+
+        ProductMerge.Snapshot base = ProductMerge.Snapshot.of(existing);
+        ProductMapper.updateEntity(existing, body);
+        // Una transacción por intento: el reintento relee fuera de la que falló
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return service.saveMerged(existing);
+            } catch (ObjectOptimisticLockingFailureException ex) {
+                if (attempt >= mergeRetries) {
+                    throw ex;
+                }
+                existing = findOrThrow(id);
+                List<String> conflicts = ProductMerge.apply(base, existing, body);
+                if (!conflicts.isEmpty()) {
+                    throw new ConflictException("Concurrent update on product " + id + " conflicts on " + conflicts);
+                }
+            }
+        }
     }
 
     /**
      * DELETE /products/{id}
-     * Elimina un producto. Si no existe, lanza excepción de no encontrado.
+     * Elimina un producto con un único DELETE. Si no afectó filas, lanza excepción de no encontrado.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        if (!repo.existsById(id)) {
-            throw new ResourceNotFoundException("Product with id " + id + " not found");
-        }
-        repo.deleteById(id);
+        service.delete(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private Product findOrThrow(Long id) {
+        return repo.findById(id)
+                .orElseThrow(() -> NotFoundException.product(id));
+    }
+
+    // ?fields=id,name,price -> campos en el orden de ProductField (EnumSet)
+    private static Set<ProductField> parseFields(String fields) {
+        Set<ProductField> selected = EnumSet.noneOf(ProductField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            ProductField field = ProductField.fromName(trimmed);
+            if (field == null) {
+                throw new BadRequestException("Unknown field: " + trimmed);
+            }
+            selected.add(field);
+        }
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields must name at least one field");
+        }
+        return selected;
+    }
+
+    // Cursores anterior/siguiente de una página a partir de su primera y última fila
+    private record PageLinks(String next, String prev) {
+
+        static final PageLinks NONE = new PageLinks(null, null);
+
+        static PageLinks of(ProductCursor from, boolean hasMore,
+                            Instant firstCreatedAt, long firstId,
+                            Instant lastCreatedAt, long lastId) {
+            boolean backward = from != null && from.backward();
+            String next = (backward || hasMore) ? ProductCursor.after(lastCreatedAt, lastId).encode() : null;
+            String prev = ((from != null && !backward) || (backward && hasMore))
+                    ? ProductCursor.before(firstCreatedAt, firstId).encode() : null;
+            return new PageLinks(next, prev);
+        }
+    }
+
+    // Escribe un payload ya codificado, sin pasar por Jackson. Si el cliente acepta gzip
+    // va la versión comprimida con Content-Encoding, y Tomcat no la vuelve a comprimir.
+    private static ResponseEntity<byte[]> encoded(ResponseEntity.BodyBuilder builder,
+                                                  EncodedPayload payload, String acceptEncoding) {
+        builder.contentType(MediaType.APPLICATION_JSON).varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (payload.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.gzip());
+        }
+        return builder.body(payload.json());
+    }
+
+    // "gzip" o "*" sin q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim();
+            if (coding.equalsIgnoreCase("gzip") || coding.equals("*")) {
+                return tokens.length < 2 || !tokens[1].replace(" ", "").matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+
+    // Prefer: respond-async (RFC 7240), solo o junto a otras preferencias.
+    // Público: RateLimitInterceptor lo usa para cobrar estos PUT en su propio bucket.
+    public static boolean prefersAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String part : prefer.split(",")) {
+            if (part.split(";")[0].trim().equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Headers de validación: el cliente guarda ETag/Last-Modified y revalida en cada uso
+    private static ResponseEntity.BodyBuilder conditional(String etag, long lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+}
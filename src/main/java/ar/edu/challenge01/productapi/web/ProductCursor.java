@@ -0,0 +1,44 @@
+package ar.edu.challenge01.productapi.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación por keyset de GET /products.
+ * Codifica la posición (createdAt, id) de un producto y la dirección
+ * en la que se quiere seguir leyendo a partir de él.
+ */
+public record ProductCursor(boolean backward, Instant createdAt, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static ProductCursor after(Instant createdAt, long id) {
+        return new ProductCursor(false, createdAt, id);
+    }
+
+    public static ProductCursor before(Instant createdAt, long id) {
+        return new ProductCursor(true, createdAt, id);
+    }
+
+    public String encode() {
+        String raw = (backward ? "b" : "a") + ":" + createdAt.getEpochSecond()
+                + ":" + createdAt.getNano() + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 4 || !(parts[0].equals("a") || parts[0].equals("b"))) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            return new ProductCursor(parts[0].equals("b"), createdAt, Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | java.time.DateTimeException ex) {
+            // NumberFormatException y errores de Base64 son IllegalArgumentException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
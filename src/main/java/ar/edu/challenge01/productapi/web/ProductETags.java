@@ -0,0 +1,155 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.repository.CollectionStamp;
+import ar.edu.challenge01.productapi.repository.ProductFieldRow;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETags fuertes para productos y listados.
+ * Un producto se identifica por id + updatedAt (a resolución de microsegundos,
+ * la misma que guarda PostgreSQL), así el valor no cambia entre la respuesta
+ * de un PUT y una lectura posterior de la base.
+ */
+final class ProductETags {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private ProductETags() {
+    }
+
+    static String of(ProductResponse p) {
+        return of(p.id(), version(p.updatedAt(), p.createdAt()));
+    }
+
+    static String of(Product p) {
+        return of(p.getId(), version(p.getUpdatedAt(), p.getCreatedAt()));
+    }
+
+    static String of(ProductFieldRow r) {
+        return of(r.id(), version(r.updatedAt(), r.createdAt()));
+    }
+
+    static long lastModified(ProductResponse p) {
+        Instant ts = version(p.updatedAt(), p.createdAt());
+        return ts == null ? -1 : ts.toEpochMilli();
+    }
+
+    // ETag de colección a partir de (count, max id, max updated_at, suma de versiones): cualquier escritura lo cambia
+    static String ofCollection(CollectionStamp stamp) {
+        if (stamp == null || stamp.getCount() == null) {
+            return null;
+        }
+        return "\"c-" + Long.toHexString(stamp.getCount())
+                + "-" + Long.toHexString(stamp.getMaxId() == null ? 0 : stamp.getMaxId())
+                + "-" + Long.toHexString(micros(stamp.getLastUpdated()))
+                + "-" + Long.toHexString(stamp.getVersionSum() == null ? 0 : stamp.getVersionSum()) + "\"";
+    }
+
+    // ETag de una página: hash FNV-1a de (id, updatedAt) de cada fila, sin mapear ni serializar.
+    // hasMore entra en el hash porque define si la respuesta trae cursor siguiente.
+    static String ofPage(List<Product> rows, boolean hasMore) {
+        long h = FNV_OFFSET;
+        for (Product p : rows) {
+            h = mix(h, p.getId(), version(p.getUpdatedAt(), p.getCreatedAt()));
+        }
+        return page(rows.size(), hasMore, h);
+    }
+
+    // Igual que ofPage para una página con selección de campos: mismas filas, mismo ETag
+    static String ofRowPage(List<ProductFieldRow> rows, boolean hasMore) {
+        long h = FNV_OFFSET;
+        for (ProductFieldRow r : rows) {
+            h = mix(h, r.id(), version(r.updatedAt(), r.createdAt()));
+        }
+        return page(rows.size(), hasMore, h);
+    }
+
+    /**
+     * Evalúa un header If-Match (lista separada por comas o "*") con comparación fuerte.
+     */
+    static boolean matches(String ifMatch, String etag) {
+        if (etag == null) {
+            return false;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** true si el If-Match incluye "*": vale cualquier versión actual. */
+    static boolean matchesAny(String ifMatch) {
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extrae el updatedAt codificado en cada ETag de un If-Match (uno solo o una
+     * lista) que sea un ETag fuerte de este producto. Los candidatos que no lo
+     * son (weak, de otro producto, mal formados) se ignoran; si no queda ninguno
+     * la lista es vacía y el If-Match no puede coincidir.
+     */
+    static List<Instant> parseVersions(String ifMatch, Long id) {
+        List<Instant> versions = new ArrayList<>(1);
+        for (String candidate : ifMatch.split(",")) {
+            Instant version = parseVersion(candidate.trim(), id);
+            if (version != null && !versions.contains(version)) {
+                versions.add(version);
+            }
+        }
+        return versions;
+    }
+
+    private static Instant parseVersion(String c, Long id) {
+        if (c.length() < 5 || c.charAt(0) != '"' || c.charAt(c.length() - 1) != '"') {
+            return null;
+        }
+        String[] parts = c.substring(1, c.length() - 1).split("-");
+        try {
+            if (parts.length != 2 || Long.parseLong(parts[0], 16) != id) {
+                return null;
+            }
+            long micros = Long.parseLong(parts[1], 16);
+            return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static String of(Long id, Instant version) {
+        if (id == null || version == null) {
+            return null;
+        }
+        return "\"" + Long.toHexString(id) + "-" + Long.toHexString(micros(version)) + "\"";
+    }
+
+    private static long mix(long h, long id, Instant version) {
+        h = (h ^ id) * FNV_PRIME;
+        return (h ^ micros(version)) * FNV_PRIME;
+    }
+
+    private static String page(int size, boolean hasMore, long hash) {
+        return "\"p-" + Long.toHexString(size) + (hasMore ? "m" : "") + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private static Instant version(Instant updatedAt, Instant createdAt) {
+        return updatedAt != null ? updatedAt : createdAt;
+    }
+
+    private static long micros(Instant ts) {
+        return ts == null ? 0 : ts.getEpochSecond() * 1_000_000L + ts.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,53 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.service.ProductExportService.Format;
+import ar.edu.challenge01.productapi.service.ProductExportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/products")
+@ServletStack
+public class ProductExportController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final ProductExportService exportService;
+
+    public ProductExportController(ProductExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * GET /products/export[?format=ndjson|csv]
+     * Vuelca el catálogo completo en streaming: un producto por línea,
+     * leído con un cursor del lado del servidor. El primer byte sale antes
+     * de que termine la consulta y la memoria se mantiene constante.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        Format fmt = switch (format.toLowerCase()) {
+            case "ndjson" -> Format.NDJSON;
+            case "csv" -> Format.CSV;
+            default -> throw new BadRequestException("Unsupported export format: " + format);
+        };
+
+        StreamingResponseBody body = out -> exportService.export(fmt, out);
+
+        return ResponseEntity.ok()
+                .contentType(fmt == Format.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + (fmt == Format.CSV ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,165 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.dto.ProductFilter;
+import ar.edu.challenge01.productapi.dto.ProductPage;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.index.ProductIndex;
+import ar.edu.challenge01.productapi.index.ProductIndexSnapshot;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.money.Money;
+import ar.edu.challenge01.productapi.repository.ProductRepository;
+import ar.edu.challenge01.productapi.repository.ProductSpecifications;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/products")
+@ServletStack
+public class ProductFilterController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final ProductRepository repo;
+    private final ProductIndex index;   // null si app.product-index.enabled=false
+
+    public ProductFilterController(ProductRepository repo, ObjectProvider<ProductIndex> index) {
+        this.repo = repo;
+        this.index = index.getIfAvailable();
+    }
+
+    /**
+     * GET /products/filter?minPrice=&maxPrice=&createdFrom=&createdTo=
+     *                     &updatedFrom=&updatedTo=&categoryId=&category=
+     *                     &sort=-createdAt&limit=20[&cursor=...]
+     * Filtra en la base (Specifications) y pagina por keyset sobre
+     * (clave de orden, id), sin COUNT: cada página cuesta lo mismo y la base
+     * solo lee las filas que devuelve gracias a los índices compuestos de V8.
+     * sort admite createdAt, updatedAt y price; con '-' delante es descendente.
+     * Con el índice en memoria habilitado, las consultas calientes (rango de
+     * precio por precio ascendente, y lo más nuevo primero sin filtros) se
+     * resuelven sin ir a la base; los cursores valen para ambos caminos.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<ProductPage> filter(
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedTo,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "-createdAt") String sort,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("minPrice must be less than or equal to maxPrice");
+        }
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new BadRequestException("createdFrom must be before createdTo");
+        }
+        if (updatedFrom != null && updatedTo != null && !updatedFrom.isBefore(updatedTo)) {
+            throw new BadRequestException("updatedFrom must be before updatedTo");
+        }
+
+        boolean descending = sort.startsWith("-");
+        ProductSortKey key = ProductSortKey.of(descending ? sort.substring(1) : sort);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        ProductFilterCursor from = null;
+        if (cursor != null && !cursor.isBlank()) {
+            from = ProductFilterCursor.decode(cursor);
+            if (!from.sort().equals(sort)) {
+                throw new BadRequestException("Cursor was issued for sort=" + from.sort());
+            }
+        }
+
+        ProductIndexSnapshot snapshot = index == null ? null : index.snapshot();
+        boolean onlyPrice = createdFrom == null && createdTo == null && updatedFrom == null && updatedTo == null
+                && categoryId == null && (category == null || category.isBlank());
+        if (snapshot != null && onlyPrice) {
+            if (key == ProductSortKey.PRICE && !descending) {
+                return ResponseEntity.ok(priceRangeFromIndex(snapshot, sort, minPrice, maxPrice, from, size));
+            }
+            if (key == ProductSortKey.CREATED_AT && descending && minPrice == null && maxPrice == null) {
+                return ResponseEntity.ok(newestFromIndex(snapshot, sort, from, size));
+            }
+        }
+
+        KeysetScrollPosition position = from == null
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of(key.property, key.parse(from.value()), "id", from.id()));
+
+        // price >= 10.005 es price >= 10.01; price <= 10.005 es price <= 10.00
+        ProductFilter criteria = new ProductFilter(
+                minPrice == null ? null : Money.toCents(minPrice, RoundingMode.CEILING),
+                maxPrice == null ? null : Money.toCents(maxPrice, RoundingMode.FLOOR),
+                createdFrom, createdTo, updatedFrom, updatedTo, categoryId, category);
+        Window<Product> window = repo.findBy(
+                ProductSpecifications.matching(criteria),
+                q -> q.sortBy(key.sort(descending)).limit(size).scroll(position)
+        );
+
+        String next = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            Product last = window.getContent().get(window.size() - 1);
+            next = new ProductFilterCursor(sort, last.getId(), key.valueOf(last)).encode();
+        }
+
+        return ResponseEntity.ok(new ProductPage(
+                window.getContent().stream().map(ProductMapper::toResponse).toList(),
+                next,
+                null
+        ));
+    }
+
+    private static ProductPage priceRangeFromIndex(ProductIndexSnapshot snapshot, String sort,
+                                                   BigDecimal minPrice, BigDecimal maxPrice,
+                                                   ProductFilterCursor from, int size) {
+        long min = minPrice == null ? Long.MIN_VALUE : Money.toCents(minPrice, RoundingMode.CEILING);
+        long max = maxPrice == null ? Long.MAX_VALUE : Money.toCents(maxPrice, RoundingMode.FLOOR);
+        long afterCents = from == null ? 0 : (Long) ProductSortKey.PRICE.parse(from.value());
+        List<ProductResponse> rows = snapshot.priceRange(min, max, from != null, afterCents,
+                from == null ? 0 : from.id(), size + 1);
+        return page(rows, size, sort, r -> Money.toString(r.priceCents()));
+    }
+
+    private static ProductPage newestFromIndex(ProductIndexSnapshot snapshot, String sort,
+                                               ProductFilterCursor from, int size) {
+        long afterMicros = from == null ? 0
+                : ProductIndexSnapshot.toMicros((Instant) ProductSortKey.CREATED_AT.parse(from.value()));
+        List<ProductResponse> rows = snapshot.newest(from != null, afterMicros,
+                from == null ? 0 : from.id(), size + 1);
+        return page(rows, size, sort, r -> r.createdAt().toString());
+    }
+
+    // Mismo formato de cursor que el camino por base: valor de la clave + id
+    private static ProductPage page(List<ProductResponse> rows, int size, String sort,
+                                    Function<ProductResponse, String> value) {
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            ProductResponse last = rows.get(size - 1);
+            next = new ProductFilterCursor(sort, last.id(), value.apply(last)).encode();
+        }
+        return new ProductPage(rows, next, null);
+    }
+}
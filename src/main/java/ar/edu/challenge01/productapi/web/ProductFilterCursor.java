@@ -0,0 +1,34 @@
+package ar.edu.challenge01.productapi.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para GET /products/filter: el orden con el que se generó y la
+ * posición (valor de la clave de orden, id) del último producto entregado.
+ * Un cursor solo es válido con el mismo parámetro sort que lo produjo.
+ */
+public record ProductFilterCursor(String sort, long id, String value) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        // value va al final: los Instant contienen ':'
+        String raw = sort + ":" + id + ":" + value;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductFilterCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 3);
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new ProductFilterCursor(parts[0], Long.parseLong(parts[1]), parts[2]);
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException y errores de Base64 son IllegalArgumentException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
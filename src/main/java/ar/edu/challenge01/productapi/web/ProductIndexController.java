@@ -0,0 +1,31 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.index.ProductIndex;
+import ar.edu.challenge01.productapi.index.ProductIndexStats;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/products/_index")
+@ServletStack
+@ConditionalOnProperty(prefix = "app.product-index", name = "enabled", havingValue = "true")
+public class ProductIndexController {
+
+    private final ProductIndex index;
+
+    public ProductIndexController(ProductIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * GET /products/_index/stats
+     * Tamaño del índice en memoria y su huella estimada (total y por producto).
+     */
+    @GetMapping("/stats")
+    public ProductIndexStats stats() {
+        return index.stats();
+    }
+}
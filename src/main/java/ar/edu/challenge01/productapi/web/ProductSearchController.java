@@ -0,0 +1,104 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.dto.ProductPage;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.repository.ProductRepository;
+import ar.edu.challenge01.productapi.repository.SearchHit;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/products")
+@ServletStack
+public class ProductSearchController {
+
+    static final String SEARCH_MODE_HEADER = "X-Search-Mode";
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final ProductRepository repo;
+
+    public ProductSearchController(ProductRepository repo) {
+        this.repo = repo;
+    }
+
+    /**
+     * GET /products/search?q=...[&limit=20][&cursor=...]
+     * Búsqueda de texto completo sobre nombre y descripción (columna generada
+     * search_vector + índice GIN), ordenada por relevancia y paginada por keyset.
+     * Si el texto completo no encuentra nada en la primera página, cae a una
+     * búsqueda por trigramas sobre el nombre, que tolera prefijos y typos.
+     * El modo usado se informa en el header X-Search-Mode (fulltext | fuzzy)
+     * y queda fijado en el cursor para las páginas siguientes.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ProductPage> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor
+    ) {
+        String query = q.strip();
+        if (query.isEmpty() || query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("Query 'q' must have between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ProductSearchCursor from = (cursor == null || cursor.isBlank()) ? null : ProductSearchCursor.decode(cursor);
+
+        // Un elemento extra para saber si hay página siguiente
+        boolean fuzzy;
+        List<SearchHit> hits;
+        if (from == null) {
+            hits = repo.searchFirstPage(query, size + 1);
+            fuzzy = hits.isEmpty();
+            if (fuzzy) {
+                hits = repo.fuzzySearchFirstPage(query, size + 1);
+            }
+        } else {
+            fuzzy = from.fuzzy();
+            hits = fuzzy
+                    ? repo.fuzzySearchPageAfter(query, from.score(), from.id(), size + 1)
+                    : repo.searchPageAfter(query, from.score(), from.id(), size + 1);
+        }
+
+        boolean hasMore = hits.size() > size;
+        if (hasMore) {
+            hits = hits.subList(0, size);
+        }
+
+        String next = null;
+        if (hasMore) {
+            SearchHit last = hits.get(hits.size() - 1);
+            next = new ProductSearchCursor(fuzzy, last.getScore(), last.getId()).encode();
+        }
+
+        return ResponseEntity.ok()
+                .header(SEARCH_MODE_HEADER, fuzzy ? "fuzzy" : "fulltext")
+                .body(new ProductPage(load(hits), next, null));
+    }
+
+    // Carga los productos por PK (proyección, sin entidades) y los devuelve en el orden del ranking
+    private List<ProductResponse> load(List<SearchHit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponse> byId = repo.findResponsesByIdIn(hits.stream().map(SearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
+        // Una fila borrada entre las dos consultas simplemente no aparece
+        return hits.stream()
+                .map(h -> byId.get(h.getId()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,38 @@
+package ar.edu.challenge01.productapi.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para GET /products/search: la posición (score, id) del último
+ * resultado entregado y si la búsqueda ya había caído al modo por trigramas.
+ * El score se codifica con sus bits exactos para que el seek no pierda ni
+ * repita filas por redondeo.
+ */
+public record ProductSearchCursor(boolean fuzzy, float score, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public String encode() {
+        String raw = (fuzzy ? "t" : "f") + ":" + Integer.toHexString(Float.floatToIntBits(score)) + ":" + id;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static ProductSearchCursor decode(String token) {
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 3 || !(parts[0].equals("f") || parts[0].equals("t"))) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            float score = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[1], 16));
+            if (Float.isNaN(score)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new ProductSearchCursor(parts[0].equals("t"), score, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException y errores de Base64 son IllegalArgumentException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.config.ServletStack;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.ProductUpsertItem;
+import ar.edu.challenge01.productapi.dto.UpsertResponse;
+import ar.edu.challenge01.productapi.repository.ProductRepository;
+import ar.edu.challenge01.productapi.service.ProductUpsertService;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Acceso por sku, la clave con la que el ERP identifica los productos.
+ * Las escrituras son upserts idempotentes (ver ProductUpsertService): el ERP
+ * puede reenviar su feed completo sin listar ni comparar antes.
+ */
+@RestController
+@RequestMapping("/products/by-sku")
+@ServletStack
+public class ProductSkuController {
+
+    private static final int MAX_SKU_LENGTH = 64;
+
+    private final ProductRepository repo;
+    private final ProductUpsertService upserts;
+
+    public ProductSkuController(ProductRepository repo, ProductUpsertService upserts) {
+        this.repo = repo;
+        this.upserts = upserts;
+    }
+
+    /**
+     * GET /products/by-sku/{sku}
+     * Una lectura por ux_products_sku. Mismo ETag que GET /products/{id}.
+     */
+    @GetMapping("/{sku}")
+    public ResponseEntity<ProductResponse> get(@PathVariable String sku, WebRequest request) {
+        ProductResponse product = repo.findResponseBySku(checkSku(sku))
+                .orElseThrow(() -> new NotFoundException("Product with sku " + sku + " not found"));
+
+        String etag = ProductETags.of(product);
+        long lastModified = ProductETags.lastModified(product);
+        if (etag != null && request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(product);
+    }
+
+    /**
+     * PUT /products/by-sku/{sku}
+     * Crea el producto (201 + Location) o lo reemplaza (200). Si ya tenía esos
+     * valores no se escribe nada y también responde 200.
+     */
+    @PutMapping("/{sku}")
+    public ResponseEntity<ProductResponse> upsert(
+            @PathVariable String sku,
+            @Valid @RequestBody CreateProductRequest body
+    ) {
+        ProductUpsertService.Outcome outcome = upserts.upsert(checkSku(sku), body);
+        ProductResponse product = outcome.product();
+        ResponseEntity.BodyBuilder builder = outcome.created()
+                ? ResponseEntity.created(URI.create("/products/" + product.id()))
+                : ResponseEntity.ok();
+        String etag = ProductETags.of(product);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(product);
+    }
+
+    /**
+     * PUT /products/by-sku
+     * Forma por lote del upsert: un statement por cada 1000 ítems, todo en una
+     * transacción. Cada ítem se valida por separado y se informa como CREATED,
+     * UPDATED, UNCHANGED o INVALID.
+     */
+    @PutMapping
+    public UpsertResponse upsertAll(@RequestBody List<ProductUpsertItem> body) {
+        if (body.isEmpty()) {
+            throw new BadRequestException("Upsert request must contain at least one item");
+        }
+        if (body.size() > ProductBulkController.MAX_BULK_ITEMS) {
+            throw new BadRequestException("Upsert request exceeds " + ProductBulkController.MAX_BULK_ITEMS + " items");
+        }
+        return upserts.upsertAll(body);
+    }
+
+    private static String checkSku(String sku) {
+        if (sku.isBlank() || sku.length() > MAX_SKU_LENGTH) {
+            throw new BadRequestException("sku must be 1 to " + MAX_SKU_LENGTH + " characters");
+        }
+        return sku;
+    }
+}
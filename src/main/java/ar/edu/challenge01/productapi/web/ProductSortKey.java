@@ -0,0 +1,60 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.money.Money;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Claves de orden permitidas en GET /products/filter. Solo las que tienen un
+ * índice (valor, id) detrás: ordenar por otra columna obligaría a la base a
+ * leer y ordenar todas las filas que pasan el filtro.
+ * En el parámetro se escriben como "price" (ascendente) o "-price" (descendente).
+ * En el cursor el precio va como decimal ("1234.50") y se compara en centavos.
+ */
+enum ProductSortKey {
+
+    CREATED_AT("createdAt", Product::getCreatedAt, Instant::parse),
+    UPDATED_AT("updatedAt", Product::getUpdatedAt, Instant::parse),
+    PRICE("price", p -> Money.toString(p.getPriceCents()), Money::parse);
+
+    final String property;
+    private final Function<Product, Object> extractor;
+    private final Function<String, Object> parser;
+
+    ProductSortKey(String property, Function<Product, Object> extractor, Function<String, Object> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    static ProductSortKey of(String property) {
+        for (ProductSortKey key : values()) {
+            if (key.property.equals(property)) {
+                return key;
+            }
+        }
+        throw new BadRequestException("Unsupported sort key: " + property
+                + " (allowed: createdAt, updatedAt, price)");
+    }
+
+    // El id desempata en la misma dirección, igual que en los índices de V8
+    Sort sort(boolean descending) {
+        Sort.Direction dir = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(new Sort.Order(dir, property), new Sort.Order(dir, "id"));
+    }
+
+    String valueOf(Product p) {
+        return extractor.apply(p).toString();
+    }
+
+    Object parse(String raw) {
+        try {
+            return parser.apply(raw);
+        } catch (RuntimeException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
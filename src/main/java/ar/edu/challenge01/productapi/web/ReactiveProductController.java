@@ -0,0 +1,76 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.service.ReactiveProductService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Versión WebFlux de ProductController (perfil 'reactive').
+ * Mismos paths y contratos que el stack bloqueante.
+ */
+@RestController
+@RequestMapping("/products")
+@Profile("reactive")
+public class ReactiveProductController {
+
+    private final ReactiveProductService service;
+
+    public ReactiveProductController(ReactiveProductService service) {
+        this.service = service;
+    }
+
+    /**
+     * GET /products
+     * Emite los productos a medida que llegan de la base, con backpressure.
+     * Con Accept: application/x-ndjson se envía un producto por línea.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ProductResponse> list() {
+        return service.findAll();
+    }
+
+    /**
+     * GET /products/{id}
+     */
+    @GetMapping("/{id}")
+    public Mono<ProductResponse> get(@PathVariable Long id) {
+        return service.findById(id);
+    }
+
+    /**
+     * POST /products
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponse>> create(@Valid @RequestBody CreateProductRequest body) {
+        return service.create(body)
+                .map(created -> ResponseEntity
+                        .created(URI.create("/products/" + created.id()))
+                        .body(created));
+    }
+
+    /**
+     * PUT /products/{id}
+     */
+    @PutMapping("/{id}")
+    public Mono<ProductResponse> update(@PathVariable Long id, @Valid @RequestBody UpdateProductRequest body) {
+        return service.update(id, body);
+    }
+
+    /**
+     * DELETE /products/{id}
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
+        return service.delete(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+}
@@ -0,0 +1,14 @@
+package ar.edu.challenge01.productapi.web;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public ServiceUnavailableException(String message, long retryAfterSeconds) {
+    // Sin stack trace: se lanza justamente cuando el servidor está sobrecargado
+    super(message, null, false, false);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
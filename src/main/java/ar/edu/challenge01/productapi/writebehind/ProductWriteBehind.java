@@ -0,0 +1,456 @@
+package ar.edu.challenge01.productapi.writebehind;
+
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.money.Money;
+import ar.edu.challenge01.productapi.web.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritura diferida de PUT /products/{id} con Prefer: respond-async.
+ *
+ * - El update se escribe en el journal (con fsync) y recién ahí se responde 202:
+ *   un crash no pierde lo aceptado, al arrancar se relee y se aplica.
+ * - Pendientes: uno por producto. Un update nuevo del mismo id reemplaza al
+ *   anterior si es más nuevo (last-write-wins por acceptedAt).
+ * - Un único hilo aplica los pendientes en tandas de batch-size con un solo
+ *   UPDATE ... FROM unnest(...), cada flush-interval o antes si la cola llega
+ *   a batch-size. El UPDATE solo pisa filas con updated_at anterior: una
+ *   escritura sincrónica posterior al 202 no se pierde.
+ * - Las tandas salen en orden de llegada de cada producto a la cola (FIFO):
+ *   con la cola siempre por encima de batch-size ningún id se queda esperando.
+ *   Coalescer no le cambia el lugar al producto.
+ * - Cola acotada a max-pending productos: con la cola llena se responde 503.
+ *
+ * Ids inexistentes (o borrados mientras esperaban) se descartan al aplicar.
+ *
+ * Si una tanda falla por los datos (SQLState clase 22 o 23: un texto que la
+ * base no acepta, una restricción) se parte en mitades y se reintenta hasta
+ * aislar los updates culpables, que van al log de dead-letter y se descartan:
+ * uno solo no frena a los demás ni retiene el journal. Cualquier otro error
+ * (conexión, timeout, serialización) devuelve la tanda a la cola y el hilo
+ * espera antes de reintentar, el doble cada vez hasta max-backoff.
+ * Nunca lazy (APP_LAZY_INIT): la relectura del journal tiene que correr al arrancar.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "app.write-behind", name = "enabled", havingValue = "true")
+public class ProductWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductWriteBehind.class);
+    // Updates descartados con todos sus datos, para revisarlos o reaplicarlos a mano
+    private static final Logger deadLetter = LoggerFactory.getLogger(ProductWriteBehind.class.getName() + ".dead-letter");
+
+    // Una fila por elemento de los arrays; vuelven solo los ids efectivamente actualizados
+    private static final String APPLY = """
+            UPDATE products AS p
+            SET name = u.name, description = u.description, price = u.price,
+                updated_at = u.updated_at, version = p.version + 1
+            FROM unnest(?::bigint[], ?::text[], ?::text[], ?::numeric[], ?::timestamp[])
+                 AS u(id, name, description, price, updated_at)
+            WHERE p.id = u.id AND p.updated_at < u.updated_at
+            RETURNING p.id
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final UpdateJournal journal;
+    private final int maxPending;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long maxBackoffNanos;
+
+    private final Map<Long, QueuedUpdate> pending = new ConcurrentHashMap<>();
+    // Orden de llegada: cada id de pending aparece una sola vez, desde que entra hasta que se drena
+    private final Queue<Long> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Thread flusher;
+    // Una tanda a la vez: releaseJournal no puede correr con otra tanda sacada de pending y sin aplicar
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean running = true;
+    // Espera antes del próximo flush después de un error que no es de datos (0 = sin espera)
+    private volatile long backoffNanos;
+
+    private final Counter accepted;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter applied;
+    private final Counter skipped;
+    private final Counter deadLettered;
+    private final Counter failures;
+    private final Timer flushTimer;
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+
+    public ProductWriteBehind(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher events,
+            ObjectMapper mapper,
+            MeterRegistry registry,
+            @Value("${app.write-behind.journal-dir:./data/write-behind}") String journalDir,
+            @Value("${app.write-behind.journal-segment-size:64MB}") DataSize segmentSize,
+            @Value("${app.write-behind.fsync:true}") boolean fsync,
+            @Value("${app.write-behind.max-pending:100000}") int maxPending,
+            @Value("${app.write-behind.batch-size:1000}") int batchSize,
+            @Value("${app.write-behind.flush-interval:200ms}") Duration flushInterval,
+            @Value("${app.write-behind.max-backoff:30s}") Duration maxBackoff
+    ) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.journal = new UpdateJournal(Path.of(journalDir), segmentSize.toBytes(), fsync, mapper);
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.maxBackoffNanos = Math.max(flushIntervalNanos, maxBackoff.toNanos());
+
+        accepted = counter(registry, "accepted");
+        coalesced = counter(registry, "coalesced");
+        rejected = counter(registry, "rejected");
+        applied = counter(registry, "applied");
+        skipped = counter(registry, "skipped");
+        deadLettered = counter(registry, "dead_letter");
+        failures = Counter.builder("product.write_behind.flush.failures")
+                .description("Flushes that failed with a non-data error and were re-queued")
+                .register(registry);
+        flushTimer = Timer.builder("product.write_behind.flush")
+                .description("Time to apply one batch of queued updates")
+                .publishPercentileHistogram()
+                .register(registry);
+        lag = Timer.builder("product.write_behind.lag")
+                .description("Age of the oldest update in each applied batch (202 to commit)")
+                .publishPercentileHistogram()
+                .register(registry);
+        batchSizes = DistributionSummary.builder("product.write_behind.flush.batch.size")
+                .description("Updates per flushed batch")
+                .register(registry);
+        Gauge.builder("product.write_behind.queue.depth", depth, AtomicInteger::get)
+                .description("Products with a queued update not yet applied")
+                .register(registry);
+        Gauge.builder("product.write_behind.queue.capacity", () -> maxPending)
+                .description("Maximum number of products with a queued update")
+                .register(registry);
+
+        List<QueuedUpdate> recovered = journal.open();
+        for (QueuedUpdate u : recovered) {
+            offer(u);
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} queued product updates ({} products) from {}",
+                    recovered.size(), depth.get(), journalDir);
+        }
+
+        flusher = new Thread(this::runFlusher, "product-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("product.write_behind.updates")
+                .description("Queued product updates by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Encola el update y vuelve cuando ya está en el journal.
+     * El precio tiene que entrar en la columna (Money.fits): lo que la base
+     * rechazaría no se puede reintentar. Lanza ServiceUnavailableException si
+     * la cola está llena.
+     */
+    public QueuedUpdate enqueue(long id, UpdateProductRequest req) {
+        if (depth.get() >= maxPending && !pending.containsKey(id)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Update queue is full, retry later", 1);
+        }
+        long priceCents = Money.toCents(req.price());
+        int[] newDepth = {0};
+        QueuedUpdate u = journal.append(id, req.name(), req.description(), priceCents,
+                appended -> newDepth[0] = offer(appended));
+        accepted.increment();
+        if (newDepth[0] >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+        return u;
+    }
+
+    // Agrega o coalesce con el pendiente del mismo id; devuelve la profundidad resultante
+    private int offer(QueuedUpdate u) {
+        boolean[] added = {false};
+        pending.compute(u.id(), (id, old) -> {
+            if (old == null) {
+                added[0] = true;
+                return u;
+            }
+            coalesced.increment();
+            return u.newerThan(old) ? u : old;
+        });
+        if (!added[0]) {
+            return depth.get();
+        }
+        order.add(u.id());
+        return depth.incrementAndGet();
+    }
+
+    private void runFlusher() {
+        while (running) {
+            if (backoffNanos > 0) {
+                // enqueue despierta al hilo con la cola llena: la espera se retoma hasta el plazo
+                long until = System.nanoTime() + backoffNanos;
+                long left;
+                while (running && (left = until - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, left);
+                }
+            } else if (depth.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            if (!running) {
+                return;
+            }
+            try {
+                flush();
+            } catch (RuntimeException ex) {
+                log.error("Write-behind flush failed unexpectedly", ex);
+            }
+        }
+    }
+
+    /**
+     * Aplica una tanda; devuelve cuántos updates tomó de la cola (0 si estaba
+     * vacía o si un error que no es de datos la devolvió a la cola).
+     */
+    int flush() {
+        flushLock.lock();
+        try {
+            return flushBatch();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Con flushLock tomado
+    private int flushBatch() {
+        List<QueuedUpdate> batch = drain();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        // Partes de la tanda todavía sin aplicar; se parten al fallar por los datos
+        Deque<List<QueuedUpdate>> parts = new ArrayDeque<>();
+        parts.push(batch);
+        try {
+            while (!parts.isEmpty()) {
+                List<QueuedUpdate> part = parts.pop();
+                try {
+                    applyPart(part);
+                } catch (RuntimeException ex) {
+                    String sqlState = sqlState(ex);
+                    if (!isDataError(sqlState)) {
+                        parts.push(part);
+                        retryLater(parts, ex);
+                        return 0;
+                    }
+                    if (part.size() == 1) {
+                        deadLetter(part.get(0), sqlState, ex);
+                    } else {
+                        int half = part.size() / 2;
+                        parts.push(part.subList(half, part.size()));
+                        parts.push(part.subList(0, half));
+                    }
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        backoffNanos = 0;
+        batchSizes.record(batch.size());
+        Instant oldest = batch.stream().map(QueuedUpdate::acceptedAt).min(Instant::compareTo).orElseThrow();
+        lag.record(Duration.between(oldest, Instant.now()));
+        releaseJournal();
+        return batch.size();
+    }
+
+    private void applyPart(List<QueuedUpdate> part) {
+        List<Long> ids = tx.execute(status -> {
+            List<Long> updated = apply(part);
+            // Dentro de la transacción: cache, índice y outbox se enteran después del commit
+            updated.forEach(id -> events.publishEvent(ProductChangedEvent.updated(id)));
+            return updated;
+        });
+        int count = ids == null ? 0 : ids.size();
+        applied.increment(count);
+        skipped.increment(part.size() - count);
+    }
+
+    // Error de conexión o transitorio: lo no aplicado vuelve a la cola y el hilo espera
+    private void retryLater(Deque<List<QueuedUpdate>> parts, RuntimeException ex) {
+        failures.increment();
+        backoffNanos = backoffNanos == 0 ? flushIntervalNanos : Math.min(maxBackoffNanos, backoffNanos * 2);
+        int count = parts.stream().mapToInt(List::size).sum();
+        log.warn("Could not apply {} queued product updates, will retry in {} ms: {}",
+                count, TimeUnit.NANOSECONDS.toMillis(backoffNanos), ex.toString());
+        parts.forEach(part -> part.forEach(this::offer));
+    }
+
+    private void deadLetter(QueuedUpdate u, String sqlState, RuntimeException ex) {
+        deadLettered.increment();
+        deadLetter.error("Dropping queued update seq={} id={} acceptedAt={} price={} name={} description={}"
+                        + " (SQLState {}): {}", u.seq(), u.id(), u.acceptedAt(), Money.toBigDecimal(u.priceCents()),
+                quote(u.name()), quote(u.description()), sqlState, ex.getMessage());
+    }
+
+    // Entre comillas y con los caracteres de control escapados (p.ej. el NUL que la base rechaza)
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c < 0x20 || c == '"' || c == '\\') {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static String sqlState(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                return sql.getSQLState();
+            }
+        }
+        return null;
+    }
+
+    // Clase 22 (dato inválido) o 23 (restricción): reintentar no cambia el resultado
+    private static boolean isDataError(String sqlState) {
+        return sqlState != null && (sqlState.startsWith("22") || sqlState.startsWith("23"));
+    }
+
+    private List<QueuedUpdate> drain() {
+        List<QueuedUpdate> batch = new ArrayList<>(Math.min(batchSize, Math.max(0, depth.get())));
+        Long id;
+        while (batch.size() < batchSize && (id = order.poll()) != null) {
+            QueuedUpdate u = pending.remove(id);
+            if (u != null) {
+                depth.decrementAndGet();
+                batch.add(u);
+            }
+        }
+        return batch;
+    }
+
+    private List<Long> apply(List<QueuedUpdate> batch) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY);
+            ps.setArray(1, con.createArrayOf("bigint", batch.stream().map(QueuedUpdate::id).toArray(Long[]::new)));
+            ps.setArray(2, con.createArrayOf("text", batch.stream().map(QueuedUpdate::name).toArray(String[]::new)));
+            ps.setArray(3, con.createArrayOf("text", batch.stream().map(QueuedUpdate::description).toArray(String[]::new)));
+            ps.setArray(4, con.createArrayOf("numeric", batch.stream().map(u -> Money.toBigDecimal(u.priceCents())).toArray(BigDecimal[]::new)));
+            ps.setArray(5, con.createArrayOf("timestamp",
+                    batch.stream().map(u -> Timestamp.from(u.acceptedAt())).toArray(Timestamp[]::new)));
+            return ps;
+        }, (rs, n) -> rs.getLong(1));
+    }
+
+    // Lo aplicado (o reemplazado por algo todavía pendiente) ya no hace falta en disco
+    private void releaseJournal() {
+        if (!journal.hasSegmentsToRelease()) {
+            return;
+        }
+        // Todo lo que está en el journal hasta appended ya pasó por offer(): o está en
+        // pending o ya se aplicó. Lo que se agregue durante el recorrido tiene seq mayor.
+        long appended = journal.lastSeq();
+        long lowWaterMark = appended + 1;
+        for (QueuedUpdate u : pending.values()) {
+            lowWaterMark = Math.min(lowWaterMark, u.seq());
+        }
+        journal.release(lowWaterMark);
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    long backoffNanos() {
+        return backoffNanos;
+    }
+
+    QueuedUpdate pending(long id) {
+        return pending.get(id);
+    }
+
+    UpdateJournal journal() {
+        return journal;
+    }
+
+    /** Frena el hilo y aplica lo que quede; lo que no se pueda aplicar sigue en el journal. */
+    @PreDestroy
+    void shutdown() throws IOException {
+        shutdown(Duration.ofSeconds(10));
+    }
+
+    void shutdown(Duration timeout) throws IOException {
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(timeout.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            // Sigue aplicando una tanda (base colgada): no se drena ni se cierra el journal. Lo
+            // pendiente queda en disco para el próximo arranque; si la tanda termina, el hilo
+            // libera solo lo aplicado.
+            log.warn("Write-behind flusher still busy after {}; {} queued product updates stay in the journal",
+                    timeout, depth.get());
+            return;
+        }
+        while (depth.get() > 0 && flush() > 0) {
+            // hasta vaciar la cola o que la base falle
+        }
+        journal.close();
+    }
+}
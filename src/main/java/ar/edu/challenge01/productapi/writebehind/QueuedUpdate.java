@@ -0,0 +1,29 @@
+package ar.edu.challenge01.productapi.writebehind;
+
+import ar.edu.challenge01.productapi.money.CentsDeserializer;
+import ar.edu.challenge01.productapi.money.CentsSerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.Instant;
+
+/**
+ * Un PUT aceptado con Prefer: respond-async, tal como queda en el journal.
+ * acceptedAt es el updated_at con el que se va a escribir; seq es la posición
+ * en el journal y desempata dos escrituras del mismo microsegundo.
+ * En el archivo el precio se escribe como decimal ("price": 999.90).
+ */
+public record QueuedUpdate(long seq, long id, String name, String description,
+                           @JsonProperty("price")
+                           @JsonSerialize(using = CentsSerializer.class)
+                           @JsonDeserialize(using = CentsDeserializer.class)
+                           long priceCents,
+                           Instant acceptedAt) {
+
+    /** Last-write-wins: gana el acceptedAt mayor. */
+    boolean newerThan(QueuedUpdate other) {
+        int byTime = acceptedAt.compareTo(other.acceptedAt);
+        return byTime != 0 ? byTime > 0 : seq > other.seq;
+    }
+}
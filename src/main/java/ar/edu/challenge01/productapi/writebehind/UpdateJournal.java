@@ -0,0 +1,301 @@
+package ar.edu.challenge01.productapi.writebehind;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Journal append-only de los updates aceptados: una línea JSON por update, en
+ * segmentos updates-&lt;primer seq&gt;.journal dentro de journal-dir.
+ *
+ * Durabilidad con group commit: cada append escribe su línea y espera el
+ * force() que la cubra. Mientras un hilo hace el fsync, los que llegan escriben
+ * y esperan; el siguiente fsync cubre a todos ellos. Con carga alta hay un
+ * fsync cada varios updates, no uno por update.
+ *
+ * Un segmento se borra cuando todos sus updates ya están en la base (o fueron
+ * reemplazados por uno más nuevo del mismo producto que sigue pendiente).
+ * Al arrancar se relee todo lo que quedó; una última línea cortada por un
+ * crash a mitad de escritura se descarta (ese update nunca se confirmó al cliente).
+ *
+ * Orden de locks: syncLock antes que writeLock.
+ */
+final class UpdateJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateJournal.class);
+
+    private static final String PREFIX = "updates-";
+    private static final String SUFFIX = ".journal";
+
+    private static final class Segment {
+        final Path path;
+        long lastSeq;
+        long bytes;
+
+        Segment(Path path, long lastSeq) {
+            this.path = path;
+            this.lastSeq = lastSeq;
+        }
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    // Protegidos por writeLock
+    private final Deque<Segment> closed = new ArrayDeque<>();
+    private Segment current;
+    private FileChannel channel;
+    private long lastSeq;
+
+    private volatile long synced;
+
+    UpdateJournal(Path dir, long segmentBytes, boolean fsync, ObjectMapper mapper) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        this.writer = mapper.writerFor(QueuedUpdate.class);
+        this.reader = mapper.readerFor(QueuedUpdate.class);
+    }
+
+    /**
+     * Relee los segmentos existentes y abre uno nuevo para escribir.
+     * Devuelve los updates encontrados, en orden de seq.
+     */
+    List<QueuedUpdate> open() {
+        List<QueuedUpdate> found = new ArrayList<>();
+        try {
+            Files.createDirectories(dir);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(dir)) {
+                files = list.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                                && p.getFileName().toString().endsWith(SUFFIX))
+                        .sorted()
+                        .toList();
+            }
+            for (Path file : files) {
+                long segmentLast = readSegment(file, found);
+                if (segmentLast == 0) {
+                    Files.delete(file);   // vacío: no hay nada que reaplicar
+                } else {
+                    closed.addLast(new Segment(file, segmentLast));
+                }
+            }
+            lastSeq = found.isEmpty() ? 0 : found.get(found.size() - 1).seq();
+            synced = lastSeq;
+            roll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open write-behind journal in " + dir, ex);
+        }
+        return found;
+    }
+
+    private long readSegment(Path file, List<QueuedUpdate> into) throws IOException {
+        long segmentLast = 0;
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNo = 0;
+            while ((line = in.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    QueuedUpdate u = reader.readValue(line);
+                    into.add(u);
+                    segmentLast = u.seq();
+                } catch (JsonProcessingException ex) {
+                    log.warn("Skipping unreadable line {} of {} ({})", lineNo, file.getFileName(), ex.getOriginalMessage());
+                }
+            }
+        }
+        return segmentLast;
+    }
+
+    /**
+     * Registra el update y vuelve cuando está en disco (si fsync está activo).
+     * El seq y el acceptedAt se asignan acá, así el orden del archivo y el de
+     * los timestamps coinciden. onAppended corre con el lock tomado: cuando
+     * lastSeq() devuelve N, todo update con seq &lt;= N ya pasó por onAppended.
+     */
+    QueuedUpdate append(long id, String name, String description, long priceCents,
+                        Consumer<QueuedUpdate> onAppended) {
+        QueuedUpdate u;
+        synchronized (writeLock) {
+            if (current.bytes < segmentBytes) {
+                u = write(id, name, description, priceCents);
+                onAppended.accept(u);
+            } else {
+                u = null;
+            }
+        }
+        if (u == null) {
+            synchronized (syncLock) {
+                synchronized (writeLock) {
+                    if (current.bytes >= segmentBytes) {
+                        rollUnchecked();
+                    }
+                    u = write(id, name, description, priceCents);
+                    onAppended.accept(u);
+                }
+            }
+        }
+        if (fsync) {
+            sync(u.seq());
+        }
+        return u;
+    }
+
+    // Con writeLock tomado
+    private QueuedUpdate write(long id, String name, String description, long priceCents) {
+        QueuedUpdate u = new QueuedUpdate(lastSeq + 1, id, name, description, priceCents,
+                Instant.now().truncatedTo(ChronoUnit.MICROS));
+        try {
+            byte[] json = writer.writeValueAsBytes(u);
+            ByteBuffer buf = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            current.bytes += buf.limit();
+        } catch (IOException ex) {
+            // Puede haber quedado media línea: lo próximo va a un segmento nuevo
+            current.bytes = Long.MAX_VALUE;
+            throw new UncheckedIOException("Cannot append to write-behind journal", ex);
+        }
+        lastSeq = u.seq();
+        current.lastSeq = u.seq();
+        return u;
+    }
+
+    private void sync(long seq) {
+        if (synced >= seq) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= seq) {
+                return;   // lo cubrió el fsync de otro hilo
+            }
+            long target;
+            FileChannel ch;
+            synchronized (writeLock) {
+                target = lastSeq;
+                ch = channel;
+            }
+            try {
+                ch.force(false);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot sync write-behind journal", ex);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * Borra los segmentos cuyos updates tienen todos seq &lt; lowWaterMark
+     * (el menor seq todavía pendiente, o Long.MAX_VALUE si no queda nada).
+     * Si eso incluye al segmento actual, se rota para poder borrarlo.
+     */
+    void release(long lowWaterMark) {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (current.lastSeq != 0 && current.lastSeq < lowWaterMark) {
+                    rollUnchecked();
+                }
+                while (!closed.isEmpty() && closed.peekFirst().lastSeq < lowWaterMark) {
+                    Segment s = closed.removeFirst();
+                    try {
+                        Files.deleteIfExists(s.path);
+                    } catch (IOException ex) {
+                        log.warn("Cannot delete journal segment {}", s.path, ex);
+                    }
+                }
+            }
+        }
+    }
+
+    long lastSeq() {
+        synchronized (writeLock) {
+            return lastSeq;
+        }
+    }
+
+    boolean hasSegmentsToRelease() {
+        synchronized (writeLock) {
+            return !closed.isEmpty() || current.lastSeq != 0;
+        }
+    }
+
+    int segmentCount() {
+        synchronized (writeLock) {
+            return closed.size() + 1;
+        }
+    }
+
+    // Con syncLock y writeLock tomados (o durante open)
+    private void roll() throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+            synced = lastSeq;
+            if (current.lastSeq == 0) {
+                Files.deleteIfExists(current.path);   // vacío (el nuevo puede llevar el mismo nombre)
+            } else {
+                closed.addLast(current);
+            }
+        }
+        Path path = dir.resolve(PREFIX + String.format("%020d", lastSeq + 1) + SUFFIX);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        current = new Segment(path, 0);
+    }
+
+    private void rollUnchecked() {
+        try {
+            roll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot roll write-behind journal", ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (writeLock) {
+                if (channel != null) {
+                    channel.force(false);
+                    channel.close();
+                    if (current.lastSeq == 0) {
+                        Files.deleteIfExists(current.path);
+                    }
+                }
+            }
+        }
+    }
+}
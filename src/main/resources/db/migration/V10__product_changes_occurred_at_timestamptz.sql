@@ -0,0 +1,8 @@
+-- V10__product_changes_occurred_at_timestamptz.sql
+-- occurred_at sin zona guardaba la hora local de la sesión que insertó, y el
+-- lector la interpretaba con la zona de la JVM: con zonas distintas gap-wait
+-- esperaba de más o de menos. Con timestamptz es un instante absoluto.
+-- Las filas existentes se convierten con la zona de la sesión de la migración.
+ALTER TABLE product_changes
+  ALTER COLUMN occurred_at TYPE TIMESTAMPTZ,
+  ALTER COLUMN occurred_at SET DEFAULT clock_timestamp();
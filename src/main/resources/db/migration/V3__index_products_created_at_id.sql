@@ -0,0 +1,5 @@
+-- V3__index_products_created_at_id.sql
+-- Soporta la paginación por keyset de GET /products: el seek sobre
+-- (created_at, id) y el ORDER BY se resuelven con un único index scan.
+CREATE INDEX IF NOT EXISTS ix_products_created_at_id
+  ON products (created_at DESC, id DESC);
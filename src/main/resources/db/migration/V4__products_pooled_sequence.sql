@@ -0,0 +1,9 @@
+-- V4__products_pooled_sequence.sql
+-- Product.id pasa de IDENTITY a un generador 'pooled' (allocationSize = 50):
+-- Hibernate reserva 50 ids por cada nextval y puede agrupar los INSERT en
+-- batches JDBC. El incremento de la secuencia debe coincidir con allocationSize.
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+
+-- El próximo nextval devuelve MAX(id) + 50, así el primer bloque reservado
+-- (MAX(id) + 1 .. MAX(id) + 50) nunca pisa ids existentes.
+SELECT setval('products_id_seq', (SELECT COALESCE(MAX(id), 0) FROM products) + 50, false);
@@ -0,0 +1,10 @@
+-- V5__products_updated_at.sql
+-- Product mapea updated_at (base de ETag / Last-Modified) pero V1 no la crea.
+-- IF NOT EXISTS: en bases que ya la tienen esta migración no cambia nada.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+
+UPDATE products SET updated_at = created_at WHERE updated_at IS NULL;
+
+ALTER TABLE products
+  ALTER COLUMN updated_at SET DEFAULT CURRENT_TIMESTAMP,
+  ALTER COLUMN updated_at SET NOT NULL;
@@ -0,0 +1,4 @@
+-- V6__products_version.sql
+-- Control de concurrencia optimista (@Version en Product): cada UPDATE
+-- incrementa la versión y falla si otra transacción la cambió antes.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
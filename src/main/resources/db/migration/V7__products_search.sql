@@ -0,0 +1,20 @@
+-- V7__products_search.sql
+-- Búsqueda de texto completo para GET /products/search.
+-- search_vector es una columna generada: Postgres la mantiene en cada INSERT/UPDATE,
+-- la aplicación no la escribe ni la mapea. El nombre pesa más que la descripción.
+ALTER TABLE products
+  ADD COLUMN IF NOT EXISTS search_vector tsvector
+  GENERATED ALWAYS AS (
+    setweight(to_tsvector('spanish', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('spanish', coalesce(description, '')), 'B')
+  ) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_products_search_vector
+  ON products USING GIN (search_vector);
+
+-- Fallback por trigramas para prefijos y errores de tipeo sobre el nombre
+-- (operador <% / word_similarity, resuelto por este índice).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_products_name_trgm
+  ON products USING GIN (name gin_trgm_ops);
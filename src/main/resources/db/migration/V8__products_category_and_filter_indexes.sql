@@ -0,0 +1,21 @@
+-- V8__products_category_and_filter_indexes.sql
+-- Relaciona products con categories (V2) y agrega los índices compuestos que usa
+-- GET /products/filter. Cada clave de orden permitida termina en id para que el
+-- keyset (valor, id) se resuelva con un solo index scan, con o sin categoría.
+ALTER TABLE products
+  ADD COLUMN IF NOT EXISTS category_id BIGINT REFERENCES categories (id) ON DELETE SET NULL;
+
+-- Filtro por categoría + orden por fecha de alta / precio
+CREATE INDEX IF NOT EXISTS ix_products_category_created_at
+  ON products (category_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_products_category_price
+  ON products (category_id, price, id);
+
+-- Rango / orden de precio y de última modificación sin categoría
+-- (created_at ya está cubierto por ix_products_created_at_id, V3)
+CREATE INDEX IF NOT EXISTS ix_products_price_id
+  ON products (price, id);
+
+CREATE INDEX IF NOT EXISTS ix_products_updated_at_id
+  ON products (updated_at DESC, id DESC);
@@ -0,0 +1,16 @@
+-- V9__product_changes_outbox.sql
+-- Outbox de cambios de productos: una fila por alta/modificación/baja, escrita en
+-- la misma transacción que el cambio. GET /products/changes la publica por SSE
+-- usando seq como posición reanudable (Last-Event-ID / ?since=).
+CREATE TABLE IF NOT EXISTS product_changes (
+  seq          BIGSERIAL PRIMARY KEY,
+  product_id   BIGINT NOT NULL,
+  type         VARCHAR(16) NOT NULL CHECK (type IN ('CREATED', 'UPDATED', 'DELETED')),
+  -- clock_timestamp(): momento del INSERT (no el inicio de la transacción);
+  -- el lector lo usa para decidir cuánto esperar un seq que todavía no es visible
+  occurred_at  TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+-- Limpieza por antigüedad (ver app.product-changes.retention)
+CREATE INDEX IF NOT EXISTS ix_product_changes_occurred_at
+  ON product_changes (occurred_at);
@@ -0,0 +1,113 @@
+package ar.edu.challenge01.productapi.cache;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductCacheTest {
+
+  private final ProductCache cache = new ProductCache(true, 100, Duration.ofMinutes(1));
+
+  private static ProductResponse product(String name) {
+    return new ProductResponse(1L, name, "desc", 1000, Instant.now(), Instant.now());
+  }
+
+  @Test
+  void get_segundaLecturaEsHit() {
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(1L, id -> { loads.incrementAndGet(); return product("A"); });
+    cache.get(1L, id -> { loads.incrementAndGet(); return product("A"); });
+
+    assertThat(loads).hasValue(1);
+    assertThat(cache.stats().hits()).isEqualTo(1);
+    assertThat(cache.stats().misses()).isEqualTo(1);
+  }
+
+  @Test
+  void invalidacionDuranteLaCarga_noDejaElValorViejoEnCache() throws Exception {
+    CountDownLatch loaderReadOldValue = new CountDownLatch(1);
+    CountDownLatch releaseLoader = new CountDownLatch(1);
+
+    // lector lento: "lee" el valor viejo y se queda esperando antes de devolverlo
+    CompletableFuture<ProductResponse> reader = CompletableFuture.supplyAsync(() ->
+        cache.get(1L, id -> {
+          loaderReadOldValue.countDown();
+          await(releaseLoader);
+          return product("viejo");
+        }));
+    assertThat(loaderReadOldValue.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // la escritura confirma y dispara la invalidación mientras la carga sigue en curso
+    CompletableFuture<Void> writer = CompletableFuture.runAsync(() ->
+        cache.onProductChanged(ProductChangedEvent.updated(1L)));
+    releaseLoader.countDown();
+    writer.get(5, TimeUnit.SECONDS);
+    reader.get(5, TimeUnit.SECONDS);
+
+    ProductResponse after = cache.get(1L, id -> product("nuevo"));
+    assertThat(after.name()).isEqualTo("nuevo");
+  }
+
+  @Test
+  void conReplicas_loLeidoDespuesDeUnaEscrituraNoSeGuarda() {
+    ProductCache withReplicas = new ProductCache(true, 100, Duration.ofMinutes(10), 100, Duration.ofMinutes(1),
+        Duration.ofMinutes(1));
+    AtomicInteger loads = new AtomicInteger();
+    withReplicas.get(1L, id -> { loads.incrementAndGet(); return product("viejo"); });
+
+    withReplicas.onProductChanged(ProductChangedEvent.updated(1L));
+
+    // Una réplica atrasada todavía devuelve el valor viejo: se sirve pero no queda en la cache
+    assertThat(withReplicas.get(1L, id -> { loads.incrementAndGet(); return product("viejo"); }).name())
+        .isEqualTo("viejo");
+    assertThat(withReplicas.get(1L, id -> { loads.incrementAndGet(); return product("nuevo"); }).name())
+        .isEqualTo("nuevo");
+    assertThat(loads).hasValue(3);
+  }
+
+  @Test
+  void idInexistente_seCacheaHastaQueSeCreaElProducto() {
+    ProductCache withNegative = new ProductCache(true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+    AtomicInteger loads = new AtomicInteger();
+
+    assertThat(withNegative.get(1L, id -> { loads.incrementAndGet(); return null; })).isNull();
+    assertThat(withNegative.get(1L, id -> { loads.incrementAndGet(); return null; })).isNull();
+    assertThat(loads).hasValue(1);
+    assertThat(withNegative.stats().negativeHits()).isEqualTo(1);
+
+    withNegative.onProductChanged(ProductChangedEvent.created(1L));
+
+    assertThat(withNegative.get(1L, id -> product("nuevo")).name()).isEqualTo("nuevo");
+  }
+
+  @Test
+  void altaDuranteLaCarga_noRegistraElMiss() {
+    ProductCache withNegative = new ProductCache(true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+    // el loader no encuentra el id y, antes de devolver, confirma el alta
+    assertThat(withNegative.get(7L, id -> {
+      withNegative.onProductChanged(ProductChangedEvent.created(99L));
+      return null;
+    })).isNull();
+
+    assertThat(withNegative.stats().negativeSize()).isZero();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
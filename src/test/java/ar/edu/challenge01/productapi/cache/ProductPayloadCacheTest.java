@@ -0,0 +1,62 @@
+package ar.edu.challenge01.productapi.cache;
+
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductPayloadCacheTest {
+
+  private final ProductPayloadCache payloads = new ProductPayloadCache(new ObjectMapper(), true,
+      DataSize.ofMegabytes(1), Duration.ofMinutes(1), DataSize.ofBytes(100), Duration.ZERO);
+
+  @Test
+  void put_guardaJsonYGzipEquivalentes() throws IOException {
+    EncodedPayload p = payloads.put("k", "\"e\"", List.of("a".repeat(500)));
+
+    assertThat(p.gzip()).isNotNull();
+    assertThat(p.gzip().length).isLessThan(p.json().length);
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(p.gzip()))) {
+      assertThat(in.readAllBytes()).isEqualTo(p.json());
+    }
+    assertThat(payloads.get("k")).isSameAs(p);
+  }
+
+  @Test
+  void put_cuerpoChico_noSeComprime() {
+    assertThat(payloads.put("k", "\"e\"", List.of("a")).gzip()).isNull();
+  }
+
+  @Test
+  void escrituraConfirmada_cambiaLaClaveDeLasPaginas() {
+    String before = payloads.pageKey(20, null);
+    payloads.put(before, "\"e\"", List.of());
+
+    payloads.onProductChanged(ProductChangedEvent.updated(1L));
+
+    assertThat(payloads.pageKey(20, null)).isNotEqualTo(before);
+    assertThat(payloads.get(before)).isNull();
+  }
+
+  @Test
+  void conReplicas_noGuardaHastaQueLaEscrituraLlegueALasReplicas() {
+    ProductPayloadCache withReplicas = new ProductPayloadCache(new ObjectMapper(), true,
+        DataSize.ofMegabytes(1), Duration.ofMinutes(1), DataSize.ofBytes(100), Duration.ofMinutes(1));
+    withReplicas.put("antes", "\"e\"", List.of());
+    assertThat(withReplicas.get("antes")).isNotNull();
+
+    withReplicas.onProductChanged(ProductChangedEvent.updated(1L));
+    withReplicas.put("despues", "\"e\"", List.of());
+
+    // Lo leído recién puede venir de una réplica que no aplicó la escritura
+    assertThat(withReplicas.get("despues")).isNull();
+  }
+}
@@ -0,0 +1,49 @@
+package ar.edu.challenge01.productapi.changefeed;
+
+import ar.edu.challenge01.productapi.event.ProductChangedEvent.Type;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductChangeFeedTest {
+
+  private static final Instant NOW = Instant.parse("2025-11-18T18:30:00Z");
+  private static final Instant GAP_DEADLINE = NOW.minusSeconds(10);
+
+  private static ProductChange change(long seq, Instant at) {
+    return new ProductChange(seq, Type.UPDATED, 100 + seq, at);
+  }
+
+  @Test
+  void untilGap_sinHuecos_devuelveTodo() {
+    var rows = List.of(change(6, NOW), change(7, NOW), change(8, NOW));
+
+    assertThat(ProductChangeFeed.untilGap(5, rows, GAP_DEADLINE)).isEqualTo(rows);
+  }
+
+  @Test
+  void untilGap_huecoReciente_cortaAntesDelHueco() {
+    // seq 7 todavía no confirmado: 8 no se entrega hasta que 7 aparezca o venza gap-wait
+    var rows = List.of(change(6, NOW), change(8, NOW), change(9, NOW));
+
+    assertThat(ProductChangeFeed.untilGap(5, rows, GAP_DEADLINE)).extracting(ProductChange::seq).containsExactly(6L);
+  }
+
+  @Test
+  void untilGap_huecoViejo_seConsideraRollbackYSeSaltea() {
+    var old = NOW.minusSeconds(60);
+    var rows = List.of(change(6, old), change(8, old), change(9, NOW));
+
+    assertThat(ProductChangeFeed.untilGap(5, rows, GAP_DEADLINE)).extracting(ProductChange::seq).containsExactly(6L, 8L, 9L);
+  }
+
+  @Test
+  void untilGap_primerSeqFaltante_reciente_noEntregaNada() {
+    var rows = List.of(change(7, NOW));
+
+    assertThat(ProductChangeFeed.untilGap(5, rows, GAP_DEADLINE)).isEmpty();
+  }
+}
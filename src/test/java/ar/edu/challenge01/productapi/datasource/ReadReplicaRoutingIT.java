@@ -0,0 +1,103 @@
+package ar.edu.challenge01.productapi.datasource;
+
+import ar.edu.challenge01.productapi.ProductApiApplication;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Primario y réplica son dos bases del mismo contenedor, migradas por separado
+ * y con el mismo producto bajo nombres distintos: el nombre que devuelve la API
+ * dice de qué base salió. Las consultas de WAL se reemplazan por constantes
+ * (réplica siempre al día) para que el ruteo dependa solo del request.
+ */
+@Testcontainers
+@SpringBootTest(classes = ProductApiApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReadReplicaRoutingIT {
+
+  private static final long ID = 1;
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+      .withDatabaseName("productdb")
+      .withUsername("postgres")
+      .withPassword("postgres");
+
+  @DynamicPropertySource
+  static void dbProps(DynamicPropertyRegistry r) {
+    r.add("spring.datasource.url", postgres::getJdbcUrl);
+    r.add("spring.datasource.username", postgres::getUsername);
+    r.add("spring.datasource.password", postgres::getPassword);
+    r.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    r.add("spring.flyway.enabled", () -> "true");
+    r.add("app.datasource.replicas.urls", () -> replicaUrl());
+    r.add("app.datasource.replicas.primary-lsn-query", () -> "SELECT 100");
+    r.add("app.datasource.replicas.replica-status-query", () -> "SELECT 100, TRUE");
+  }
+
+  @BeforeAll
+  static void seed() {
+    new JdbcTemplate(dataSource(postgres.getJdbcUrl())).execute("CREATE DATABASE replicadb");
+    insertProduct(postgres.getJdbcUrl(), "En el primario");
+    insertProduct(replicaUrl(), "En la réplica");
+  }
+
+  @LocalServerPort int port;
+  @Autowired TestRestTemplate http;
+  @Autowired ReadReplicas readReplicas;
+
+  String base() { return "http://localhost:" + port; }
+
+  @Test
+  void getPorIdSeAtiendeEnLaReplica() {
+    readReplicas.check();
+
+    var resp = http.getForEntity(URI.create(base() + "/products/" + ID), Map.class);
+
+    assertThat(resp.getStatusCode().value()).isEqualTo(200);
+    assertThat(resp.getBody()).containsEntry("name", "En la réplica");
+  }
+
+  @Test
+  void listadoPaginadoSeAtiendeEnLaReplica() {
+    readReplicas.check();
+
+    var resp = http.getForEntity(URI.create(base() + "/products?limit=10"), Map.class);
+
+    assertThat(resp.getStatusCode().value()).isEqualTo(200);
+    assertThat((List<?>) resp.getBody().get("items"))
+        .extracting(i -> ((Map<?, ?>) i).get("name"))
+        .containsExactly("En la réplica");
+  }
+
+  private static void insertProduct(String url, String name) {
+    Flyway.configure().dataSource(url, postgres.getUsername(), postgres.getPassword()).load().migrate();
+    new JdbcTemplate(dataSource(url)).update(
+        "INSERT INTO products (id, name, description, price) VALUES (?, ?, 'Ruteo', 10)", ID, name);
+  }
+
+  private static String replicaUrl() {
+    return postgres.getJdbcUrl().replace("/productdb", "/replicadb");
+  }
+
+  private static DriverManagerDataSource dataSource(String url) {
+    return new DriverManagerDataSource(url, postgres.getUsername(), postgres.getPassword());
+  }
+}
@@ -0,0 +1,247 @@
+package ar.edu.challenge01.productapi.datasource;
+
+import ar.edu.challenge01.productapi.config.DbBulkhead;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Primario y réplica son dos bases H2 distintas; cada una sabe su nombre
+ * (tabla node), así se ve a dónde fue cada lectura. Las funciones de WAL de
+ * PostgreSQL (primary-lsn-query y replica-status-query de application.yml) se
+ * reemplazan por tablas: wal en el primario (pg_current_wal_lsn) y
+ * replica_status en la réplica (pg_last_wal_replay_lsn y pg_stat_wal_receiver).
+ */
+class ReadReplicaRoutingTest {
+
+  private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+  private DataSource primary;
+  private JdbcTemplate primaryAdmin;
+  private JdbcTemplate replicaAdmin;
+  private ReadReplicas replicas;
+  private JdbcTemplate jdbc;
+  private TransactionTemplate readTx;
+  private TransactionTemplate writeTx;
+
+  @BeforeEach
+  void setUp() {
+    primary = h2("primary");
+    DataSource replica = h2("replica-1");
+    primaryAdmin = new JdbcTemplate(primary);
+    primaryAdmin.execute("CREATE TABLE wal (lsn BIGINT)");
+    primaryAdmin.update("INSERT INTO wal VALUES (100)");
+    replicaAdmin = new JdbcTemplate(replica);
+    replicaAdmin.execute("CREATE TABLE replica_status (replayed_lsn BIGINT, streaming BOOLEAN)");
+    replicaAdmin.update("INSERT INTO replica_status VALUES (100, TRUE)");
+
+    replicas = new ReadReplicas(primary, List.of(new ReadReplicas.Replica("replica-1", replica)),
+        "SELECT lsn FROM wal", "SELECT replayed_lsn, streaming FROM replica_status",
+        MAX_LAG, Duration.ofSeconds(2), Duration.ofSeconds(1));
+    DataSource routing = new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replicas));
+
+    jdbc = new JdbcTemplate(routing);
+    DataSourceTransactionManager tm = new DataSourceTransactionManager(routing);
+    readTx = new TransactionTemplate(tm);
+    readTx.setReadOnly(true);
+    writeTx = new TransactionTemplate(tm);
+  }
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  @Test
+  void hastaElPrimerChequeoTodoVaAlPrimario() {
+    assertThat(readNode()).isEqualTo("primary");
+  }
+
+  @Test
+  void soloLasTransaccionesReadOnlyVanALaReplica() {
+    replicas.check(0);
+
+    assertThat(readNode()).isEqualTo("replica-1");
+    assertThat(writeTx.execute(s -> node())).isEqualTo("primary");
+    assertThat(node()).isEqualTo("primary");   // fuera de transacción
+  }
+
+  @Test
+  void replicaAtrasadaMasDeMaxLag_saleDeLaRotacion() {
+    replicas.check(0);
+
+    primaryAdmin.update("UPDATE wal SET lsn = 200");
+    replicas.check(3_000);
+    assertThat(replicas.replicas().get(0).lagMillis()).isEqualTo(3_000);
+    assertThat(readNode()).isEqualTo("replica-1");
+
+    primaryAdmin.update("UPDATE wal SET lsn = 300");
+    replicas.check(6_000);
+    assertThat(readNode()).isEqualTo("primary");
+
+    replicaAdmin.update("UPDATE replica_status SET replayed_lsn = 300");
+    replicas.check(8_000);
+    assertThat(replicas.replicas().get(0).lagMillis()).isZero();
+    assertThat(readNode()).isEqualTo("replica-1");
+  }
+
+  @Test
+  void receptorDeWalSinStreaming_saleDeLaRotacionAunqueNoTengaNadaPendiente() {
+    replicas.check(0);
+    assertThat(readNode()).isEqualTo("replica-1");
+
+    // Desconectada: aplicó todo lo que recibió, pero no recibe más
+    replicaAdmin.update("UPDATE replica_status SET streaming = FALSE");
+    replicas.check(1_000);
+
+    assertThat(readNode()).isEqualTo("primary");
+  }
+
+  @Test
+  void alArrancarAtrasada_quedaAfueraHastaAlcanzarUnaPosicionConocida() {
+    replicaAdmin.update("UPDATE replica_status SET replayed_lsn = 50");
+    replicas.check(0);
+
+    assertThat(replicas.replicas().get(0).lagMillis()).isEqualTo(-1);
+    assertThat(readNode()).isEqualTo("primary");
+  }
+
+  @Test
+  void replicaCaida_saleDeLaRotacion() {
+    replicas.check(0);
+
+    replicaAdmin.execute("DROP TABLE replica_status");
+    replicas.check(1_000);
+
+    assertThat(readNode()).isEqualTo("primary");
+    assertThat(replicas.replicas().get(0).lagMillis()).isEqualTo(-1);
+  }
+
+  @Test
+  void conElTokenDeSuEscrituraElClienteNoLeeDeUnaReplicaQueNoAplicoEseLsn() {
+    replicas.check(0);
+
+    MockHttpServletResponse writeResponse = bind(new MockHttpServletRequest("PUT", "/products/1"));
+    writeTx.executeWithoutResult(s -> jdbc.update("UPDATE wal SET lsn = 150"));
+    String token = writeResponse.getHeader(ReadYourWrites.HEADER);
+    assertThat(token).isEqualTo("150");
+
+    // La réplica sigue sana (dentro de max-lag) pero no llegó al LSN del token
+    replicas.check(1_000);
+    bind(readWithToken(token));
+    assertThat(readNode()).isEqualTo("primary");
+
+    replicaAdmin.update("UPDATE replica_status SET replayed_lsn = 150");
+    replicas.check(2_000);
+    bind(readWithToken(token));
+    assertThat(readNode()).isEqualTo("replica-1");
+  }
+
+  @Test
+  void lasLecturasDeUnRequestQueEscribeVanAlPrimario() {
+    replicas.check(0);
+    bind(new MockHttpServletRequest("PUT", "/products/1"));
+
+    assertThat(readNode()).isEqualTo("primary");
+  }
+
+  @Test
+  void dentroDeUnRequest_lasLecturasNoRetroceden() {
+    replicas.check(0);
+    bind(new MockHttpServletRequest("GET", "/products"));
+    replicaAdmin.update("UPDATE replica_status SET streaming = FALSE");
+    replicas.check(1_000);
+
+    // Primera lectura en el primario: las siguientes del mismo request no van a una réplica
+    assertThat(readNode()).isEqualTo("primary");
+    replicaAdmin.update("UPDATE replica_status SET streaming = TRUE");
+    replicas.check(2_000);
+    assertThat(readNode()).isEqualTo("primary");
+
+    bind(new MockHttpServletRequest("GET", "/products"));
+    assertThat(readNode()).isEqualTo("replica-1");
+  }
+
+  @Test
+  void lasLecturasNoEmitenToken() {
+    replicas.check(0);
+    MockHttpServletResponse response = bind(new MockHttpServletRequest("GET", "/products/1"));
+
+    readNode();
+
+    assertThat(response.getHeader(ReadYourWrites.HEADER)).isNull();
+  }
+
+  @Test
+  void cadaDestinoTieneSuPropioBulkhead() {
+    replicas.check(0);
+    DbBulkhead bulkhead = new DbBulkhead(true, 1, Duration.ofMillis(50));
+    DataSource routing = new LazyConnectionDataSourceProxy(
+        new ReadReplicaRoutingDataSource(primary, replicas, ds -> bulkhead.wrap(ds, 1)));
+    JdbcTemplate guarded = new JdbcTemplate(routing);
+    DataSourceTransactionManager tm = new DataSourceTransactionManager(routing);
+    TransactionTemplate read = new TransactionTemplate(tm);
+    read.setReadOnly(true);
+    TransactionTemplate otherRead = new TransactionTemplate(tm);
+    otherRead.setReadOnly(true);
+    otherRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    TransactionTemplate write = new TransactionTemplate(tm);
+    write.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    read.executeWithoutResult(s -> {
+      // La lectura ocupa el único permiso de la réplica hasta terminar la transacción
+      assertThat(guarded.queryForObject("SELECT name FROM node", String.class)).isEqualTo("replica-1");
+
+      assertThat(write.execute(w -> guarded.queryForObject("SELECT name FROM node", String.class)))
+          .isEqualTo("primary");
+      assertThatThrownBy(() -> otherRead.execute(r -> guarded.queryForObject("SELECT name FROM node", String.class)))
+          .hasRootCauseInstanceOf(DbBulkhead.SaturatedException.class);
+    });
+  }
+
+  private String readNode() {
+    return readTx.execute(s -> node());
+  }
+
+  private String node() {
+    return jdbc.queryForObject("SELECT name FROM node", String.class);
+  }
+
+  private static MockHttpServletResponse bind(MockHttpServletRequest request) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    return response;
+  }
+
+  private static MockHttpServletRequest readWithToken(String token) {
+    MockHttpServletRequest read = new MockHttpServletRequest("GET", "/products/1");
+    read.addHeader(ReadYourWrites.HEADER, token);
+    return read;
+  }
+
+  private static DataSource h2(String name) {
+    JdbcDataSource ds = new JdbcDataSource();
+    ds.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbc = new JdbcTemplate(ds);
+    jdbc.execute("CREATE TABLE node (name VARCHAR(32))");
+    jdbc.update("INSERT INTO node VALUES (?)", name);
+    return ds;
+  }
+}
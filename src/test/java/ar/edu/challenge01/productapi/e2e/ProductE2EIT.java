@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -14,6 +16,11 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -71,5 +78,122 @@ class ProductE2EIT {
     assertThat(postResp.getStatusCode().value()).isEqualTo(400);
     assertThat(postResp.getBody()).containsEntry("error", "BAD_REQUEST");
   }
-}
 
+  @Test
+  void search_textoCompleto_yFallbackPorTrigramas() {
+    http.postForEntity(URI.create(base()+"/products"),
+        Map.of("name", "Auriculares inalámbricos", "description", "Cancelación de ruido", "price", new BigDecimal("99.90")),
+        Map.class);
+    http.postForEntity(URI.create(base()+"/products"),
+        Map.of("name", "Parlante", "description", "Bluetooth, resistente al agua", "price", new BigDecimal("45.00")),
+        Map.class);
+
+    // Texto completo con stemming: "auricular" encuentra "Auriculares"
+    var full = http.getForEntity(URI.create(base()+"/products/search?q=auricular"), Map.class);
+    assertThat(full.getStatusCode().value()).isEqualTo(200);
+    assertThat(full.getHeaders().getFirst("X-Search-Mode")).isEqualTo("fulltext");
+    var fullItems = (List<?>) full.getBody().get("items");
+    assertThat(fullItems).hasSize(1);
+    assertThat((Map<?,?>) fullItems.get(0)).containsEntry("name", "Auriculares inalámbricos");
+
+    // Prefijo con typo: no matchea por texto completo, sí por trigramas
+    var fuzzy = http.getForEntity(URI.create(base()+"/products/search?q=parlnte"), Map.class);
+    assertThat(fuzzy.getStatusCode().value()).isEqualTo(200);
+    assertThat(fuzzy.getHeaders().getFirst("X-Search-Mode")).isEqualTo("fuzzy");
+    assertThat((List<?>) fuzzy.getBody().get("items"))
+        .anySatisfy(item -> assertThat((Map<?,?>) item).containsEntry("name", "Parlante"));
+
+    var blank = http.getForEntity(URI.create(base()+"/products/search?q=%20"), Map.class);
+    assertThat(blank.getStatusCode().value()).isEqualTo(400);
+  }
+
+  @Test
+  void filter_porRangoDePrecioYCategoria_ordenaYPagina() {
+    for (var price : List.of("10.00", "20.00", "30.00", "40.00")) {
+      http.postForEntity(URI.create(base()+"/products"),
+          Map.of("name", "Filtro " + price, "description", "Producto de filtro", "price", new BigDecimal(price)),
+          Map.class);
+    }
+
+    var first = http.getForEntity(
+        URI.create(base()+"/products/filter?minPrice=15&maxPrice=40&sort=price&limit=2"), Map.class);
+    assertThat(first.getStatusCode().value()).isEqualTo(200);
+    var items = (List<?>) first.getBody().get("items");
+    assertThat(items).extracting(i -> ((Map<?,?>) i).get("name")).containsExactly("Filtro 20.00", "Filtro 30.00");
+    var next = (String) first.getBody().get("nextCursor");
+    assertThat(next).isNotNull();
+
+    var second = http.getForEntity(
+        URI.create(base()+"/products/filter?minPrice=15&maxPrice=40&sort=price&limit=2&cursor=" + next), Map.class);
+    assertThat((List<?>) second.getBody().get("items"))
+        .extracting(i -> ((Map<?,?>) i).get("name")).containsExactly("Filtro 40.00");
+    assertThat(second.getBody().get("nextCursor")).isNull();
+
+    // V2 carga 'Periféricos'; ningún producto de este test está asignado
+    var byCategory = http.getForEntity(
+        URI.create(base()+"/products/filter?category=Perif%C3%A9ricos"), Map.class);
+    assertThat((List<?>) byCategory.getBody().get("items")).isEmpty();
+
+    var badSort = http.getForEntity(URI.create(base()+"/products/filter?sort=name"), Map.class);
+    assertThat(badSort.getStatusCode().value()).isEqualTo(400);
+  }
+
+  @Test
+  void upsertPorSku_esIdempotenteYAdmiteLotes() {
+    var body = Map.of("name", "Monitor ERP", "description", "Sincronizado", "price", new BigDecimal("300.00"));
+
+    var created = http.exchange(URI.create(base()+"/products/by-sku/ERP-001"), HttpMethod.PUT,
+        new HttpEntity<>(body), Map.class);
+    assertThat(created.getStatusCode().value()).isEqualTo(201);
+    var id = ((Number) created.getBody().get("id")).longValue();
+    var etag = created.getHeaders().getETag();
+
+    // mismo contenido: 200 y la fila no se toca (mismo ETag)
+    var again = http.exchange(URI.create(base()+"/products/by-sku/ERP-001"), HttpMethod.PUT,
+        new HttpEntity<>(body), Map.class);
+    assertThat(again.getStatusCode().value()).isEqualTo(200);
+    assertThat(again.getHeaders().getETag()).isEqualTo(etag);
+
+    var batch = List.of(
+        Map.of("sku", "ERP-001", "name", "Monitor ERP", "description", "Sincronizado", "price", new BigDecimal("310.00")),
+        Map.of("sku", "ERP-002", "name", "Parlante ERP", "description", "Sincronizado", "price", new BigDecimal("50.00")),
+        Map.of("sku", "ERP-002", "name", "Parlante ERP", "description", "Repetido", "price", new BigDecimal("50.00")));
+    var result = http.exchange(URI.create(base()+"/products/by-sku"), HttpMethod.PUT,
+        new HttpEntity<>(batch), Map.class);
+    assertThat(result.getStatusCode().value()).isEqualTo(200);
+    assertThat(result.getBody()).containsEntry("created", 1).containsEntry("updated", 1).containsEntry("failed", 1);
+
+    var bySku = http.getForEntity(URI.create(base()+"/products/by-sku/ERP-001"), Map.class);
+    assertThat(bySku.getStatusCode().value()).isEqualTo(200);
+    assertThat(((Number) bySku.getBody().get("id")).longValue()).isEqualTo(id);
+    assertThat(bySku.getBody().get("price")).isEqualTo(310.0);
+
+    var missing = http.getForEntity(URI.create(base()+"/products/by-sku/NO-EXISTE"), Map.class);
+    assertThat(missing.getStatusCode().value()).isEqualTo(404);
+  }
+
+  @Test
+  void changes_sse_publicaAltaYBajaDesdeElOutbox() throws Exception {
+    var postResp = http.postForEntity(URI.create(base()+"/products"),
+        Map.of("name", "Cambio", "description", "Producto del feed", "price", new BigDecimal("5.00")),
+        Map.class);
+    var id = ((Number)((Map<?,?>)postResp.getBody()).get("id")).longValue();
+    http.delete(URI.create(base()+"/products/"+id));
+
+    var request = HttpRequest.newBuilder(URI.create(base()+"/products/changes?since=0"))
+        .header("Accept", "text/event-stream")
+        .timeout(Duration.ofSeconds(10))
+        .build();
+    var response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofLines());
+    assertThat(response.statusCode()).isEqualTo(200);
+
+    String data;
+    try (var lines = response.body()) {
+      data = lines.filter(l -> l.startsWith("data:")).findFirst().orElseThrow();
+    }
+    assertThat(data)
+        .contains("\"productId\":" + id + ",")
+        .contains("\"type\":\"CREATED\"")
+        .contains("\"type\":\"DELETED\"");
+  }
+}
@@ -0,0 +1,140 @@
+package ar.edu.challenge01.productapi.index;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.index.ProductIndexSnapshot.Row;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductIndexSnapshotTest {
+
+  private static Row row(long id, long cents, long createdMicros) {
+    return new Row(id, cents, createdMicros, createdMicros, 0, "Producto " + id, "desc");
+  }
+
+  private static List<Long> ids(List<ProductResponse> rows) {
+    return rows.stream().map(ProductResponse::id).toList();
+  }
+
+  @Test
+  void find_porId() {
+    var snap = ProductIndexSnapshot.of(List.of(row(3, 1050, 10), row(1, 200, 20)));
+
+    assertThat(snap.find(3).priceCents()).isEqualTo(1050);
+    assertThat(snap.find(3).createdAt()).isEqualTo(ProductIndexSnapshot.toInstant(10));
+    assertThat(snap.find(2)).isNull();
+  }
+
+  @Test
+  void newest_paginaPorCursorConEmpates() {
+    // ids 2 y 3 comparten createdAt: desempata el id descendente
+    var snap = ProductIndexSnapshot.of(List.of(row(1, 100, 10), row(2, 100, 30), row(3, 100, 30), row(4, 100, 20)));
+
+    var first = snap.newest(false, 0, 0, 2);
+    assertThat(ids(first)).containsExactly(3L, 2L);
+
+    var second = snap.newest(true, 30, 2, 2);
+    assertThat(ids(second)).containsExactly(4L, 1L);
+  }
+
+  @Test
+  void priceRange_limitesInclusivosYCursor() {
+    var snap = ProductIndexSnapshot.of(List.of(
+        row(1, 1000, 1), row(2, 2000, 2), row(3, 2000, 3), row(4, 3000, 4), row(5, 4000, 5)));
+
+    assertThat(ids(snap.priceRange(2000, 3000, false, 0, 0, 10))).containsExactly(2L, 3L, 4L);
+    assertThat(ids(snap.priceRange(2000, 3000, true, 2000, 2, 10))).containsExactly(3L, 4L);
+    assertThat(ids(snap.priceRange(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 0, 2))).containsExactly(1L, 2L);
+  }
+
+  @Test
+  void cambiosIncrementales_equivalenAReconstruir() {
+    Random random = new Random(42);
+    List<Row> rows = new ArrayList<>();
+    for (long id = 1; id <= 200; id += 2) {
+      rows.add(row(id, random.nextInt(50) * 100L, random.nextInt(1_000)));
+    }
+    var snap = ProductIndexSnapshot.of(rows);
+
+    // altas, modificaciones y bajas de a una (camino O(n))
+    for (int i = 0; i < 300; i++) {
+      long id = 1 + random.nextInt(220);
+      if (random.nextInt(4) == 0) {
+        snap = snap.apply(Map.of(), Set.of(id));
+        rows.removeIf(r -> r.id() == id);
+      } else {
+        Row r = row(id, random.nextInt(50) * 100L, random.nextInt(1_000));
+        snap = snap.apply(Map.of(id, r), Set.of());
+        rows.removeIf(x -> x.id() == id);
+        rows.add(r);
+      }
+    }
+
+    var rebuilt = ProductIndexSnapshot.of(rows);
+    assertThat(snap.size()).isEqualTo(rebuilt.size());
+    assertThat(snap.newest(false, 0, 0, 1_000)).isEqualTo(rebuilt.newest(false, 0, 0, 1_000));
+    assertThat(snap.priceRange(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 0, 1_000))
+        .isEqualTo(rebuilt.priceRange(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 0, 1_000));
+  }
+
+  @Test
+  void cambiosEnLote_equivalenAReconstruir() {
+    Random random = new Random(7);
+    Map<Long, Row> rows = new HashMap<>();
+    for (long id = 1; id <= 500; id += 3) {
+      rows.put(id, row(id, random.nextInt(20) * 100L, random.nextInt(200)));
+    }
+    var snap = ProductIndexSnapshot.of(rows.values());
+
+    // tandas con altas, modificaciones y bajas mezcladas (incluye ids que no existen)
+    for (int batch = 0; batch < 200; batch++) {
+      Map<Long, Row> upserts = new HashMap<>();
+      Set<Long> removals = new HashSet<>();
+      for (int i = random.nextInt(12); i >= 0; i--) {
+        long id = 1 + random.nextInt(600);
+        if (random.nextInt(3) == 0) {
+          removals.add(id);
+          upserts.remove(id);
+        } else {
+          upserts.put(id, row(id, random.nextInt(20) * 100L, random.nextInt(200)));
+          removals.remove(id);
+        }
+      }
+      snap = snap.apply(upserts, removals);
+      rows.keySet().removeAll(removals);
+      rows.putAll(upserts);
+    }
+
+    var rebuilt = ProductIndexSnapshot.of(rows.values());
+    assertThat(snap.size()).isEqualTo(rebuilt.size());
+    assertThat(snap.newest(false, 0, 0, 1_000)).isEqualTo(rebuilt.newest(false, 0, 0, 1_000));
+    assertThat(snap.priceRange(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 0, 1_000))
+        .isEqualTo(rebuilt.priceRange(Long.MIN_VALUE, Long.MAX_VALUE, false, 0, 0, 1_000));
+  }
+
+  @Test
+  void version_deLaFilaIndexada() {
+    var snap = ProductIndexSnapshot.of(List.of(new Row(1, 100, 1, 5, 3, "Mate", "Acero")));
+
+    assertThat(snap.version(1)).isEqualTo(3);
+    assertThat(snap.version(2)).isEqualTo(-1);
+  }
+
+  @Test
+  void estimateBytes_columnasFijasPorProducto() {
+    var snap = ProductIndexSnapshot.of(List.of(row(1, 100, 1), row(2, 200, 2)));
+    long[] bytes = snap.estimateBytes();
+
+    // 5 long[] + 2 int[] + 2 arrays de referencias, 2 productos
+    assertThat(bytes[0]).isEqualTo(5 * (16 + 16) + 2 * (16 + 8) + 2 * (16 + 8));
+    assertThat(bytes[1]).isPositive();
+  }
+}
@@ -0,0 +1,99 @@
+package ar.edu.challenge01.productapi.index;
+
+import ar.edu.challenge01.productapi.changefeed.ProductChange;
+import ar.edu.challenge01.productapi.changefeed.ProductChangeFeed;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent.Type;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * products en H2; el outbox (ProductChangeFeed) es un mock. Las escrituras se
+ * hacen directo sobre la tabla, como las de otra instancia: no publican eventos.
+ */
+class ProductIndexTest {
+
+  private JdbcTemplate jdbc;
+  private DataSourceTransactionManager txManager;
+  private final ProductChangeFeed changes = mock(ProductChangeFeed.class);
+
+  @BeforeEach
+  void setUp() {
+    JdbcDataSource ds = new JdbcDataSource();
+    ds.setURL("jdbc:h2:mem:index-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    jdbc = new JdbcTemplate(ds);
+    txManager = new DataSourceTransactionManager(ds);
+    jdbc.execute("""
+        CREATE TABLE products (
+          id BIGINT PRIMARY KEY, name VARCHAR(255), description VARCHAR(255), price NUMERIC(15,2),
+          created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+          version BIGINT DEFAULT 0)
+        """);
+    jdbc.update("INSERT INTO products (id, name, description, price) VALUES (1, 'Teclado', 'desc', 10)");
+    when(changes.currentSeq()).thenReturn(10L);
+    when(changes.readAfter(anyLong())).thenReturn(List.of());
+  }
+
+  @Test
+  void refresh_aplicaLasEscriturasDeOtrasInstanciasDesdeElOutbox() {
+    ProductIndex index = start(Duration.ofMinutes(1));
+    jdbc.update("UPDATE products SET name = 'Teclado mecánico', version = 1 WHERE id = 1");
+    jdbc.update("INSERT INTO products (id, name, description, price) VALUES (2, 'Mouse', 'desc', 5)");
+    when(changes.readAfter(10)).thenReturn(List.of(change(11, 1), change(12, 2)));
+
+    index.refresh();
+
+    assertThat(index.find(1).name()).isEqualTo("Teclado mecánico");
+    assertThat(index.find(2).name()).isEqualTo("Mouse");
+    verify(changes).readAfter(12);
+  }
+
+  @Test
+  void siElOutboxYaSePurgo_recargaLaFoto() {
+    ProductIndex index = start(Duration.ofMinutes(1));
+    jdbc.update("UPDATE products SET name = 'Teclado mecánico', version = 1 WHERE id = 1");
+    when(changes.isExpired(10)).thenReturn(true);
+
+    index.refresh();
+
+    assertThat(index.find(1).name()).isEqualTo("Teclado mecánico");
+  }
+
+  @Test
+  void atrasadoMasDeMaxStaleness_noRespondeHastaPonerseAlDia() throws Exception {
+    ProductIndex index = start(Duration.ofMillis(50));
+    when(changes.isExpired(10))
+        .thenThrow(new DataAccessResourceFailureException("down"))
+        .thenReturn(false);
+    Thread.sleep(100);
+
+    index.refresh();
+    // Los callers caen a la base
+    assertThat(index.find(1)).isNull();
+    assertThat(index.snapshot()).isNull();
+
+    index.refresh();
+    assertThat(index.find(1).name()).isEqualTo("Teclado");
+  }
+
+  private ProductIndex start(Duration maxStaleness) {
+    ProductIndex index = new ProductIndex(jdbc, txManager, changes, maxStaleness);
+    index.load();
+    return index;
+  }
+
+  private static ProductChange change(long seq, long productId) {
+    return new ProductChange(seq, Type.UPDATED, productId, Instant.now());
+  }
+}
@@ -0,0 +1,48 @@
+package ar.edu.challenge01.productapi.mapper;
+
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.entity.Product;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ProductMergeTest {
+
+  private static Product product(String name, String description, long priceCents) {
+    Product p = new Product();
+    p.setId(1L);
+    p.setName(name);
+    p.setDescription(description);
+    p.setPriceCents(priceCents);
+    return p;
+  }
+
+  @Test
+  void camposDistintos_seMergeanSinConflicto() {
+    var base = ProductMerge.Snapshot.of(product("Mate", "Acero", 10000));
+    // la otra escritura cambió la descripción
+    Product theirs = product("Mate", "Acero doble pared", 10000);
+    // este request cambia solo el precio
+    var ours = new UpdateProductRequest("Mate", "Acero", new BigDecimal("120"));
+
+    var conflicts = ProductMerge.apply(base, theirs, ours);
+
+    assertThat(conflicts).isEmpty();
+    assertThat(theirs.getDescription()).isEqualTo("Acero doble pared");
+    assertThat(theirs.getPriceCents()).isEqualTo(12000);
+  }
+
+  @Test
+  void mismoCampoConValoresDistintos_esConflicto() {
+    var base = ProductMerge.Snapshot.of(product("Mate", "Acero", 10000));
+    Product theirs = product("Mate", "Acero", 9000);
+    var ours = new UpdateProductRequest("Mate", "Acero", new BigDecimal("120.00"));
+
+    var conflicts = ProductMerge.apply(base, theirs, ours);
+
+    assertThat(conflicts).containsExactly("price");
+    assertThat(theirs.getPriceCents()).isEqualTo(9000);
+  }
+}
@@ -0,0 +1,77 @@
+package ar.edu.challenge01.productapi.metrics;
+
+import ar.edu.challenge01.productapi.config.DbBulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DbRequestMetricsFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final DbRequestMetricsFilter filter = new DbRequestMetricsFilter(registry);
+  private final EntityLoadCountingInterceptor interceptor = new EntityLoadCountingInterceptor();
+
+  @Test
+  void registraStatementsYEntidadesPorEndpoint() throws Exception {
+    var request = new MockHttpServletRequest("GET", "/products");
+
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      // simula un N+1: 1 consulta de lista + 3 consultas por fila
+      for (int i = 0; i < 4; i++) {
+        RequestDbStats.statementPrepared();
+      }
+      for (int i = 0; i < 3; i++) {
+        interceptor.onLoad(new Object(), (long) i, null, null, null);
+      }
+      RequestDbStats.connectionAcquired(2_000_000);
+      req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/products");
+    });
+
+    var statements = registry.get("db.request.statements").tags("method", "GET", "uri", "/products").summary();
+    assertThat(statements.count()).isEqualTo(1);
+    assertThat(statements.totalAmount()).isEqualTo(4);
+    var loaded = registry.get("db.request.entities.loaded").tags("uri", "/products").summary();
+    assertThat(loaded.totalAmount()).isEqualTo(3);
+    var wait = registry.get("db.request.connection.wait").tags("uri", "/products").timer();
+    assertThat(wait.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2.0);
+  }
+
+  @Test
+  void fueraDeUnRequest_noCuenta() throws Exception {
+    RequestDbStats.statementPrepared();   // p.ej. un listener en otro hilo
+
+    var request = new MockHttpServletRequest("GET", "/nada");
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+    assertThat(registry.get("db.request.statements").tags("uri", "UNKNOWN").summary().totalAmount()).isZero();
+  }
+
+  @Test
+  void cuentaLosStatementsDeJdbcTemplate() throws Exception {
+    JdbcDataSource h2 = new JdbcDataSource();
+    h2.setURL("jdbc:h2:mem:statements-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    // Con el bulkhead deshabilitado la conexión igual pasa por el proxy que cuenta
+    JdbcTemplate jdbc = new JdbcTemplate(new DbBulkhead(false, 1, Duration.ofSeconds(1)).wrap(h2));
+    var request = new MockHttpServletRequest("PUT", "/products/1");
+
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      jdbc.execute("CREATE TABLE t (id BIGINT)");
+      jdbc.update("INSERT INTO t VALUES (?)", 1L);
+      jdbc.queryForObject("SELECT count(*) FROM t", Long.class);
+      req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/products/{id}");
+    });
+
+    var statements = registry.get("db.request.statements").tags("method", "PUT", "uri", "/products/{id}").summary();
+    assertThat(statements.totalAmount()).isEqualTo(3);
+  }
+}
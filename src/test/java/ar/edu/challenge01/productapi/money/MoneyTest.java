@@ -0,0 +1,147 @@
+package ar.edu.challenge01.productapi.money;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.constraints.LongRange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * El paso a centavos no cambia el contrato: cada propiedad compara contra lo
+ * que se hacía con BigDecimal (setScale(2, HALF_UP) y el serializer de Jackson).
+ */
+class MoneyTest {
+
+  private static final ObjectMapper MAPPER = JsonMapper.builder()
+      .findAndAddModules()
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+
+  private static final Instant AT = Instant.parse("2025-11-18T18:30:00.123456Z");
+
+  // ProductResponse tal como era antes de pasar a centavos
+  record LegacyResponse(Long id, String name, String description, BigDecimal price,
+                        Instant createdAt, Instant updatedAt) {}
+
+  // Product.setPrice de antes; null si el resultado no entra en un long
+  private static Long legacyCents(BigDecimal amount) {
+    return attempt(() -> amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+  }
+
+  private static Long attempt(Supplier<Long> cents) {
+    try {
+      return cents.get();
+    } catch (ArithmeticException ex) {
+      return null;
+    }
+  }
+
+  // Desde 0.0001 hasta números con exponente positivo; con y sin empates en el tercer decimal
+  @Provide
+  Arbitrary<BigDecimal> amounts() {
+    return Combinators.combine(Arbitraries.longs(), Arbitraries.integers().between(-4, 24))
+        .as((unscaled, scale) -> BigDecimal.valueOf(unscaled, scale));
+  }
+
+  @Property
+  void toCents_esSetScaleHalfUp(@ForAll("amounts") BigDecimal amount) {
+    assertThat(attempt(() -> Money.toCents(amount))).isEqualTo(legacyCents(amount));
+  }
+
+  @Property
+  void parse_redondeaIgualEnCualquierNotacion(@ForAll("amounts") BigDecimal amount) {
+    Long expected = legacyCents(amount);
+    for (String text : new String[] {amount.toString(), amount.toPlainString(),
+        amount.toEngineeringString(), amount.toString().toLowerCase(Locale.ROOT)}) {
+      assertThat(attempt(() -> Money.parse(text))).as(text).isEqualTo(expected);
+    }
+  }
+
+  @Property
+  void format_escribeLoMismoQueBigDecimalDeEscala2(@ForAll long cents) {
+    assertThat(Money.toString(cents)).isEqualTo(BigDecimal.valueOf(cents, 2).toString());
+  }
+
+  @Property
+  void parse_deFormat_devuelveLosMismosCentavos(
+      @ForAll @LongRange(min = -Money.MAX_CENTS, max = Money.MAX_CENTS) long cents) {
+    assertThat(Money.parse(Money.toString(cents))).isEqualTo(cents);
+  }
+
+  @Property
+  void json_mismoTextoQueConBigDecimal(@ForAll long cents) throws Exception {
+    String now = MAPPER.writeValueAsString(new ProductResponse(1L, "Mate", "Acero", cents, AT, AT));
+    String before = MAPPER.writeValueAsString(
+        new LegacyResponse(1L, "Mate", "Acero", BigDecimal.valueOf(cents, 2), AT, AT));
+
+    assertThat(now).isEqualTo(before);
+  }
+
+  @Property
+  void json_leeNumerosYStringsComoAntes(@ForAll("amounts") BigDecimal amount) throws Exception {
+    Long expected = legacyCents(amount);
+    String asNumber = "{\"id\":1,\"price\":" + amount + "}";
+    String asString = "{\"id\":1,\"price\":\" " + amount.toPlainString() + " \"}";
+
+    if (expected == null) {
+      assertThatThrownBy(() -> MAPPER.readValue(asNumber, ProductResponse.class)).hasMessageContaining("price");
+      return;
+    }
+    assertThat(MAPPER.readValue(asNumber, ProductResponse.class).priceCents()).isEqualTo(expected);
+    assertThat(MAPPER.readValue(asString.getBytes(), ProductResponse.class).priceCents()).isEqualTo(expected);
+  }
+
+  @Property
+  void converter_idaYVueltaContraNumeric(@ForAll @LongRange(min = 0, max = Money.MAX_CENTS) long cents) {
+    CentsConverter converter = new CentsConverter();
+    BigDecimal column = converter.convertToDatabaseColumn(cents);
+
+    assertThat(column).isEqualTo(BigDecimal.valueOf(cents, 2));
+    assertThat(converter.convertToEntityAttribute(column)).isEqualTo(cents);
+  }
+
+  @Example
+  void parse_aceptaLasFormasDeBigDecimal() {
+    assertThat(Money.parse("+1")).isEqualTo(100);
+    assertThat(Money.parse(".5")).isEqualTo(50);
+    assertThat(Money.parse("5.")).isEqualTo(500);
+    assertThat(Money.parse("0.005")).isEqualTo(1);
+    assertThat(Money.parse("-0.005")).isEqualTo(-1);
+    assertThat(Money.parse("0.0049999")).isZero();
+    assertThat(Money.parse("1.2E+3")).isEqualTo(120_000);
+    assertThat(Money.parse("5e-3")).isEqualTo(1);
+    assertThat(Money.parse("1e-999999999999")).isZero();
+  }
+
+  @Example
+  void parse_rechazaLoQueNoEsUnNumero() {
+    for (String text : new String[] {"", "-", ".", "1e", "1e+", "e5", "1.2.3", "12a", "--1", " 1"}) {
+      assertThatThrownBy(() -> Money.parse(text)).as(text).isInstanceOf(NumberFormatException.class);
+    }
+    assertThatThrownBy(() -> Money.parse("1e20")).isInstanceOf(ArithmeticException.class);
+  }
+
+  @Example
+  void fits_esLoQueEntraEnNumeric15_2() {
+    assertThat(Money.fits(new BigDecimal("9999999999999.99"))).isTrue();
+    assertThat(Money.fits(new BigDecimal("9999999999999.994"))).isTrue();
+    assertThat(Money.fits(new BigDecimal("9999999999999.995"))).isFalse();
+    assertThat(Money.fits(new BigDecimal("1e30"))).isFalse();
+    assertThat(Money.fits(null)).isFalse();
+  }
+}
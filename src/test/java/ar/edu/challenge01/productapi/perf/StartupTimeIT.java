@@ -0,0 +1,83 @@
+package ar.edu.challenge01.productapi.perf;
+
+import ar.edu.challenge01.productapi.ProductApiApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tiempo hasta el primer request: desde SpringApplication.run() hasta la
+ * primera respuesta 200 de GET /products?limit=20, con la configuración por
+ * defecto y con la de nodos de autoscaling (Flyway salteado + lazy init).
+ *
+ * Todas las corridas comparten la JVM, así que la primera (que además migra
+ * el esquema) se descarta: carga las clases que las siguientes ya encuentran.
+ * Para medir un build AOT, correr con -Dspring.aot.enabled=true después de
+ * ./mvnw -Paot test-compile. Se ejecuta a mano (sufijo IT, fuera de surefire):
+ *   ./mvnw test -Dtest=StartupTimeIT [-Dstartup.max-ms=20000]
+ */
+@Testcontainers
+class StartupTimeIT {
+
+  private static final long MAX_MILLIS = Long.getLong("startup.max-ms", 60_000);
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+      .withDatabaseName("productdb")
+      .withUsername("postgres")
+      .withPassword("postgres");
+
+  record Result(String mode, long readyMillis, long firstRequestMillis) {}
+
+  @Test
+  void arranqueRapido_respondeElPrimerRequestConElEsquemaYaMigrado() throws Exception {
+    start("warmup", true, false);   // migra el esquema y calienta la JVM
+    Result standard = start("default", true, false);
+    Result fast = start("fast", false, true);
+
+    System.out.printf("%-10s %12s %20s%n", "mode", "ready(ms)", "first request(ms)");
+    for (Result r : List.of(standard, fast)) {
+      System.out.printf("%-10s %12d %20d%n", r.mode(), r.readyMillis(), r.firstRequestMillis());
+    }
+
+    assertThat(fast.firstRequestMillis()).isLessThan(MAX_MILLIS);
+  }
+
+  private Result start(String mode, boolean flyway, boolean lazy) throws Exception {
+    long t0 = System.nanoTime();
+    try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(ProductApiApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=" + postgres.getJdbcUrl(),
+            "spring.datasource.username=" + postgres.getUsername(),
+            "spring.datasource.password=" + postgres.getPassword(),
+            "spring.flyway.enabled=" + flyway,
+            "spring.main.lazy-initialization=" + lazy)
+        .run()) {
+      long ready = System.nanoTime();
+
+      int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+      HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+      HttpResponse<Void> res = http.send(
+          HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/products?limit=20")).GET().build(),
+          HttpResponse.BodyHandlers.discarding());
+      long firstResponse = System.nanoTime();
+
+      assertThat(res.statusCode()).as(mode).isEqualTo(200);
+      return new Result(mode, (ready - t0) / 1_000_000, (firstResponse - t0) / 1_000_000);
+    }
+  }
+}
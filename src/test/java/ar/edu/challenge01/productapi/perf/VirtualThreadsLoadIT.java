@@ -0,0 +1,119 @@
+package ar.edu.challenge01.productapi.perf;
+
+import ar.edu.challenge01.productapi.ProductApiApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga comparativa: mismo escenario (muchos más clientes concurrentes
+ * que conexiones en el pool) con Tomcat sobre hilos de plataforma y sobre hilos
+ * virtuales. Imprime throughput y latencias p50/p99 de cada modo.
+ *
+ * Se ejecuta a mano (sufijo IT, fuera de surefire) y necesita Java 21:
+ *   ./mvnw -Pjava21 test -Dtest=VirtualThreadsLoadIT
+ */
+@Testcontainers
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadIT {
+
+  private static final int CLIENTS = 1_000;
+  private static final int REQUESTS_PER_CLIENT = 20;
+
+  @Container
+  static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+      .withDatabaseName("productdb")
+      .withUsername("postgres")
+      .withPassword("postgres");
+
+  record Result(String mode, double throughput, long p50Micros, long p99Micros, long errors) {}
+
+  @Test
+  void virtualThreads_sostienenMasConcurrenciaQueElPoolDePlataforma() throws Exception {
+    Result platform = run(false);
+    Result virtual = run(true);
+
+    System.out.printf("%-10s %12s %10s %10s %8s%n", "mode", "req/s", "p50(us)", "p99(us)", "errors");
+    for (Result r : List.of(platform, virtual)) {
+      System.out.printf("%-10s %12.1f %10d %10d %8d%n", r.mode(), r.throughput(), r.p50Micros(), r.p99Micros(), r.errors());
+    }
+
+    assertThat(virtual.errors()).isZero();
+  }
+
+  private Result run(boolean virtualThreads) throws Exception {
+    try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(ProductApiApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=" + postgres.getJdbcUrl(),
+            "spring.datasource.username=" + postgres.getUsername(),
+            "spring.datasource.password=" + postgres.getPassword(),
+            "spring.threads.virtual.enabled=" + virtualThreads,
+            "app.product-cache.enabled=false",
+            "app.db-bulkhead.acquire-timeout=30s")
+        .run()) {
+
+      int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+      URI uri = URI.create("http://localhost:" + port + "/products?limit=50");
+      HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+      long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+      long errors = 0;
+      long start = System.nanoTime();
+      // Clientes en hilos de plataforma: el código de test compila también con release 17
+      ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+      try {
+        List<Future<Long>> futures = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+          int client = c;
+          futures.add(clients.submit(() -> {
+            long failed = 0;
+            for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+              long t0 = System.nanoTime();
+              HttpResponse<Void> res = http.send(HttpRequest.newBuilder(uri).GET().build(),
+                  HttpResponse.BodyHandlers.discarding());
+              latencies[client * REQUESTS_PER_CLIENT + i] = (System.nanoTime() - t0) / 1_000;
+              if (res.statusCode() != 200) {
+                failed++;
+              }
+            }
+            return failed;
+          }));
+        }
+        for (Future<Long> f : futures) {
+          errors += f.get();
+        }
+      } finally {
+        clients.shutdownNow();
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      Arrays.sort(latencies);
+      return new Result(virtualThreads ? "virtual" : "platform",
+          latencies.length / seconds,
+          latencies[latencies.length / 2],
+          latencies[(int) (latencies.length * 0.99)],
+          errors);
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+  private static final long THRESHOLD = Duration.ofMillis(500).toNanos();
+  private static final long FAST = Duration.ofMillis(5).toNanos();
+
+  @Test
+  void rechazaPorEncimaDelLimite() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, THRESHOLD, 0.5, 0);
+
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isFalse();
+    assertThat(limit.inFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void reduceUnaSolaVezPorVentanaAnteLatenciaAlta() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 1, 100, THRESHOLD, 0.5, 0);
+    for (int i = 0; i < 10; i++) {
+      limit.tryAcquire();
+    }
+
+    long now = 10 * THRESHOLD;
+    for (int i = 0; i < 10; i++) {
+      limit.release(2 * THRESHOLD, false, now);
+    }
+
+    assertThat(limit.limit()).isEqualTo(20);
+    assertThat(limit.inFlight()).isZero();
+  }
+
+  @Test
+  void un503DeLaBaseTambienReduce() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, THRESHOLD, 0.5, 0);
+    limit.tryAcquire();
+
+    limit.release(FAST, true, 10 * THRESHOLD);
+
+    assertThat(limit.limit()).isEqualTo(5);
+  }
+
+  @Test
+  void creceDeAUnoSoloSiEstabaEnUso() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 5, THRESHOLD, 0.5, 0);
+
+    limit.tryAcquire();
+    limit.release(FAST, false, THRESHOLD);
+    assertThat(limit.limit()).isEqualTo(4);   // 1 de 4 en vuelo: no crece
+
+    for (int i = 0; i < 2; i++) {
+      limit.tryAcquire();
+    }
+    limit.release(FAST, false, THRESHOLD);
+    limit.release(FAST, false, THRESHOLD);
+    assertThat(limit.limit()).isEqualTo(5);   // 2 de 4 en vuelo: +1; la segunda ya no llega a la mitad
+  }
+
+  @Test
+  void nuncaBajaDelMinimo() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 3, 10, THRESHOLD, 0.1, 0);
+    limit.tryAcquire();
+
+    limit.release(2 * THRESHOLD, false, 10 * THRESHOLD);
+
+    assertThat(limit.limit()).isEqualTo(3);
+  }
+}
@@ -0,0 +1,81 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import ar.edu.challenge01.productapi.web.TooManyRequestsException;
+import ar.edu.challenge01.productapi.ratelimit.ClientRateLimiter.Budget;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+  private final RateLimitInterceptor interceptor = new RateLimitInterceptor(
+      new ClientRateLimiter(1, 1, 1, 1, 5, 5, 100, Duration.ofMinutes(1)), "X-API-Key", Set.of("integrador-1"), true);
+
+  private static MockHttpServletRequest request(String apiKey) {
+    var request = new MockHttpServletRequest("GET", "/products");
+    request.setRemoteAddr("10.0.0.7");
+    if (apiKey != null) {
+      request.addHeader("X-API-Key", apiKey);
+    }
+    return request;
+  }
+
+  @Test
+  void keyDadaDeAlta_esElCliente() {
+    assertThat(interceptor.client(request("integrador-1"))).isEqualTo("key:integrador-1");
+  }
+
+  @Test
+  void keyDesconocidaOAusente_cuentaContraLaIp() {
+    assertThat(interceptor.client(request("cualquiera"))).isEqualTo("ip:10.0.0.7");
+    assertThat(interceptor.client(request(null))).isEqualTo("ip:10.0.0.7");
+  }
+
+  @Test
+  void rotarLaKey_noDaPresupuestoNuevo() {
+    assertThat(interceptor.preHandle(request("a"), null, null)).isTrue();
+
+    assertThatThrownBy(() -> interceptor.preHandle(request("b"), null, null))
+        .isInstanceOf(TooManyRequestsException.class);
+  }
+
+  private static MockHttpServletRequest put(String uri, String prefer) {
+    var request = new MockHttpServletRequest("PUT", uri);
+    request.setRemoteAddr("10.0.0.7");
+    if (prefer != null) {
+      request.addHeader("Prefer", prefer);
+    }
+    return request;
+  }
+
+  @Test
+  void putDiferido_usaSuPropioBucket() {
+    assertThat(interceptor.budget(put("/products/42", "respond-async, wait=5"))).isEqualTo(Budget.ASYNC_WRITE);
+    assertThat(interceptor.budget(put("/products/42", null))).isEqualTo(Budget.WRITE);
+    assertThat(interceptor.budget(put("/products/sku/ABC", "respond-async"))).isEqualTo(Budget.WRITE);
+
+    var conditional = put("/products/42", "respond-async");
+    conditional.addHeader("If-Match", "\"v1\"");
+    assertThat(interceptor.budget(conditional)).isEqualTo(Budget.WRITE);
+  }
+
+  @Test
+  void putDiferido_noGastaElPresupuestoDeEscritura() {
+    for (int i = 0; i < 5; i++) {
+      assertThat(interceptor.preHandle(put("/products/" + i, "respond-async"), null, null)).isTrue();
+    }
+    assertThat(interceptor.preHandle(put("/products/1", null), null, null)).isTrue();
+  }
+
+  @Test
+  void sinEscrituraDiferida_elPutAsyncPagaComoEscritura() {
+    var sync = new RateLimitInterceptor(
+        new ClientRateLimiter(1, 1, 1, 1, 5, 5, 100, Duration.ofMinutes(1)), "X-API-Key", Set.of(), false);
+
+    assertThat(sync.budget(put("/products/42", "respond-async"))).isEqualTo(Budget.WRITE);
+  }
+}
@@ -0,0 +1,59 @@
+package ar.edu.challenge01.productapi.ratelimit;
+
+import ar.edu.challenge01.productapi.ratelimit.ClientRateLimiter.Budget;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+  private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+  @Test
+  void admiteElBurstYDespuesRechazaConEspera() {
+    long t0 = 1_000 * SECOND;
+    TokenBucket bucket = new TokenBucket(10, 5, t0);
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(bucket.tryAcquire(t0)).isZero();
+    }
+    long wait = bucket.tryAcquire(t0);
+
+    assertThat(wait).isEqualTo(SECOND / 10);
+  }
+
+  @Test
+  void recargaARateTokensPorSegundo() {
+    long t0 = -5 * SECOND;   // nanoTime puede ser negativo
+    TokenBucket bucket = new TokenBucket(10, 1, t0);
+
+    assertThat(bucket.tryAcquire(t0)).isZero();
+    assertThat(bucket.tryAcquire(t0 + SECOND / 20)).isPositive();
+    assertThat(bucket.tryAcquire(t0 + SECOND / 10)).isZero();
+  }
+
+  @Test
+  void noAcumulaMasQueElBurstEnReposo() {
+    long t0 = 0;
+    TokenBucket bucket = new TokenBucket(100, 3, t0);
+    long later = t0 + 60 * SECOND;
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(bucket.tryAcquire(later)).isZero();
+    }
+    assertThat(bucket.tryAcquire(later)).isPositive();
+  }
+
+  @Test
+  void clientesDistintosTienenBucketsIndependientes() {
+    ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1, 1, 1, 1, 100, Duration.ofMinutes(1));
+
+    assertThat(limiter.tryAcquire("key-a", Budget.READ)).isZero();
+    assertThat(limiter.tryAcquire("key-a", Budget.READ)).isPositive();
+    // El mismo cliente conserva su presupuesto de escritura, y otro cliente el suyo
+    assertThat(limiter.tryAcquire("key-a", Budget.WRITE)).isZero();
+    assertThat(limiter.tryAcquire("key-b", Budget.READ)).isZero();
+  }
+}
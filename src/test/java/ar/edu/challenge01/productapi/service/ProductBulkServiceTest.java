@@ -0,0 +1,66 @@
+package ar.edu.challenge01.productapi.service;
+
+import ar.edu.challenge01.productapi.dto.BulkResponse;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceTest {
+
+  @Mock
+  private EntityManager em;
+
+  private ProductBulkService service;
+
+  @BeforeEach
+  void setUp() {
+    // batch de 2 para verificar que se hace flush + clear por cada batch
+    service = new ProductBulkService(em, Validation.buildDefaultValidatorFactory().getValidator(), 2, event -> {});
+
+    // simula la secuencia pooled: el id se asigna en persist
+    AtomicLong seq = new AtomicLong(100);
+    doAnswer(inv -> {
+      inv.<Product>getArgument(0).setId(seq.incrementAndGet());
+      return null;
+    }).when(em).persist(any(Product.class));
+  }
+
+  @Test
+  void createAll_persisteValidos_e_informaInvalidosPorIndice() {
+    var items = List.of(
+        new CreateProductRequest("Mouse", "Inalámbrico", new BigDecimal("10.00")),
+        new CreateProductRequest("", "Sin nombre", new BigDecimal("5.00")),
+        new CreateProductRequest("Teclado", "Mecánico", new BigDecimal("20.00")),
+        new CreateProductRequest("Monitor", "27 pulgadas", new BigDecimal("30.00"))
+    );
+
+    BulkResponse res = service.createAll(items);
+
+    assertThat(res.created()).isEqualTo(3);
+    assertThat(res.failed()).isEqualTo(1);
+    assertThat(res.items()).extracting("status")
+        .containsExactly("CREATED", "INVALID", "CREATED", "CREATED");
+    assertThat(res.items().get(0).id()).isEqualTo(101L);
+    assertThat(res.items().get(1).errors()).containsKey("name");
+
+    verify(em, times(3)).persist(any(Product.class));
+    // un batch completo (2 ítems) + el resto (1 ítem)
+    verify(em, times(2)).flush();
+    verify(em, times(2)).clear();
+  }
+}
@@ -1,8 +1,13 @@
 package ar.edu.challenge01.productapi.service;
 
+import ar.edu.challenge01.productapi.cache.ProductCache;
 import ar.edu.challenge01.productapi.dto.ProductRequest;
 import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
 import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.money.Money;
 import ar.edu.challenge01.productapi.repository.ProductRepository;
 import ar.edu.challenge01.productapi.web.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,9 +16,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,7 +38,7 @@ class ProductServiceTest {
   @BeforeEach
   void setUp() {
     // ajustá el ctor si tu ProductService recibe más cosas
-    service = new ProductService(repo);
+    service = new ProductService(repo, ProductCache.disabled(), event -> {});
   }
 
   @Test
@@ -48,7 +55,7 @@ class ProductServiceTest {
     saved.setId(10L);
     saved.setName(req.name());
     saved.setDescription(req.description());
-    saved.setPrice(req.price());
+    saved.setPriceCents(Money.toCents(req.price()));
     saved.setCreatedAt(Instant.now());
 
     when(repo.save(any(Product.class))).thenReturn(saved);
@@ -73,10 +80,10 @@ class ProductServiceTest {
     db.setId(1L);
     db.setName("Teclado");
     db.setDescription("Mecánico");
-    db.setPrice(new BigDecimal("1500"));
+    db.setPriceCents(150000);
     db.setCreatedAt(Instant.now());
 
-    when(repo.findById(1L)).thenReturn(Optional.of(db));
+    when(repo.findResponseById(1L)).thenReturn(Optional.of(ProductMapper.toResponse(db)));
 
     ProductResponse res = service.findById(1L);
 
@@ -86,7 +93,7 @@ class ProductServiceTest {
 
   @Test
   void findById_inexistente_lanzaNotFound() {
-    when(repo.findById(99L)).thenReturn(Optional.empty());
+    when(repo.findResponseById(99L)).thenReturn(Optional.empty());
 
     assertThatThrownBy(() -> service.findById(99L))
         .isInstanceOf(NotFoundException.class)
@@ -97,18 +104,49 @@ class ProductServiceTest {
   void findAll_devuelveListaDeResponses() {
     Product p1 = new Product();
     p1.setId(1L); p1.setName("A"); p1.setDescription("d1");
-    p1.setPrice(new BigDecimal("10")); p1.setCreatedAt(Instant.now());
+    p1.setPriceCents(1000); p1.setCreatedAt(Instant.now());
 
     Product p2 = new Product();
     p2.setId(2L); p2.setName("B"); p2.setDescription("d2");
-    p2.setPrice(new BigDecimal("20")); p2.setCreatedAt(Instant.now());
+    p2.setPriceCents(2000); p2.setCreatedAt(Instant.now());
 
-    when(repo.findAll()).thenReturn(List.of(p1, p2));
+    when(repo.findAllResponses(Sort.unsorted()))
+        .thenReturn(List.of(ProductMapper.toResponse(p1), ProductMapper.toResponse(p2)));
 
     var list = service.findAll();
 
     assertThat(list).hasSize(2);
     assertThat(list.get(0).name()).isEqualTo("A");
   }
-}
 
+  @Test
+  void update_conVersionesEsperadas_pruebaHastaLaQueCoincide_yPublicaUnEvento() {
+    List<Object> published = new ArrayList<>();
+    service = new ProductService(repo, ProductCache.disabled(), published::add);
+    Instant stale = Instant.parse("2025-11-18T18:00:00Z");
+    Instant current = Instant.parse("2025-11-18T18:30:00Z");
+    Product updated = new Product();
+    updated.setId(5L); updated.setName("Mouse"); updated.setDescription("Inalámbrico");
+    updated.setPriceCents(1000); updated.setCreatedAt(stale); updated.setUpdatedAt(Instant.now());
+
+    when(repo.updateReturningIfUnchanged(eq(5L), any(), any(), any(), any(), eq(stale))).thenReturn(Optional.empty());
+    when(repo.updateReturningIfUnchanged(eq(5L), any(), any(), any(), any(), eq(current))).thenReturn(Optional.of(updated));
+
+    var res = service.update(5L, new UpdateProductRequest("Mouse", "Inalámbrico", BigDecimal.TEN), List.of(stale, current));
+
+    assertThat(res).containsSame(updated);
+    assertThat(published).containsExactly(ProductChangedEvent.updated(5L));
+  }
+
+  @Test
+  void update_sinFilasAfectadas_noPublicaEvento() {
+    List<Object> published = new ArrayList<>();
+    service = new ProductService(repo, ProductCache.disabled(), published::add);
+    when(repo.updateReturning(eq(6L), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+    var res = service.update(6L, new UpdateProductRequest("Mouse", "Inalámbrico", BigDecimal.TEN), null);
+
+    assertThat(res).isEmpty();
+    assertThat(published).isEmpty();
+  }
+}
@@ -1,8 +1,16 @@
 package ar.edu.challenge01.productapi.web;
 
+import ar.edu.challenge01.productapi.cache.ProductCache;
+import ar.edu.challenge01.productapi.cache.ProductPayloadCache;
+import ar.edu.challenge01.productapi.dto.CreateProductRequest;
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
 import ar.edu.challenge01.productapi.entity.Product;
+import ar.edu.challenge01.productapi.mapper.ProductMapper;
+import ar.edu.challenge01.productapi.repository.ProductField;
+import ar.edu.challenge01.productapi.repository.ProductFieldRow;
 import ar.edu.challenge01.productapi.repository.ProductRepository;
 import ar.edu.challenge01.productapi.service.ProductService;
+import ar.edu.challenge01.productapi.writebehind.ProductWriteBehind;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +20,23 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -25,7 +44,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 // Ajustá si tu controller está en otro paquete o se llama distinto:
 @WebMvcTest(ProductController.class)
 // Importa el Service REAL (el de tu main code, anotado con @Service)
-@Import(ProductService.class)
+@Import({ProductService.class, ProductCache.class, ProductPayloadCache.class})
 class ProductControllerTest {
 
   @Autowired MockMvc mvc;
@@ -33,6 +52,7 @@ class ProductControllerTest {
 
   // Moqueamos SÓLO el repository, para que el Service real funcione con estos datos
   @MockBean ProductRepository repo;
+  @MockBean ProductWriteBehind writeBehind;
 
   @Test
   void list_shouldReturn200AndJsonArray() throws Exception {
@@ -40,10 +60,10 @@ class ProductControllerTest {
     p.setId(1L);
     p.setName("Teclado");
     p.setDescription("Mecánico");
-    p.setPrice(new BigDecimal("1500.00"));
+    p.setPriceCents(150000);
     p.setCreatedAt(Instant.now());
 
-    when(repo.findAll()).thenReturn(List.of(p));
+    when(repo.findAllResponses(any())).thenReturn(List.of(ProductMapper.toResponse(p)));
 
     mvc.perform(get("/products"))
        .andExpect(status().isOk())
@@ -52,35 +72,149 @@ class ProductControllerTest {
        .andExpect(jsonPath("$[0].name").value("Teclado"));
   }
 
+  @Test
+  void listPage_conLimit_devuelvePaginaYCursorSiguiente() throws Exception {
+    Product p1 = new Product();
+    p1.setId(2L); p1.setName("Teclado"); p1.setDescription("Mecánico");
+    p1.setPriceCents(150000); p1.setCreatedAt(Instant.parse("2025-11-18T18:30:00Z"));
+
+    Product p2 = new Product();
+    p2.setId(1L); p2.setName("Mouse"); p2.setDescription("Inalámbrico");
+    p2.setPriceCents(99990); p2.setCreatedAt(Instant.parse("2025-11-18T18:00:00Z"));
+
+    // limit=1 => el repo recibe limit+1 y la fila extra indica que hay otra página
+    when(repo.findFirstPage(2)).thenReturn(List.of(p1, p2));
+
+    mvc.perform(get("/products").param("limit", "1"))
+       .andExpect(status().isOk())
+       .andExpect(jsonPath("$.items.length()").value(1))
+       .andExpect(jsonPath("$.items[0].id").value(2))
+       .andExpect(jsonPath("$.nextCursor").value(
+           ProductCursor.after(p1.getCreatedAt(), 2L).encode()))
+       .andExpect(jsonPath("$.prevCursor").doesNotExist());
+  }
+
+  @Test
+  void listPage_conAcceptEncodingGzip_devuelveElPayloadComprimido() throws Exception {
+    Product p = new Product();
+    p.setId(30L); p.setName("Teclado"); p.setDescription("x".repeat(4000));
+    p.setPriceCents(150000); p.setCreatedAt(Instant.parse("2025-11-18T18:30:00Z"));
+
+    when(repo.findFirstPage(6)).thenReturn(List.of(p));
+
+    byte[] body = mvc.perform(get("/products").param("limit", "5").header("Accept-Encoding", "gzip, br"))
+       .andExpect(status().isOk())
+       .andExpect(header().string("Content-Encoding", "gzip"))
+       .andExpect(header().exists("ETag"))
+       .andReturn().getResponse().getContentAsByteArray();
+
+    assertThat(body.length).isLessThan(4000);
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).contains("\"id\":30");
+    }
+
+    // sin gzip: mismo payload en JSON plano (servido desde la cache)
+    mvc.perform(get("/products").param("limit", "5"))
+       .andExpect(status().isOk())
+       .andExpect(header().doesNotExist("Content-Encoding"))
+       .andExpect(jsonPath("$.items[0].id").value(30));
+  }
+
   @Test
   void getOne_shouldReturn200() throws Exception {
     Product p = new Product();
     p.setId(1L);
     p.setName("Teclado");
     p.setDescription("Mecánico");
-    p.setPrice(new BigDecimal("1500.00"));
+    p.setPriceCents(150000);
     p.setCreatedAt(Instant.now());
 
-    when(repo.findById(1L)).thenReturn(Optional.of(p));
+    when(repo.findResponseById(1L)).thenReturn(Optional.of(ProductMapper.toResponse(p)));
 
     mvc.perform(get("/products/1"))
        .andExpect(status().isOk())
        .andExpect(jsonPath("$.id").value(1))
-       .andExpect(jsonPath("$.name").value("Teclado"));
+       .andExpect(jsonPath("$.name").value("Teclado"))
+       .andExpect(content().string(containsString("\"price\":1500.00")));
+  }
+
+  @Test
+  void getOne_conIfNoneMatchVigente_devuelve304SinBody() throws Exception {
+    Product p = new Product();
+    p.setId(3L);
+    p.setName("Monitor");
+    p.setDescription("27 pulgadas");
+    p.setPriceCents(30000);
+    p.setCreatedAt(Instant.parse("2025-11-18T18:30:00Z"));
+    p.setUpdatedAt(Instant.parse("2025-11-18T18:45:12.123456Z"));
+
+    when(repo.findResponseById(3L)).thenReturn(Optional.of(ProductMapper.toResponse(p)));
+
+    String etag = mvc.perform(get("/products/3"))
+       .andExpect(status().isOk())
+       .andExpect(header().exists("ETag"))
+       .andExpect(header().exists("Last-Modified"))
+       .andReturn().getResponse().getHeader("ETag");
+
+    mvc.perform(get("/products/3").header("If-None-Match", etag))
+       .andExpect(status().isNotModified())
+       .andExpect(content().string(""));
+  }
+
+  @Test
+  void getMany_respetaElOrdenPedidoEInformaLosFaltantes() throws Exception {
+    Product p20 = new Product();
+    p20.setId(20L); p20.setName("Teclado"); p20.setDescription("Mecánico");
+    p20.setPriceCents(150000); p20.setCreatedAt(Instant.now());
+
+    Product p21 = new Product();
+    p21.setId(21L); p21.setName("Mouse"); p21.setDescription("Inalámbrico");
+    p21.setPriceCents(99990); p21.setCreatedAt(Instant.now());
+
+    // la base devuelve en cualquier orden: el controller reordena según el pedido
+    when(repo.findResponsesByIdIn(any())).thenReturn(List.of(ProductMapper.toResponse(p20), ProductMapper.toResponse(p21)));
+
+    mvc.perform(get("/products").param("ids", "21,22,20,21"))
+       .andExpect(status().isOk())
+       .andExpect(jsonPath("$.items.length()").value(2))
+       .andExpect(jsonPath("$.items[0].id").value(21))
+       .andExpect(jsonPath("$.items[1].id").value(20))
+       .andExpect(jsonPath("$.missing[0]").value(22));
+  }
+
+  @Test
+  void getOne_conFields_devuelveSoloLosCamposPedidos() throws Exception {
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("name", "Teclado");
+    values.put("price", new BigDecimal("1500.00"));
+    Instant ts = Instant.parse("2025-11-18T18:30:00Z");
+    when(repo.findFieldsById(eq(5L), any()))
+        .thenReturn(Optional.of(new ProductFieldRow(5L, ts, ts, values)));
+
+    mvc.perform(get("/products/5").param("fields", "price,name"))
+       .andExpect(status().isOk())
+       .andExpect(header().exists("ETag"))
+       .andExpect(jsonPath("$.name").value("Teclado"))
+       .andExpect(jsonPath("$.description").doesNotExist());
+
+    verify(repo).findFieldsById(5L, EnumSet.of(ProductField.NAME, ProductField.PRICE));
+  }
+
+  @Test
+  void getOne_conCampoDesconocido_devuelve400() throws Exception {
+    mvc.perform(get("/products/5").param("fields", "name,password"))
+       .andExpect(status().isBadRequest());
   }
 
   @Test
   void create_shouldReturn201() throws Exception {
-    Product toCreate = new Product();
-    toCreate.setName("Mouse");
-    toCreate.setDescription("Inalámbrico");
-    toCreate.setPrice(new BigDecimal("19999.90"));
+    CreateProductRequest toCreate = new CreateProductRequest("Mouse", "Inalámbrico", new BigDecimal("19999.90"));
 
     Product created = new Product();
     created.setId(10L);
     created.setName("Mouse");
     created.setDescription("Inalámbrico");
-    created.setPrice(new BigDecimal("19999.90"));
+    created.setPriceCents(1999990);
     created.setCreatedAt(Instant.now());
 
     when(repo.save(any(Product.class))).thenReturn(created);
@@ -93,5 +227,151 @@ class ProductControllerTest {
        .andExpect(jsonPath("$.id").value(10))
        .andExpect(jsonPath("$.name").value("Mouse"));
   }
-}
 
+  @Test
+  void update_conPreferRespondAsync_devuelve202YEncola() throws Exception {
+    UpdateProductRequest body = new UpdateProductRequest("Mouse", "Inalámbrico", new BigDecimal("999.90"));
+
+    mvc.perform(put("/products/77")
+            .header("Prefer", "respond-async, wait=0")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(body)))
+       .andExpect(status().isAccepted())
+       .andExpect(header().string("Preference-Applied", "respond-async"))
+       .andExpect(content().string(""));
+
+    verify(writeBehind).enqueue(77L, body);
+  }
+
+  // --- PUT/DELETE condicionales: un solo statement, el 404/412 sale de las filas afectadas ---
+
+  private static final Instant SEEN = Instant.parse("2025-11-18T18:45:12.123456Z");
+  private static final Instant CURRENT = Instant.parse("2025-11-18T19:00:00.654321Z");
+
+  private static Product stored(long id, Instant updatedAt) {
+    Product p = new Product();
+    p.setId(id); p.setName("Mouse"); p.setDescription("Inalámbrico");
+    p.setPriceCents(99990); p.setCreatedAt(Instant.parse("2025-11-18T18:00:00Z"));
+    p.setUpdatedAt(updatedAt);
+    return p;
+  }
+
+  private String updateBody() throws Exception {
+    return mapper.writeValueAsString(new UpdateProductRequest("Mouse", "Inalámbrico", new BigDecimal("999.90")));
+  }
+
+  @Test
+  void update_conIfMatchVigente_actualizaSoloEsaVersion() throws Exception {
+    when(repo.updateReturningIfUnchanged(eq(40L), any(), any(), any(), any(), eq(SEEN)))
+        .thenReturn(Optional.of(stored(40L, CURRENT)));
+
+    mvc.perform(put("/products/40")
+            .header("If-Match", ProductETags.of(stored(40L, SEEN)))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isOk())
+       .andExpect(header().string("ETag", ProductETags.of(stored(40L, CURRENT))));
+  }
+
+  @Test
+  void update_conIfMatchViejo_devuelve412() throws Exception {
+    // el UPDATE condicionado no afecta filas y el producto existe: cambió desde que el cliente lo leyó
+    when(repo.existsById(41L)).thenReturn(true);
+
+    mvc.perform(put("/products/41")
+            .header("If-Match", ProductETags.of(stored(41L, SEEN)))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isPreconditionFailed());
+
+    verify(repo).updateReturningIfUnchanged(eq(41L), any(), any(), any(), any(), eq(SEEN));
+  }
+
+  @Test
+  void update_conIfMatchDeProductoInexistente_devuelve404() throws Exception {
+    when(repo.existsById(42L)).thenReturn(false);
+
+    mvc.perform(put("/products/42")
+            .header("If-Match", ProductETags.of(stored(42L, SEEN)))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void update_conIfMatchDeOtroProducto_devuelve412SinActualizar() throws Exception {
+    when(repo.existsById(43L)).thenReturn(true);
+
+    mvc.perform(put("/products/43")
+            .header("If-Match", ProductETags.of(stored(44L, SEEN)))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isPreconditionFailed());
+
+    verify(repo, never()).updateReturningIfUnchanged(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void update_conIfMatchAsterisco_actualizaSinCondicion() throws Exception {
+    when(repo.updateReturning(eq(45L), any(), any(), any(), any())).thenReturn(Optional.of(stored(45L, CURRENT)));
+
+    mvc.perform(put("/products/45")
+            .header("If-Match", "*")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isOk());
+
+    verify(repo, never()).updateReturningIfUnchanged(any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void update_conIfMatchAsteriscoYProductoInexistente_devuelve404() throws Exception {
+    mvc.perform(put("/products/46")
+            .header("If-Match", "*")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void update_conIfMatchLista_actualizaSiAlgunoCoincide() throws Exception {
+    when(repo.updateReturningIfUnchanged(eq(47L), any(), any(), any(), any(), eq(CURRENT)))
+        .thenReturn(Optional.of(stored(47L, Instant.parse("2025-11-18T19:30:00Z"))));
+
+    String ifMatch = "\"otro\", W/" + ProductETags.of(stored(47L, CURRENT)) + ", "
+        + ProductETags.of(stored(47L, SEEN)) + ", " + ProductETags.of(stored(47L, CURRENT));
+
+    mvc.perform(put("/products/47")
+            .header("If-Match", ifMatch)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isOk());
+
+    verify(repo).updateReturningIfUnchanged(eq(47L), any(), any(), any(), any(), eq(SEEN));
+  }
+
+  @Test
+  void update_conIfMatchListaSinCoincidencias_devuelve412() throws Exception {
+    when(repo.existsById(48L)).thenReturn(true);
+
+    mvc.perform(put("/products/48")
+            .header("If-Match", ProductETags.of(stored(48L, SEEN)) + ", \"x\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(updateBody()))
+       .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  void delete_existente_devuelve204() throws Exception {
+    when(repo.deleteByIdReturningCount(49L)).thenReturn(1);
+
+    mvc.perform(delete("/products/49"))
+       .andExpect(status().isNoContent());
+  }
+
+  @Test
+  void delete_sinFilasAfectadas_devuelve404() throws Exception {
+    mvc.perform(delete("/products/50"))
+       .andExpect(status().isNotFound());
+  }
+}
@@ -1,6 +1,10 @@
 package ar.edu.challenge01.productapi.web;
 
+import ar.edu.challenge01.productapi.cache.ProductCache;
+import ar.edu.challenge01.productapi.cache.ProductPayloadCache;
 import ar.edu.challenge01.productapi.repository.ProductRepository;
+import ar.edu.challenge01.productapi.service.ProductService;
+import ar.edu.challenge01.productapi.writebehind.ProductWriteBehind;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,16 +17,19 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
-@Import(ApiExceptionHandler.class)
+@Import({ApiExceptionHandler.class, ProductService.class, ProductCache.class, ProductPayloadCache.class})
 class ProductValidationTest {
 
   @Autowired
   private MockMvc mvc;
 
-  // Mockeamos el repo porque el controller lo inyecta
+  // Mockeamos el repo porque el controller (y el service) lo inyectan
   @MockBean
   private ProductRepository repo;
 
+  @MockBean
+  private ProductWriteBehind writeBehind;
+
   @Test
   void create_rechaza_payload_invalido_con_400() throws Exception {
     // Falta name y price => debe fallar Bean Validation
@@ -34,10 +41,10 @@ class ProductValidationTest {
         .contentType(MediaType.APPLICATION_JSON)
         .content(body))
       .andExpect(status().isBadRequest())
-      // Tu handler hoy devuelve "Bad Request" (reason phrase estándar)
-      .andExpect(jsonPath("$.error").value("Bad Request"))
+      .andExpect(jsonPath("$.error").value("BAD_REQUEST"))
       .andExpect(jsonPath("$.message").value("Validation failed"))
-      .andExpect(jsonPath("$.details.name").value("must not be blank"));
+      .andExpect(jsonPath("$.fields.name[0]").value("name must not be blank"))
+      .andExpect(jsonPath("$.fields.price[0]").value("price must not be null"));
   }
 }
 
@@ -0,0 +1,134 @@
+package ar.edu.challenge01.productapi.web;
+
+import ar.edu.challenge01.productapi.dto.ProductResponse;
+import ar.edu.challenge01.productapi.repository.ReactiveProductRepository;
+import ar.edu.challenge01.productapi.service.ReactiveProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+// Stack reactivo contra H2 en memoria (R2DBC): corre sin PostgreSQL ni red
+@DataR2dbcTest(properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-products;DB_CLOSE_DELAY=-1")
+class ReactiveProductControllerTest {
+
+  @Autowired DatabaseClient db;
+  @Autowired ReactiveProductRepository repo;
+  @Autowired ReactiveTransactionManager txManager;
+
+  WebTestClient client;
+
+  @BeforeEach
+  void setUp() {
+    // Mismas columnas que dejan las migraciones Flyway (en dialecto H2)
+    db.sql("DROP TABLE IF EXISTS products").then()
+        .then(db.sql("""
+            CREATE TABLE products (
+              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+              name VARCHAR NOT NULL,
+              description VARCHAR NOT NULL,
+              price NUMERIC(15,2) NOT NULL,
+              sku VARCHAR(64),
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              version BIGINT NOT NULL DEFAULT 0
+            )""").then())
+        .then(db.sql("DROP TABLE IF EXISTS product_changes").then())
+        .then(db.sql("""
+            CREATE TABLE product_changes (
+              seq BIGINT AUTO_INCREMENT PRIMARY KEY,
+              product_id BIGINT NOT NULL,
+              type VARCHAR(16) NOT NULL,
+              occurred_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )""").then())
+        .block();
+
+    var service = new ReactiveProductService(repo, event -> {}, txManager);
+    client = WebTestClient.bindToController(new ReactiveProductController(service))
+        .controllerAdvice(new ApiExceptionHandler())
+        .build();
+  }
+
+  @Test
+  void create_luegoGet_devuelveElProducto() {
+    ProductResponse created = client.post().uri("/products")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Map.of("name", "Teclado", "description", "Mecánico", "price", "1234.5"))
+        .exchange()
+        .expectStatus().isCreated()
+        .expectHeader().exists("Location")
+        .expectBody(ProductResponse.class)
+        .returnResult().getResponseBody();
+
+    client.get().uri("/products/" + created.id())
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.name").isEqualTo("Teclado")
+        .jsonPath("$.price").isEqualTo(1234.50);
+  }
+
+  @Test
+  void list_ndjson_emiteUnProductoPorElemento_delMasNuevoAlMasViejo() {
+    for (String name : new String[]{"Mouse", "Monitor", "Parlante"}) {
+      client.post().uri("/products")
+          .contentType(MediaType.APPLICATION_JSON)
+          .bodyValue(Map.of("name", name, "description", "Periférico", "price", "10"))
+          .exchange()
+          .expectStatus().isCreated();
+    }
+
+    var stream = client.get().uri("/products")
+        .accept(MediaType.APPLICATION_NDJSON)
+        .exchange()
+        .expectStatus().isOk()
+        .returnResult(ProductResponse.class)
+        .getResponseBody();
+
+    StepVerifier.create(stream.map(ProductResponse::name))
+        .expectNext("Parlante", "Monitor", "Mouse")
+        .verifyComplete();
+  }
+
+  @Test
+  void create_escribeSuFilaEnElOutbox() {
+    ProductResponse created = client.post().uri("/products")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Map.of("name", "Teclado", "description", "Mecánico", "price", "10"))
+        .exchange()
+        .expectStatus().isCreated()
+        .expectBody(ProductResponse.class)
+        .returnResult().getResponseBody();
+
+    StepVerifier.create(db.sql("SELECT product_id, type FROM product_changes")
+            .map((row, meta) -> row.get("product_id", Long.class) + ":" + row.get("type", String.class))
+            .all())
+        .expectNext(created.id() + ":CREATED")
+        .verifyComplete();
+  }
+
+  @Test
+  void get_inexistente_devuelve404() {
+    client.get().uri("/products/999")
+        .exchange()
+        .expectStatus().isNotFound()
+        .expectBody().jsonPath("$.error").isEqualTo("NOT_FOUND");
+  }
+
+  @Test
+  void create_invalido_devuelve400ConCampos() {
+    client.post().uri("/products")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(Map.of("name", "", "description", "Sin nombre", "price", "10"))
+        .exchange()
+        .expectStatus().isBadRequest()
+        .expectBody().jsonPath("$.fields.name").exists();
+  }
+}
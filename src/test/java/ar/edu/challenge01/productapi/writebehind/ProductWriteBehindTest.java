@@ -0,0 +1,254 @@
+package ar.edu.challenge01.productapi.writebehind;
+
+import ar.edu.challenge01.productapi.dto.UpdateProductRequest;
+import ar.edu.challenge01.productapi.event.ProductChangedEvent;
+import ar.edu.challenge01.productapi.web.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductWriteBehindTest {
+
+  @TempDir Path dir;
+
+  private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+  private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final List<ProductWriteBehind> started = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws IOException {
+    for (ProductWriteBehind wb : started) {
+      wb.shutdown();
+    }
+  }
+
+  @Test
+  void coalescePorIdYGanaElUltimo() {
+    ProductWriteBehind wb = start(100);
+
+    wb.enqueue(1, update("v1"));
+    wb.enqueue(2, update("otro"));
+    wb.enqueue(1, update("v2"));
+
+    assertThat(wb.depth()).isEqualTo(2);
+    assertThat(wb.pending(1).name()).isEqualTo("v2");
+    assertThat(registry.get("product.write_behind.updates").tag("result", "coalesced").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void conLaColaLlenaRespondeServiceUnavailable() {
+    ProductWriteBehind wb = start(1);
+    wb.enqueue(1, update("v1"));
+    wb.enqueue(1, update("v2"));   // mismo id: coalesce, no ocupa lugar
+
+    assertThatThrownBy(() -> wb.enqueue(2, update("x")))
+        .isInstanceOf(ServiceUnavailableException.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void flushAplicaLaTandaYPublicaLosCambios() {
+    when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenReturn(List.of(1L));
+    ProductWriteBehind wb = start(100);
+    wb.enqueue(1, update("v1"));
+    wb.enqueue(2, update("borrado"));
+
+    assertThat(wb.flush()).isEqualTo(2);
+
+    assertThat(wb.depth()).isZero();
+    verify(events).publishEvent(ProductChangedEvent.updated(1L));
+    verify(events, never()).publishEvent(ProductChangedEvent.updated(2L));
+    assertThat(registry.get("product.write_behind.updates").tag("result", "skipped").counter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("product.write_behind.flush").timer().count()).isEqualTo(1);
+    // Nada pendiente: el journal ya no guarda nada para releer
+    assertThat(new UpdateJournal(dir, Long.MAX_VALUE, false, new ObjectMapper().findAndRegisterModules()).open())
+        .isEmpty();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void siLaBaseFallaLaTandaVuelveALaCola() {
+    when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+    ProductWriteBehind wb = start(100);
+    wb.enqueue(1, update("v1"));
+
+    assertThat(wb.flush()).isZero();
+
+    assertThat(wb.depth()).isEqualTo(1);
+    assertThat(wb.pending(1).name()).isEqualTo("v1");
+    assertThat(registry.get("product.write_behind.flush.failures").counter().count()).isEqualTo(1);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void conLaBaseCaidaEsperaCadaVezMasEntreReintentos() {
+    when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+        .thenThrow(new DataAccessResourceFailureException("down"))
+        .thenThrow(new DataAccessResourceFailureException("down"))
+        .thenReturn(List.of(1L));
+    ProductWriteBehind wb = start(100);
+    wb.enqueue(1, update("v1"));
+
+    wb.flush();
+    long first = wb.backoffNanos();
+    wb.flush();
+
+    assertThat(first).isEqualTo(Duration.ofHours(1).toNanos());
+    assertThat(wb.backoffNanos()).isEqualTo(Duration.ofHours(2).toNanos());
+    assertThat(wb.flush()).isEqualTo(1);
+    assertThat(wb.backoffNanos()).isZero();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void unUpdateQueLaBaseRechazaVaAlDeadLetterYNoFrenaALosDemas() throws Exception {
+    // La base rechaza cualquier tanda que incluya un nombre con NUL (SQLState 22021)
+    Connection con = mock(Connection.class);
+    when(con.prepareStatement(any())).thenReturn(mock(PreparedStatement.class));
+    List<Object[]> arrays = new ArrayList<>();
+    when(con.createArrayOf(any(), any())).thenAnswer(inv -> {
+      arrays.add(inv.getArgument(1));
+      return null;
+    });
+    when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+      arrays.clear();
+      inv.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(con);
+      if (Arrays.stream(arrays.get(1)).anyMatch(name -> ((String) name).indexOf('\0') >= 0)) {
+        throw new DataIntegrityViolationException("bad", new SQLException("invalid byte sequence", "22021"));
+      }
+      return Arrays.stream(arrays.get(0)).map(Long.class::cast).toList();
+    });
+    ProductWriteBehind wb = start(100);
+    for (long id = 1; id <= 5; id++) {
+      wb.enqueue(id, update(id == 3 ? "ve\0nenoso" : "v" + id));
+    }
+
+    assertThat(wb.flush()).isEqualTo(5);
+
+    assertThat(wb.depth()).isZero();
+    assertThat(wb.backoffNanos()).isZero();
+    for (long id : new long[] {1, 2, 4, 5}) {
+      verify(events).publishEvent(ProductChangedEvent.updated(id));
+    }
+    verify(events, never()).publishEvent(ProductChangedEvent.updated(3L));
+    assertThat(registry.get("product.write_behind.updates").tag("result", "dead_letter").counter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("product.write_behind.flush.failures").counter().count()).isZero();
+    // No retiene el journal
+    assertThat(new UpdateJournal(dir, Long.MAX_VALUE, false, new ObjectMapper().findAndRegisterModules()).open())
+        .isEmpty();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void lasTandasSalenEnOrdenDeLlegada() throws Exception {
+    Connection con = mock(Connection.class);
+    when(con.prepareStatement(any())).thenReturn(mock(PreparedStatement.class));
+    when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+      inv.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(con);
+      return List.of();
+    });
+    ProductWriteBehind wb = start(100);
+    for (long id : new long[] {5, 1, 9, 3}) {
+      wb.enqueue(id, update("v1"));
+    }
+    wb.enqueue(5, update("v2"));   // coalesce: conserva su lugar
+
+    wb.flush();
+
+    verify(con).createArrayOf("bigint", new Long[] {5L, 1L, 9L, 3L});
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void siElHiloSigueAplicandoUnaTandaElShutdownNoTocaElJournal() throws Exception {
+    CountDownLatch applying = new CountDownLatch(1);
+    CountDownLatch dbBack = new CountDownLatch(1);
+    when(jdbc.query(any(PreparedStatementCreator.class), any(RowMapper.class))).thenAnswer(inv -> {
+      applying.countDown();
+      dbBack.await();
+      return List.of();
+    });
+    ProductWriteBehind wb = start(200);
+    for (long id = 1; id <= 100; id++) {
+      wb.enqueue(id, update("v1"));   // batch-size: despierta al hilo
+    }
+    assertThat(applying.await(5, TimeUnit.SECONDS)).isTrue();
+
+    wb.shutdown(Duration.ofMillis(50));
+
+    // Ni un drain en paralelo ni segmentos liberados con la tanda todavía en curso
+    verify(jdbc, times(1)).query(any(PreparedStatementCreator.class), any(RowMapper.class));
+    assertThat(journalLines()).isEqualTo(100);
+
+    dbBack.countDown();
+  }
+
+  @Test
+  void alReiniciarReleeLoAceptadoDelJournal() {
+    ProductWriteBehind crashed = start(100);
+    crashed.enqueue(1, update("v1"));
+    crashed.enqueue(1, update("v2"));
+    crashed.enqueue(3, update("otro"));
+
+    ProductWriteBehind restarted = start(100);
+
+    assertThat(restarted.depth()).isEqualTo(2);
+    assertThat(restarted.pending(1).name()).isEqualTo("v2");
+  }
+
+  private ProductWriteBehind start(int maxPending) {
+    ProductWriteBehind wb = new ProductWriteBehind(jdbc, mock(PlatformTransactionManager.class), events,
+        new ObjectMapper().findAndRegisterModules(), registry, dir.toString(), DataSize.ofMegabytes(1),
+        true, maxPending, 100, Duration.ofHours(1), Duration.ofHours(4));
+    started.add(wb);
+    return wb;
+  }
+
+  private long journalLines() throws IOException {
+    long lines = 0;
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : files.toList()) {
+        lines += Files.readAllLines(file).stream().filter(l -> !l.isBlank()).count();
+      }
+    }
+    return lines;
+  }
+
+  private static UpdateProductRequest update(String name) {
+    return new UpdateProductRequest(name, "desc", new BigDecimal("10.00"));
+  }
+}
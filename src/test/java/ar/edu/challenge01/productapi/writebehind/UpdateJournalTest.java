@@ -0,0 +1,95 @@
+package ar.edu.challenge01.productapi.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class UpdateJournalTest {
+
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+  @TempDir Path dir;
+
+  @Test
+  void alReabrirDevuelveLoAceptadoYSigueLaNumeracion() throws IOException {
+    UpdateJournal journal = open(1024);
+    journal.append(1, "Mouse", "Inalámbrico", 99990, u -> {});
+    journal.append(2, "Teclado", "Mecánico", 150000, u -> {});
+    journal.close();
+
+    UpdateJournal reopened = new UpdateJournal(dir, 1024, true, mapper);
+    List<QueuedUpdate> found = reopened.open();
+
+    assertThat(found).extracting(QueuedUpdate::seq).containsExactly(1L, 2L);
+    assertThat(found.get(1).name()).isEqualTo("Teclado");
+    assertThat(found.get(0).priceCents()).isEqualTo(99990);
+    assertThat(reopened.append(3, "Monitor", "24", 1000, u -> {}).seq()).isEqualTo(3);
+  }
+
+  @Test
+  void unaLineaCortadaPorUnCrashSeDescarta() throws IOException {
+    UpdateJournal journal = open(1024);
+    journal.append(1, "Mouse", "Inalámbrico", 100, u -> {});
+    journal.close();
+    Files.writeString(onlyFile(), "{\"seq\":2,\"id\":7,\"na", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+    List<QueuedUpdate> found = new UpdateJournal(dir, 1024, true, mapper).open();
+
+    assertThat(found).extracting(QueuedUpdate::id).containsExactly(1L);
+  }
+
+  @Test
+  void releaseBorraLosSegmentosYaAplicados() throws IOException {
+    UpdateJournal journal = open(1);   // un segmento por update
+    for (long id = 1; id <= 3; id++) {
+      journal.append(id, "p" + id, "d", 100, u -> {});
+    }
+    assertThat(journal.segmentCount()).isEqualTo(3);
+
+    journal.release(3);   // seq 3 sigue pendiente
+    assertThat(journal.segmentCount()).isEqualTo(1);
+
+    journal.release(Long.MAX_VALUE);
+    journal.close();
+    assertThat(files()).isEmpty();
+  }
+
+  @Test
+  void onAppendedCorreAntesDeVolver() {
+    UpdateJournal journal = open(1024);
+    long[] seen = {0};
+
+    QueuedUpdate u = journal.append(5, "Mouse", "d", 100, appended -> seen[0] = appended.seq());
+
+    assertThat(seen[0]).isEqualTo(u.seq());
+    assertThat(journal.lastSeq()).isEqualTo(u.seq());
+  }
+
+  private UpdateJournal open(long segmentBytes) {
+    UpdateJournal journal = new UpdateJournal(dir, segmentBytes, true, mapper);
+    assertThat(journal.open()).isEmpty();
+    return journal;
+  }
+
+  private Path onlyFile() throws IOException {
+    List<Path> files = files();
+    assertThat(files).hasSize(1);
+    return files.get(0);
+  }
+
+  private List<Path> files() throws IOException {
+    try (Stream<Path> list = Files.list(dir)) {
+      return list.toList();
+    }
+  }
+}